@@ -0,0 +1,106 @@
+package com.flightstats.hub.model;
+
+import com.flightstats.hub.util.TimeUtil;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.DecimalFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ContentKey codec with the Joda and substring based code it replaced.
+ * Run with ./gradlew jmh, and add -PjmhArgs="-prof gc" to see the allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentKeyBenchmark {
+
+    private static final DecimalFormat format = new DecimalFormat("000000");
+
+    private final StringBuilder builder = new StringBuilder();
+    private ContentKey key;
+    private ContentKey other;
+    private DateTime time;
+    private DateTime otherTime;
+    private String url;
+
+    @Setup
+    public void setup() {
+        key = new ContentKey(2019, 6, 14, 17, 32, 5, 123, "A1b2C3");
+        other = new ContentKey(2019, 6, 14, 17, 32, 5, 124, "A1b2C3");
+        time = key.getTime();
+        otherTime = other.getTime();
+        url = key.toUrl();
+    }
+
+    @Benchmark
+    public String toUrlJoda() {
+        return TimeUtil.millis(time) + key.getHash();
+    }
+
+    @Benchmark
+    public String toUrl() {
+        return key.toUrl();
+    }
+
+    @Benchmark
+    public int appendUrl() {
+        builder.setLength(0);
+        return key.appendUrl(builder).length();
+    }
+
+    @Benchmark
+    public ContentKey fromUrlSubstrings() {
+        int year = Integer.parseInt(url.substring(0, 4));
+        int month = Integer.parseInt(url.substring(5, 7));
+        int day = Integer.parseInt(url.substring(8, 10));
+        int hour = Integer.parseInt(url.substring(11, 13));
+        int minute = Integer.parseInt(url.substring(14, 16));
+        int second = Integer.parseInt(url.substring(17, 19));
+        int millis = Integer.parseInt(url.substring(20, 23));
+        String hash = url.substring(24);
+        return new ContentKey(new DateTime(year, month, day, hour, minute, second, millis, DateTimeZone.UTC), hash);
+    }
+
+    @Benchmark
+    public ContentKey fromUrl() {
+        return ContentKey.fromUrl(url).get();
+    }
+
+    @Benchmark
+    public int compareDateTime() {
+        int diff = time.compareTo(otherTime);
+        return diff == 0 ? key.getHash().compareTo(other.getHash()) : diff;
+    }
+
+    @Benchmark
+    public int compare() {
+        return key.compareTo(other);
+    }
+
+    @Benchmark
+    public String bulkHashDecimalFormat() {
+        synchronized (format) {
+            return key.getHash() + format.format(42);
+        }
+    }
+
+    @Benchmark
+    public ContentKey bulkKey() {
+        return ContentKey.bulkKey(key, 42);
+    }
+}
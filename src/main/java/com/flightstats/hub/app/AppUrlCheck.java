@@ -4,6 +4,7 @@ import com.flightstats.hub.cluster.Cluster;
 import com.flightstats.hub.config.properties.AppProperties;
 import com.flightstats.hub.config.properties.LocalHostProperties;
 import com.flightstats.hub.rest.RestClient;
+import com.flightstats.hub.util.HubUtils;
 import com.google.common.util.concurrent.AbstractIdleService;
 import com.google.inject.Singleton;
 import com.google.inject.name.Named;
@@ -43,11 +44,15 @@ public class AppUrlCheck extends AbstractIdleService {
         if (hasHealthyServers()) {
             String appUrl = appProperties.getAppUrl();
             ClientResponse response = client.resource(appUrl).get(ClientResponse.class);
-            log.trace("got response {}", response);
-            if (response.getStatus() != 200) {
-                String msg = "unable to connect to app.url " + appUrl + " status=" + response.getStatus();
-                log.error(msg);
-                throw new RuntimeException(msg);
+            try {
+                log.trace("got response {}", response);
+                if (response.getStatus() != 200) {
+                    String msg = "unable to connect to app.url " + appUrl + " status=" + response.getStatus();
+                    log.error(msg);
+                    throw new RuntimeException(msg);
+                }
+            } finally {
+                HubUtils.close(response);
             }
             log.debug("app check url complete");
         } else {
@@ -60,9 +65,13 @@ public class AppUrlCheck extends AbstractIdleService {
             String serverUri = localHostProperties.getUriScheme() + server;
             if (!serverUri.equals(localHostProperties.getUriWithHostName())) {
                 ClientResponse response = client.resource(serverUri + "/health").get(ClientResponse.class);
-                log.trace("got response {}", response);
-                if (response.getStatus() == 200) {
-                    return true;
+                try {
+                    log.trace("got response {}", response);
+                    if (response.getStatus() == 200) {
+                        return true;
+                    }
+                } finally {
+                    HubUtils.close(response);
                 }
             } else {
                 log.warn("ignoring {}", serverUri);
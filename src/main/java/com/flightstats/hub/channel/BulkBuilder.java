@@ -14,11 +14,15 @@ public class BulkBuilder {
 
     private final MultiPartBulkBuilder multiPartBulkBuilder;
     private final ZipBulkBuilder zipBulkBuilder;
+    private final BulkContentLoader bulkContentLoader;
 
     @Inject
-    public BulkBuilder(MultiPartBulkBuilder multiPartBulkBuilder, ZipBulkBuilder zipBulkBuilder) {
+    public BulkBuilder(MultiPartBulkBuilder multiPartBulkBuilder,
+                       ZipBulkBuilder zipBulkBuilder,
+                       BulkContentLoader bulkContentLoader) {
         this.multiPartBulkBuilder = multiPartBulkBuilder;
         this.zipBulkBuilder = zipBulkBuilder;
+        this.bulkContentLoader = bulkContentLoader;
     }
 
     public Response build(SortedSet<ContentKey> keys,
@@ -46,7 +50,7 @@ public class BulkBuilder {
     }
 
     Response buildTag(String tag,
-                      SortedSet<ChannelContentKey> keys,
+                      Iterable<ChannelContentKey> keys,
                       ChannelService channelService,
                       UriInfo uriInfo,
                       String accept) {
@@ -57,16 +61,16 @@ public class BulkBuilder {
     }
 
     public Response buildTag(String tag,
-                             SortedSet<ChannelContentKey> keys,
+                             Iterable<ChannelContentKey> keys,
                              ChannelService channelService,
                              UriInfo uriInfo,
                              String accept,
                              Consumer<Response.ResponseBuilder> headerBuilder) {
         //todo - gfm - order
         if ("application/zip".equalsIgnoreCase(accept)) {
-            return zipBulkBuilder.buildTag(tag, keys, channelService, headerBuilder);
+            return zipBulkBuilder.buildTag(tag, keys, channelService, bulkContentLoader, headerBuilder);
         } else {
-            return multiPartBulkBuilder.buildTag(keys, channelService, uriInfo, headerBuilder);
+            return multiPartBulkBuilder.buildTag(keys, channelService, bulkContentLoader, uriInfo, headerBuilder);
         }
     }
 
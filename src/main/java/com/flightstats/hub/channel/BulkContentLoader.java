@@ -0,0 +1,78 @@
+package com.flightstats.hub.channel;
+
+import com.flightstats.hub.config.properties.ContentProperties;
+import com.flightstats.hub.dao.ChannelService;
+import com.flightstats.hub.dao.ItemRequest;
+import com.flightstats.hub.metrics.ActiveTraces;
+import com.flightstats.hub.metrics.Traces;
+import com.flightstats.hub.model.ChannelContentKey;
+import com.flightstats.hub.model.Content;
+import com.flightstats.hub.util.RuntimeInterruptedException;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Singleton;
+
+import javax.inject.Inject;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+/**
+ * Loads the content for keys from several channels in key order, reading up to bulk.prefetch.count items ahead
+ * of the one being written, so only that many payloads are held in memory at once.
+ */
+@Singleton
+class BulkContentLoader {
+
+    private final ExecutorService executorService;
+    private final int prefetch;
+
+    @Inject
+    BulkContentLoader(ContentProperties contentProperties) {
+        this.prefetch = Math.max(1, contentProperties.getBulkPrefetchCount());
+        this.executorService = Executors.newCachedThreadPool(
+                new ThreadFactoryBuilder().setNameFormat("BulkContentLoader-%d").setDaemon(true).build());
+    }
+
+    void forEach(Iterable<ChannelContentKey> keys,
+                 ChannelService channelService,
+                 BiConsumer<ChannelContentKey, Optional<Content>> consumer) {
+        Traces traces = ActiveTraces.getLocal();
+        Iterator<ChannelContentKey> iterator = keys.iterator();
+        Deque<Map.Entry<ChannelContentKey, Future<Optional<Content>>>> window = new ArrayDeque<>();
+        try {
+            while (true) {
+                while (window.size() < prefetch && iterator.hasNext()) {
+                    ChannelContentKey key = iterator.next();
+                    window.add(new AbstractMap.SimpleImmutableEntry<>(key, executorService.submit(() -> {
+                        ActiveTraces.setLocal(traces);
+                        return channelService.get(ItemRequest.builder()
+                                .channel(key.getChannel())
+                                .key(key.getContentKey())
+                                .build());
+                    })));
+                }
+                Map.Entry<ChannelContentKey, Future<Optional<Content>>> next = window.poll();
+                if (next == null) {
+                    return;
+                }
+                consumer.accept(next.getKey(), next.getValue().get());
+            }
+        } catch (InterruptedException e) {
+            throw new RuntimeInterruptedException(e);
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        } finally {
+            window.forEach(entry -> entry.getValue().cancel(true));
+        }
+    }
+}
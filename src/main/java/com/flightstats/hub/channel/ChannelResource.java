@@ -42,6 +42,7 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 import java.io.InputStream;
@@ -69,9 +70,12 @@ public class ChannelResource {
     private final LinkBuilder linkBuilder;
     private final ContentProperties contentProperties;
     private final PermissionsChecker permissionsChecker;
+    private final RenderedResponseCache renderedResponseCache;
 
     @Context
     private UriInfo uriInfo;
+    @Context
+    private Request request;
 
     @Inject
     public ChannelResource(ObjectMapper objectMapper,
@@ -81,7 +85,8 @@ public class ChannelResource {
                            EventsService eventsService,
                            LinkBuilder linkBuilder,
                            ContentProperties contentProperties,
-                           PermissionsChecker permissionsChecker) {
+                           PermissionsChecker permissionsChecker,
+                           RenderedResponseCache renderedResponseCache) {
         this.objectMapper = objectMapper;
         this.channelService = channelService;
         this.contentRetriever = contentRetriever;
@@ -90,6 +95,7 @@ public class ChannelResource {
         this.linkBuilder = linkBuilder;
         this.contentProperties = contentProperties;
         this.permissionsChecker = permissionsChecker;
+        this.renderedResponseCache = renderedResponseCache;
     }
 
     public Response deletion(@PathParam("channel") String channelName) {
@@ -117,8 +123,8 @@ public class ChannelResource {
                     throw new WebApplicationException(Response.Status.NOT_FOUND);
                 });
 
-        ObjectNode output = linkBuilder.buildChannelConfigResponse(channelConfig, uriInfo, channelName);
-        return Response.ok(output).build();
+        return renderedResponseCache.get("channel|" + uriInfo.getBaseUri() + "|" + channelName, channelConfig, request,
+                () -> linkBuilder.buildChannelConfigResponse(channelConfig, uriInfo, channelName));
     }
 
     @PUT
@@ -6,7 +6,6 @@ import com.flightstats.hub.dao.ChannelService;
 import com.flightstats.hub.exception.ConflictException;
 import com.flightstats.hub.exception.InvalidRequestException;
 import com.flightstats.hub.model.ChannelConfig;
-import com.flightstats.hub.rest.Linked;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.inject.Inject;
@@ -17,6 +16,7 @@ import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 import java.net.URI;
@@ -35,29 +35,36 @@ public class ChannelsResource {
     private final ChannelService channelService;
     private final LinkBuilder linkBuilder;
     private final PermissionsChecker permissionsChecker;
+    private final RenderedResponseCache renderedResponseCache;
 
     @Context
     private UriInfo uriInfo;
+    @Context
+    private Request request;
 
     @Inject
     private ChannelsResource(ChannelService channelService,
                              LinkBuilder linkBuilder,
-                             PermissionsChecker permissionsChecker) {
+                             PermissionsChecker permissionsChecker,
+                             RenderedResponseCache renderedResponseCache) {
         this.channelService = channelService;
         this.linkBuilder = linkBuilder;
         this.permissionsChecker = permissionsChecker;
+        this.renderedResponseCache = renderedResponseCache;
     }
 
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public Response getChannels() {
-        Map<String, URI> mappedUris = new TreeMap<>();
-        for (ChannelConfig channelConfig : channelService.getChannels()) {
-            String channelName = channelConfig.getDisplayName();
-            mappedUris.put(channelName, linkBuilder.buildChannelUri(channelName, uriInfo));
-        }
-        Linked<?> result = linkBuilder.buildLinks(uriInfo, mappedUris, "channels");
-        return Response.ok(result).build();
+        long version = channelService.getChannelsVersion();
+        return renderedResponseCache.get("channels|" + uriInfo.getRequestUri(), version < 0 ? null : version, request, () -> {
+            Map<String, URI> mappedUris = new TreeMap<>();
+            for (ChannelConfig channelConfig : channelService.getChannels()) {
+                String channelName = channelConfig.getDisplayName();
+                mappedUris.put(channelName, linkBuilder.buildChannelUri(channelName, uriInfo));
+            }
+            return linkBuilder.buildLinks(uriInfo, mappedUris, "channels");
+        });
     }
 
     @POST
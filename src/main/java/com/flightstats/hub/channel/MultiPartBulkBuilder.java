@@ -1,7 +1,6 @@
 package com.flightstats.hub.channel;
 
 import com.flightstats.hub.dao.ChannelService;
-import com.flightstats.hub.dao.ItemRequest;
 import com.flightstats.hub.metrics.ActiveTraces;
 import com.flightstats.hub.metrics.Traces;
 import com.flightstats.hub.model.ChannelContentKey;
@@ -20,7 +19,6 @@ import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
-import java.util.Optional;
 import java.util.SortedSet;
 import java.util.function.Consumer;
 
@@ -62,16 +60,16 @@ class MultiPartBulkBuilder {
         }, headerBuilder);
     }
 
-    Response buildTag(SortedSet<ChannelContentKey> keys,
+    Response buildTag(Iterable<ChannelContentKey> keys,
                       ChannelService channelService,
+                      BulkContentLoader bulkContentLoader,
                       UriInfo uriInfo,
                       Consumer<Response.ResponseBuilder> headerBuilder) {
         Traces traces = ActiveTraces.getLocal();
         return write((BufferedOutputStream output) -> {
             ActiveTraces.setLocal(traces);
-            for (ChannelContentKey key : keys) {
-                writeContent(uriInfo, output, key.getContentKey(), key.getChannel(), channelService);
-            }
+            bulkContentLoader.forEach(keys, channelService, (key, content) -> content.ifPresent(
+                    item -> writeContent(item, output, linkBuilder.buildChannelUri(key.getChannel(), uriInfo), key.getChannel())));
         }, headerBuilder);
     }
 
@@ -90,22 +88,6 @@ class MultiPartBulkBuilder {
         return builder.build();
     }
 
-    private void writeContent(UriInfo uriInfo,
-                              BufferedOutputStream output,
-                              ContentKey key,
-                              String channel,
-                              ChannelService channelService) {
-        ItemRequest itemRequest = ItemRequest.builder()
-                .channel(channel)
-                .key(key)
-                .build();
-        Optional<Content> content = channelService.get(itemRequest);
-        if (content.isPresent()) {
-            Content item = content.get();
-            writeContent(item, output, linkBuilder.buildChannelUri(channel, uriInfo), channel);
-        }
-    }
-
     private void writeContent(Content content, OutputStream output, URI channelUri, String name) {
         writeContent(content, output, channelUri, name, true, false);
     }
@@ -0,0 +1,73 @@
+package com.flightstats.hub.channel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightstats.hub.config.properties.AppProperties;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import lombok.SneakyThrows;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the serialized JSON of frequently polled responses, along with the version of the data it was built from.
+ * The ETag is a hash of the body, so it is the same on every node, and clients sending If-None-Match get a 304.
+ */
+@Singleton
+public class RenderedResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Rendered> cache;
+
+    @Inject
+    public RenderedResponseCache(ObjectMapper objectMapper, AppProperties appProperties) {
+        this.objectMapper = objectMapper;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(1, appProperties.getResponseCacheSize()))
+                .build();
+    }
+
+    /**
+     * @param version changes whenever the response would, or null if the response can't be cached
+     */
+    Response get(String key, Object version, Request request, Supplier<Object> render) {
+        Rendered rendered = version == null ? null : cache.getIfPresent(key);
+        if (rendered == null || !rendered.version.equals(version)) {
+            rendered = new Rendered(version, serialize(render.get()));
+            if (version != null) {
+                cache.put(key, rendered);
+            }
+        }
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(rendered.entityTag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return Response.ok(rendered.body, MediaType.APPLICATION_JSON_TYPE)
+                .tag(rendered.entityTag)
+                .build();
+    }
+
+    @SneakyThrows
+    private byte[] serialize(Object entity) {
+        return objectMapper.writeValueAsBytes(entity);
+    }
+
+    private static class Rendered {
+
+        private final Object version;
+        private final byte[] body;
+        private final EntityTag entityTag;
+
+        Rendered(Object version, byte[] body) {
+            this.version = version;
+            this.body = body;
+            this.entityTag = new EntityTag(Hashing.murmur3_128().hashBytes(body).toString());
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.flightstats.hub.channel;
 
 import com.flightstats.hub.dao.ChannelService;
-import com.flightstats.hub.rest.Linked;
 
 import javax.inject.Inject;
 import javax.ws.rs.GET;
@@ -9,6 +8,7 @@ import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 import java.net.URI;
@@ -23,25 +23,31 @@ public class TagResource {
 
     private final ChannelService channelService;
     private final LinkBuilder linkBuilder;
+    private final RenderedResponseCache renderedResponseCache;
 
     @Context
     private UriInfo uriInfo;
+    @Context
+    private Request request;
 
     @Inject
-    public TagResource(ChannelService channelService, LinkBuilder linkBuilder) {
+    public TagResource(ChannelService channelService, LinkBuilder linkBuilder, RenderedResponseCache renderedResponseCache) {
         this.channelService = channelService;
         this.linkBuilder = linkBuilder;
+        this.renderedResponseCache = renderedResponseCache;
     }
 
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public Response getChannels() {
-        Map<String, URI> tagUriMap = new TreeMap<>();
-        for (String tag : channelService.getTags()) {
-            tagUriMap.put(tag, URI.create(uriInfo.getBaseUri() + "tag/" + tag));
-        }
-        Linked<?> result = linkBuilder.buildLinks(uriInfo, tagUriMap, "tags");
-        return Response.ok(result).build();
+        long version = channelService.getChannelsVersion();
+        return renderedResponseCache.get("tags|" + uriInfo.getRequestUri(), version < 0 ? null : version, request, () -> {
+            Map<String, URI> tagUriMap = new TreeMap<>();
+            for (String tag : channelService.getTags()) {
+                tagUriMap.put(tag, URI.create(uriInfo.getBaseUri() + "tag/" + tag));
+            }
+            return linkBuilder.buildLinks(uriInfo, tagUriMap, "tags");
+        });
     }
 
 }
@@ -2,7 +2,6 @@ package com.flightstats.hub.channel;
 
 import com.flightstats.hub.dao.ChannelService;
 import com.flightstats.hub.dao.ContentMarshaller;
-import com.flightstats.hub.dao.ItemRequest;
 import com.flightstats.hub.metrics.ActiveTraces;
 import com.flightstats.hub.metrics.Traces;
 import com.flightstats.hub.model.ChannelContentKey;
@@ -15,7 +14,6 @@ import lombok.extern.slf4j.Slf4j;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
 import java.io.IOException;
-import java.util.Optional;
 import java.util.SortedSet;
 import java.util.function.Consumer;
 import java.util.zip.Deflater;
@@ -43,16 +41,21 @@ public class ZipBulkBuilder {
         }, headerBuilder);
     }
 
-    public Response buildTag(String tag,
-                             SortedSet<ChannelContentKey> keys,
-                             ChannelService channelService,
-                             Consumer<Response.ResponseBuilder> headerBuilder) {
+    Response buildTag(String tag,
+                      Iterable<ChannelContentKey> keys,
+                      ChannelService channelService,
+                      BulkContentLoader bulkContentLoader,
+                      Consumer<Response.ResponseBuilder> headerBuilder) {
         Traces traces = ActiveTraces.getLocal();
         return write((ZipOutputStream output) -> {
             ActiveTraces.setLocal(traces);
-            for (ChannelContentKey key : keys) {
-                writeContent(output, key.getContentKey(), key.getChannel(), channelService);
-            }
+            bulkContentLoader.forEach(keys, channelService, (key, content) -> {
+                if (content.isPresent()) {
+                    createZipEntry(output, content.get());
+                } else {
+                    log.warn("missing content for zip {} {}", key.getChannel(), key.getContentKey());
+                }
+            });
         }, headerBuilder);
     }
 
@@ -72,22 +75,6 @@ public class ZipBulkBuilder {
         return builder.build();
     }
 
-    private void writeContent(ZipOutputStream output,
-                              ContentKey key,
-                              String channel,
-                              ChannelService channelService) {
-        ItemRequest itemRequest = ItemRequest.builder()
-                .channel(channel)
-                .key(key)
-                .build();
-        Optional<Content> contentOptional = channelService.get(itemRequest);
-        if (contentOptional.isPresent()) {
-            createZipEntry(output, contentOptional.get());
-        } else {
-            log.warn("missing content for zip {} {}", channel, key);
-        }
-    }
-
     public void createZipEntry(ZipOutputStream output, Content content) {
         try {
             String keyId = content.getContentKey().get().toUrl();
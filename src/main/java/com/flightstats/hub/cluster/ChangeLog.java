@@ -0,0 +1,78 @@
+package com.flightstats.hub.cluster;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The names most recently changed under a watched path, numbered in order.
+ * A watcher which knows the last number it has seen can read just the names changed since then,
+ * as long as they are still in the log.
+ */
+public class ChangeLog {
+
+    static final int MAX_NAMES = 500;
+    private static final String HEADER = "changes";
+
+    @Getter
+    private final long sequence;
+    private final List<String> names;
+
+    ChangeLog(long sequence, List<String> names) {
+        this.sequence = sequence;
+        this.names = names;
+    }
+
+    static Optional<ChangeLog> fromBytes(byte[] bytes) {
+        if (bytes == null) {
+            return Optional.empty();
+        }
+        List<String> lines = Arrays.asList(new String(bytes, StandardCharsets.UTF_8).split("\n"));
+        if (lines.size() < 2 || !HEADER.equals(lines.get(0))) {
+            return Optional.empty();
+        }
+        try {
+            long sequence = Long.parseLong(lines.get(1));
+            return Optional.of(new ChangeLog(sequence, new ArrayList<>(lines.subList(2, lines.size()))));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    byte[] toBytes() {
+        StringBuilder builder = new StringBuilder(HEADER).append('\n').append(sequence);
+        for (String name : names) {
+            builder.append('\n').append(name);
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    ChangeLog add(String name) {
+        List<String> next = new ArrayList<>(names);
+        next.add(name);
+        if (next.size() > MAX_NAMES) {
+            next = new ArrayList<>(next.subList(next.size() - MAX_NAMES, next.size()));
+        }
+        return new ChangeLog(sequence + 1, next);
+    }
+
+    /**
+     * @return the names changed after the sequence, or empty if the log no longer has all of them
+     */
+    public Optional<List<String>> since(long previous) {
+        if (previous > sequence) {
+            return Optional.empty();
+        }
+        long first = sequence - names.size() + 1;
+        if (previous + 1 < first) {
+            return Optional.empty();
+        }
+        int from = (int) (previous + 1 - first);
+        return Optional.of(Collections.unmodifiableList(names.subList(from, names.size())));
+    }
+}
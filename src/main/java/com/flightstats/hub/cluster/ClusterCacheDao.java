@@ -1,30 +1,65 @@
 package com.flightstats.hub.cluster;
 
 import com.flightstats.hub.config.properties.AppProperties;
+import com.flightstats.hub.config.properties.ZooKeeperProperties;
 import com.flightstats.hub.exception.ConflictException;
 import com.flightstats.hub.exception.ContentTooLargeException;
 import com.flightstats.hub.model.ContentPath;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.PathChildrenCache;
+import org.apache.curator.framework.recipes.cache.PathChildrenCacheEvent;
 import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.data.Stat;
 
 import javax.inject.Inject;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+import static com.flightstats.hub.constant.ZookeeperNodes.HISTORICAL_EARLIEST;
+import static com.flightstats.hub.constant.ZookeeperNodes.LAST_COMMITTED_CONTENT_KEY;
+import static com.flightstats.hub.constant.ZookeeperNodes.LAST_SINGLE_VERIFIED;
+import static com.flightstats.hub.constant.ZookeeperNodes.REPLICATED_LAST_UPDATED;
+import static com.flightstats.hub.constant.ZookeeperNodes.WEBHOOK_LAST_COMPLETED;
+
+/**
+ * Reads of the frequently used base paths are served from a watched cache of their children,
+ * and fall through to ZooKeeper when the cache doesn't have the node.
+ * Writes made by this node are remembered until the cache sees them, so this node always reads its own writes.
+ * Conditional writes compare against the cached value first, so writes which can't win are skipped,
+ * and the versioned write is the check against a stale cache.
+ */
 @Slf4j
 public class ClusterCacheDao {
 
+    private static final String[] CACHED_PATHS = {
+            LAST_COMMITTED_CONTENT_KEY, WEBHOOK_LAST_COMPLETED, HISTORICAL_EARLIEST, REPLICATED_LAST_UPDATED, LAST_SINGLE_VERIFIED
+    };
+
+    private static final long DELETED_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
     private final CuratorFramework curator;
     private final AppProperties appProperties;
+    private final Map<String, CachedPath> cachedPaths = new HashMap<>();
+    private final ConcurrentMap<String, VersionedKey> written = new ConcurrentHashMap<>();
 
     @Inject
-    public ClusterCacheDao(CuratorFramework curator, AppProperties appProperties) {
+    public ClusterCacheDao(CuratorFramework curator, AppProperties appProperties, ZooKeeperProperties zooKeeperProperties) {
         this.curator = curator;
         this.appProperties = appProperties;
+        if (zooKeeperProperties.isClusterCacheEnabled()) {
+            for (String basePath : CACHED_PATHS) {
+                cachedPaths.put(basePath, new CachedPath(basePath));
+            }
+        }
     }
 
     private void trace(String nameOrPath, String text, Object... context) {
@@ -51,7 +86,7 @@ public class ClusterCacheDao {
     public ContentPath getOrNull(String name, String basePath) {
         String path = basePath + name;
         try {
-            return getMostRecentKey(path).getKey();
+            return getCachedKey(path, basePath).getKey();
         } catch (Exception e) {
             log.warn("unable to get node {} {} {} ", name, basePath, e.getMessage());
             return null;
@@ -61,7 +96,7 @@ public class ClusterCacheDao {
     public ContentPath get(String name, ContentPath defaultPath, String basePath) {
         String path = basePath + name;
         try {
-            ContentPath contentPath = getMostRecentKey(path).getKey();
+            ContentPath contentPath = getCachedKey(path, basePath).getKey();
             trace(name, "get default {} found {}", defaultPath, contentPath);
             return contentPath;
         } catch (KeeperException.NoNodeException e) {
@@ -90,14 +125,15 @@ public class ClusterCacheDao {
     private void setPathValueIf(ContentPath nextPath, String name, String basePath, Function<VersionedKey, Boolean> compare) {
         String path = basePath + name;
         try {
+            VersionedKey existing = getCachedKey(path, basePath);
             while (true) {
                 trace(name, "update {}", name);
-                VersionedKey existing = getMostRecentKey(path);
                 if (compare.apply(existing)) {
                     if (setValue(path, nextPath, existing)) {
                         trace(name, "update set {} next {} existing {}", name, nextPath, existing);
                         return;
                     }
+                    existing = getMostRecentKey(path);
                 } else {
                     trace(name, "update false {} next {} existing{}", name, nextPath, existing);
                     return;
@@ -120,8 +156,10 @@ public class ClusterCacheDao {
     public void set(ContentPath nextPath, String name, String basePath) {
         String path = basePath + name;
         try {
-            VersionedKey existing = getMostRecentKey(path);
-            setValue(path, nextPath, existing);
+            VersionedKey existing = getCachedKey(path, basePath);
+            if (!setValue(path, nextPath, existing)) {
+                setValue(path, nextPath, getMostRecentKey(path));
+            }
             trace(path, "update {} next {} existing{}", path, nextPath, existing);
         } catch (KeeperException.NoNodeException e) {
             log.debug("values does not exist, creating {}", path);
@@ -133,12 +171,16 @@ public class ClusterCacheDao {
 
     private boolean setValue(String path, ContentPath nextPath, VersionedKey existing) {
         try {
-            curator.setData()
+            Stat stat = curator.setData()
                     .withVersion(existing.getVersion())
                     .forPath(path, nextPath.toBytes());
+            if (isCached(path)) {
+                written.merge(path, new VersionedKey(nextPath, stat.getVersion(), stat.getMzxid()),
+                        (current, next) -> next.getZxid() > current.getZxid() ? next : current);
+            }
             return true;
         } catch (KeeperException.BadVersionException e) {
-            log.warn("bad version {} {}", path, e.getMessage());
+            log.debug("bad version {} {}", path, e.getMessage());
             return false;
         } catch (Exception e) {
             log.error("what happened? {}", path, e);
@@ -150,6 +192,10 @@ public class ClusterCacheDao {
         log.debug("delete {} {}", name, basePath);
         String path = basePath + name;
         try {
+            CachedPath cachedPath = cachedPaths.get(basePath);
+            if (cachedPath != null) {
+                cachedPath.deleted(path);
+            }
             curator.delete().deletingChildrenIfNeeded().forPath(path);
         } catch (KeeperException.NoNodeException e) {
             log.debug("no node for {}", path);
@@ -158,22 +204,91 @@ public class ClusterCacheDao {
         }
     }
 
+    private boolean isCached(String path) {
+        return cachedPaths.containsKey(path.substring(0, path.lastIndexOf('/') + 1));
+    }
+
+    private VersionedKey getCachedKey(String path, String basePath) throws Exception {
+        CachedPath cachedPath = cachedPaths.get(basePath);
+        if (cachedPath != null) {
+            VersionedKey cached = cachedPath.get(path);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return getMostRecentKey(path);
+    }
+
     private VersionedKey getMostRecentKey(String path) throws Exception {
         Stat stat = new Stat();
         byte[] bytes = curator.getData().storingStatIn(stat).forPath(path);
+        return toVersionedKey(bytes, stat);
+    }
+
+    private static VersionedKey toVersionedKey(byte[] bytes, Stat stat) {
         Optional<ContentPath> pathOptional = ContentPath.fromUrl(new String(bytes, StandardCharsets.UTF_8));
-        return new VersionedKey(pathOptional.get(), stat.getVersion());
+        return new VersionedKey(pathOptional.get(), stat.getVersion(), stat.getMzxid());
     }
 
     @Value
-    private class VersionedKey {
+    private static class VersionedKey {
         private final ContentPath key;
         private final int version;
+        private final long zxid;
+    }
+
+    /**
+     * The children of one base path.  Until the cache is initialized, and for nodes which the cache
+     * doesn't have or which this node has just deleted, reads go to ZooKeeper.
+     */
+    private class CachedPath {
+
+        private final PathChildrenCache cache;
+        private final ConcurrentMap<String, Long> deletedUntil = new ConcurrentHashMap<>();
+        private volatile boolean initialized;
 
-        private VersionedKey(ContentPath key, int version) {
-            this.key = key;
-            this.version = version;
+        CachedPath(String basePath) {
+            cache = new PathChildrenCache(curator, basePath.substring(0, basePath.length() - 1), true);
+            cache.getListenable().addListener((client, event) -> {
+                if (event.getType() == PathChildrenCacheEvent.Type.INITIALIZED) {
+                    initialized = true;
+                } else if (event.getType() == PathChildrenCacheEvent.Type.CHILD_REMOVED) {
+                    deletedUntil.remove(event.getData().getPath());
+                    written.remove(event.getData().getPath());
+                }
+            });
+            try {
+                cache.start(PathChildrenCache.StartMode.POST_INITIALIZED_EVENT);
+            } catch (Exception e) {
+                log.warn("unable to start cache {}", basePath, e);
+            }
         }
 
+        VersionedKey get(String path) {
+            if (!initialized) {
+                return null;
+            }
+            Long until = deletedUntil.get(path);
+            if (until != null) {
+                if (System.currentTimeMillis() < until) {
+                    return null;
+                }
+                deletedUntil.remove(path, until);
+            }
+            ChildData data = cache.getCurrentData(path);
+            VersionedKey local = written.get(path);
+            if (local != null) {
+                if (data == null || data.getStat().getMzxid() < local.getZxid()) {
+                    return local;
+                }
+                written.remove(path, local);
+            }
+            return data == null ? null : toVersionedKey(data.getData(), data.getStat());
+        }
+
+        void deleted(String path) {
+            deletedUntil.put(path, System.currentTimeMillis() + DELETED_MILLIS);
+            written.remove(path);
+        }
     }
 }
\ No newline at end of file
@@ -22,6 +22,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 @Singleton
 @Slf4j
@@ -69,6 +70,17 @@ public class CuratorCluster implements Cluster {
         });
     }
 
+    /**
+     * @param listener is called with the host of each server which leaves the cluster
+     */
+    public void addRemovedListener(Consumer<String> listener) {
+        addListener((client, event) -> {
+            if (event.getType().equals(PathChildrenCacheEvent.Type.CHILD_REMOVED)) {
+                listener.accept(new String(event.getData().getData()));
+            }
+        });
+    }
+
     private void addListener(PathChildrenCacheListener listener) {
         addListener(listener, MoreExecutors.directExecutor());
     }
@@ -9,8 +9,11 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
 
 import javax.inject.Inject;
+import java.util.Collections;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -71,6 +74,41 @@ public class WatchManager {
         }
     }
 
+    /**
+     * Adds the name to the path's {@link ChangeLog}, so watchers can reload just that name.
+     * If the log can't be updated, the watchers are told to reload everything.
+     */
+    public void notifyWatcher(String path, String name) {
+        if (watcherMap.get(path) == null) {
+            return;
+        }
+        try {
+            for (int attempt = 0; attempt < 10; attempt++) {
+                Stat stat = new Stat();
+                byte[] bytes = curator.getData().storingStatIn(stat).forPath(path);
+                ChangeLog changeLog = ChangeLog.fromBytes(bytes).orElse(new ChangeLog(0, Collections.emptyList()));
+                try {
+                    curator.setData().withVersion(stat.getVersion()).forPath(path, changeLog.add(name).toBytes());
+                    return;
+                } catch (KeeperException.BadVersionException e) {
+                    log.debug("bad version for {} {}", path, name);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("unable to add {} to change log {}", name, path, e);
+        }
+        notifyWatcher(path);
+    }
+
+    public Optional<ChangeLog> getChangeLog(String path) {
+        try {
+            return ChangeLog.fromBytes(curator.getData().forPath(path));
+        } catch (Exception e) {
+            log.warn("unable to read change log {}", path, e);
+            return Optional.empty();
+        }
+    }
+
     private void createNode(Watcher watcher) {
         try {
             curator.create().creatingParentsIfNeeded().forPath(watcher.getPath(), Longs.toByteArray(System.currentTimeMillis()));
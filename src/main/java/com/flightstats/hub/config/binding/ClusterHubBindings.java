@@ -140,7 +140,7 @@ public class ClusterHubBindings extends AbstractModule {
     @Provides
     @Named("ChannelConfig")
     public static Dao<ChannelConfig> buildChannelConfigDao(WatchManager watchManager, DynamoChannelConfigDao dao, AppProperties appProperties) {
-        Dao<ChannelConfig> cfgDao = new CachedLowerCaseDao<>(dao, watchManager, "/channels/cache");
+        Dao<ChannelConfig> cfgDao = new CachedLowerCaseDao<>(dao, watchManager, "/channels/cache", appProperties.getDaoCacheReconcileMinutes());
         return appProperties.isReadOnly() ? new ReadOnlyDao<>(cfgDao) : cfgDao;
     }
 
@@ -148,7 +148,7 @@ public class ClusterHubBindings extends AbstractModule {
     @Provides
     @Named("Webhook")
     public static Dao<Webhook> buildWebhookDao(WatchManager watchManager, DynamoWebhookDao dao, AppProperties appProperties) {
-        Dao<Webhook> whDao = new CachedDao<>(dao, watchManager, "/webhooks/cache");
+        Dao<Webhook> whDao = new CachedDao<>(dao, watchManager, "/webhooks/cache", appProperties.getDaoCacheReconcileMinutes());
         return appProperties.isReadOnly() ? new ReadOnlyDao<>(whDao) : whDao;
     }
 
@@ -22,6 +22,7 @@ import com.flightstats.hub.config.properties.AppProperties;
 import com.flightstats.hub.config.properties.LocalHostProperties;
 import com.flightstats.hub.config.properties.SpokeProperties;
 import com.flightstats.hub.config.properties.SystemProperties;
+import com.flightstats.hub.config.properties.WebhookProperties;
 import com.flightstats.hub.config.properties.ZooKeeperProperties;
 import com.flightstats.hub.dao.ChannelService;
 import com.flightstats.hub.dao.ContentDao;
@@ -64,11 +65,16 @@ import com.flightstats.hub.time.TimeService;
 import com.flightstats.hub.util.HubUtils;
 import com.flightstats.hub.util.SecretFilter;
 import com.flightstats.hub.util.StaleEntity;
+import com.flightstats.hub.webhook.InsertNotifier;
 import com.flightstats.hub.webhook.WebhookCoordinator;
 import com.flightstats.hub.webhook.WebhookValidator;
+import com.flightstats.hub.webhook.error.ReplicatedWebhookErrorStore;
+import com.flightstats.hub.webhook.error.WebhookErrorRepository;
+import com.flightstats.hub.webhook.error.WebhookErrorStore;
 import com.flightstats.hub.ws.WebSocketService;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.AbstractModule;
+import com.google.inject.Provider;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
 import com.google.inject.name.Named;
@@ -86,7 +92,6 @@ import javax.websocket.WebSocketContainer;
 import java.util.Date;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
 import static com.flightstats.hub.constant.NamedBinding.READ;
 import static com.flightstats.hub.constant.NamedBinding.READ_CACHE;
@@ -147,10 +152,16 @@ public class HubBindings extends AbstractModule {
         return create(systemProperties, false);
     }
 
+    @Named(WEBHOOK_CLIENT)
+    @Singleton
+    @Provides
+    public static Client buildWebhookClient() {
+        return RestClient.sharedClient(5, 15, true, true);
+    }
+
     private static Client create(SystemProperties systemProperties, boolean followRedirects) {
-        int connectTimeoutMillis = (int) TimeUnit.SECONDS.toMillis(systemProperties.getHttpConnectTimeoutInSec());
-        int readTimeoutMillis = (int) TimeUnit.SECONDS.toMillis(systemProperties.getHttpReadTimeoutInSec());
-        Client client = RestClient.createClient(connectTimeoutMillis, readTimeoutMillis, followRedirects, true);
+        Client client = RestClient.createClient(systemProperties.getHttpConnectTimeoutInSec(),
+                systemProperties.getHttpReadTimeoutInSec(), followRedirects, true);
         client.addFilter(new RetryClientFilter(systemProperties));
         return client;
     }
@@ -283,6 +294,14 @@ public class HubBindings extends AbstractModule {
                 spokeProperties.getTtlMinutes(SpokeStore.READ));
     }
 
+    @Singleton
+    @Provides
+    public WebhookErrorStore buildWebhookErrorStore(WebhookProperties webhookProperties,
+                                                    Provider<ReplicatedWebhookErrorStore> replicatedStore,
+                                                    Provider<WebhookErrorRepository> zooKeeperStore) {
+        return webhookProperties.isErrorsReplicated() ? replicatedStore.get() : zooKeeperStore.get();
+    }
+
     @Override
     protected void configure() {
 
@@ -296,14 +315,13 @@ public class HubBindings extends AbstractModule {
         bind(NtpMonitor.class).asEagerSingleton();
         bind(StaleEntity.class).asEagerSingleton();
 
-        bind(Client.class).annotatedWith(Names.named(WEBHOOK_CLIENT))
-                .to(RestClient.createClient(5, 15, true, true).getClass());
 
         bind(FinalCheck.class).to(SpokeFinalCheck.class).asEagerSingleton();
 
         bind(ReplicationManager.class).asEagerSingleton();
         bind(WatchManager.class).asEagerSingleton();
         bind(WebhookCoordinator.class).asEagerSingleton();
+        bind(InsertNotifier.class).asEagerSingleton();
         bind(SpokeManager.class).asEagerSingleton();
         bind(ShutdownManager.class).asEagerSingleton();
 
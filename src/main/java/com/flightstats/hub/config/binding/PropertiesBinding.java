@@ -5,11 +5,13 @@ import com.flightstats.hub.config.properties.AwsProperties;
 import com.flightstats.hub.config.properties.ContentProperties;
 import com.flightstats.hub.config.properties.DatadogMetricsProperties;
 import com.flightstats.hub.config.properties.DynamoProperties;
+import com.flightstats.hub.config.properties.EventsProperties;
 import com.flightstats.hub.config.properties.PropertiesLoader;
 import com.flightstats.hub.config.properties.S3Properties;
 import com.flightstats.hub.config.properties.SpokeProperties;
 import com.flightstats.hub.config.properties.SystemProperties;
 import com.flightstats.hub.config.properties.TickMetricsProperties;
+import com.flightstats.hub.config.properties.WebSocketProperties;
 import com.flightstats.hub.config.properties.WebhookProperties;
 import com.flightstats.hub.config.properties.ZooKeeperProperties;
 import com.google.inject.AbstractModule;
@@ -29,10 +31,12 @@ public class PropertiesBinding extends AbstractModule {
         bind(ContentProperties.class).asEagerSingleton();
         bind(DatadogMetricsProperties.class).asEagerSingleton();
         bind(DynamoProperties.class).asEagerSingleton();
+        bind(EventsProperties.class).asEagerSingleton();
         bind(S3Properties.class).asEagerSingleton();
         bind(SpokeProperties.class).asEagerSingleton();
         bind(SystemProperties.class).asEagerSingleton();
         bind(TickMetricsProperties.class).asEagerSingleton();
+        bind(WebSocketProperties.class).asEagerSingleton();
         bind(WebhookProperties.class).asEagerSingleton();
         bind(ZooKeeperProperties.class).asEagerSingleton();
     }
@@ -3,6 +3,7 @@ package com.flightstats.hub.config.binding;
 import com.flightstats.hub.cluster.WatchManager;
 import com.flightstats.hub.config.ServiceRegistration;
 import com.flightstats.hub.config.SingleServicesRegistration;
+import com.flightstats.hub.config.properties.AppProperties;
 import com.flightstats.hub.dao.CachedDao;
 import com.flightstats.hub.dao.CachedLowerCaseDao;
 import com.flightstats.hub.dao.ContentService;
@@ -33,14 +34,18 @@ public class SingleHubBindings extends AbstractModule {
     @Singleton
     @Provides
     @Named("ChannelConfig")
-    public static Dao<ChannelConfig> buildChannelConfigDao(WatchManager watchManager, FileChannelConfigurationDao dao) {
-        return new CachedLowerCaseDao<>(dao, watchManager, "/channels/cache");
+    public static Dao<ChannelConfig> buildChannelConfigDao(WatchManager watchManager,
+                                                         FileChannelConfigurationDao dao,
+                                                         AppProperties appProperties) {
+        return new CachedLowerCaseDao<>(dao, watchManager, "/channels/cache", appProperties.getDaoCacheReconcileMinutes());
     }
 
     @Singleton
     @Provides
     @Named("Webhook")
-    public static Dao<Webhook> buildWebhookDao(WatchManager watchManager, FileWebhookDao dao) {
-        return new CachedDao<>(dao, watchManager, "/webhooks/cache");
+    public static Dao<Webhook> buildWebhookDao(WatchManager watchManager,
+                                               FileWebhookDao dao,
+                                               AppProperties appProperties) {
+        return new CachedDao<>(dao, watchManager, "/webhooks/cache", appProperties.getDaoCacheReconcileMinutes());
     }
 }
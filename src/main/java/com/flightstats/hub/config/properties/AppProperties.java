@@ -83,6 +83,10 @@ public class AppProperties {
         return propertiesLoader.getProperty("traces.limit", 50);
     }
 
+    public int getTracesSamplePercent() {
+        return propertiesLoader.getProperty("traces.sample.percent", 100);
+    }
+
     public String getLastContentPathTracing() {
         return propertiesLoader.getProperty("LastContentPathTracing", "channelToTrace");
     }
@@ -95,4 +99,12 @@ public class AppProperties {
         return propertiesLoader.getProperty("app.keyStorePath", "/etc/ssl/");
     }
 
+    public int getDaoCacheReconcileMinutes() {
+        return propertiesLoader.getProperty("dao.cache.reconcile.minutes", 15);
+    }
+
+    public int getResponseCacheSize() {
+        return propertiesLoader.getProperty("app.response.cache.size", 10000);
+    }
+
 }
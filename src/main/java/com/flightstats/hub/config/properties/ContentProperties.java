@@ -35,4 +35,20 @@ public class ContentProperties {
         return propertiesLoader.getProperty("query.merge.max.wait.minutes", 2);
     }
 
+    public int getTagQueryThreads() {
+        return propertiesLoader.getProperty("tag.query.threads", 20);
+    }
+
+    public int getBulkPrefetchCount() {
+        return propertiesLoader.getProperty("bulk.prefetch.count", 10);
+    }
+
+    public boolean isLatestCacheEnabled() {
+        return propertiesLoader.getProperty("latest.cache.enabled", true);
+    }
+
+    public int getLatestCacheStaleSeconds() {
+        return propertiesLoader.getProperty("latest.cache.stale.seconds", 10);
+    }
+
 }
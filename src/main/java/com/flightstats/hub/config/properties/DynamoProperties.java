@@ -45,4 +45,8 @@ public class DynamoProperties {
         return propertiesLoader.getProperty("dynamo.socketTimeout", 30 * 1000);
     }
 
+    public int getScanSegments() {
+        return propertiesLoader.getProperty("dynamo.scan.segments", 4);
+    }
+
 }
\ No newline at end of file
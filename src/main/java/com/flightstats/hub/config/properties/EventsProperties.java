@@ -0,0 +1,22 @@
+package com.flightstats.hub.config.properties;
+
+import javax.inject.Inject;
+
+public class EventsProperties {
+
+    private final PropertiesLoader propertiesLoader;
+
+    @Inject
+    public EventsProperties(PropertiesLoader propertiesLoader) {
+        this.propertiesLoader = propertiesLoader;
+    }
+
+    public int getClientBufferSize() {
+        return propertiesLoader.getProperty("events.client.bufferSize", 1000);
+    }
+
+    public int getWriterThreads() {
+        return propertiesLoader.getProperty("events.writer.threads", 20);
+    }
+
+}
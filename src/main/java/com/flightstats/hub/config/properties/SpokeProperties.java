@@ -48,4 +48,28 @@ public class SpokeProperties {
         return propertiesLoader.getProperty("spoke.write.factor", 3);
     }
 
+    public int getClientThreads() {
+        return propertiesLoader.getProperty("spoke.client.threads", 200);
+    }
+
+    public boolean isHedgedReadEnabled() {
+        return propertiesLoader.getProperty("spoke.read.hedge.enabled", true);
+    }
+
+    public double getHedgedReadPercentile() {
+        return propertiesLoader.getProperty("spoke.read.hedge.percentile", 0.95);
+    }
+
+    public int getHedgedReadMinMillis() {
+        return propertiesLoader.getProperty("spoke.read.hedge.minMillis", 10);
+    }
+
+    public int getHedgedReadMaxMillis() {
+        return propertiesLoader.getProperty("spoke.read.hedge.maxMillis", 1000);
+    }
+
+    public int getReadMaxPerServer() {
+        return propertiesLoader.getProperty("spoke.read.maxPerServer", 50);
+    }
+
 }
@@ -35,6 +35,38 @@ public class SystemProperties {
         return propertiesLoader.getProperty("http.sleep", 1000);
     }
 
+    public boolean isHttpClientPooled() {
+        return propertiesLoader.getProperty("http.client.pooled", true);
+    }
+
+    public int getHttpClientMaxConnections() {
+        return propertiesLoader.getProperty("http.client.maxConnections", 1000);
+    }
+
+    public int getHttpClientMaxConnectionsPerRoute() {
+        return propertiesLoader.getProperty("http.client.maxConnectionsPerRoute", 100);
+    }
+
+    public int getHttpClientWebhookMaxConnections() {
+        return propertiesLoader.getProperty("http.client.webhook.maxConnections", 2000);
+    }
+
+    public int getHttpClientWebhookMaxConnectionsPerRoute() {
+        return propertiesLoader.getProperty("http.client.webhook.maxConnectionsPerRoute", 500);
+    }
+
+    public int getHttpClientLeaseTimeoutMillis() {
+        return propertiesLoader.getProperty("http.client.leaseTimeoutMillis", 5000);
+    }
+
+    public int getHttpClientIdleSeconds() {
+        return propertiesLoader.getProperty("http.client.idleSeconds", 30);
+    }
+
+    public int getHttpClientConnectionTtlSeconds() {
+        return propertiesLoader.getProperty("http.client.connectionTtlSeconds", 300);
+    }
+
     public int getHttpBindPort() {
         return propertiesLoader.getProperty("http.bind_port", 8080);
     }
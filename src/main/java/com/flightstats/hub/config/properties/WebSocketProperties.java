@@ -0,0 +1,18 @@
+package com.flightstats.hub.config.properties;
+
+import javax.inject.Inject;
+
+public class WebSocketProperties {
+
+    private final PropertiesLoader propertiesLoader;
+
+    @Inject
+    public WebSocketProperties(PropertiesLoader propertiesLoader) {
+        this.propertiesLoader = propertiesLoader;
+    }
+
+    public int getSessionBufferSize() {
+        return propertiesLoader.getProperty("websocket.session.bufferSize", 1000);
+    }
+
+}
@@ -35,6 +35,102 @@ public class WebhookProperties {
         return propertiesLoader.getProperty("webhook.readTimeoutSeconds", 60);
     }
 
+    public int getInlinePayloadMaxBytes() {
+        return propertiesLoader.getProperty("webhook.inlinePayload.maxBytes", 256 * 1024);
+    }
+
+    public int getChannelFeedMaxBuckets() {
+        return propertiesLoader.getProperty("webhook.channelFeed.maxBuckets", 10000);
+    }
+
+    public int getChannelFeedTtlSeconds() {
+        return propertiesLoader.getProperty("webhook.channelFeed.ttlSeconds", 120);
+    }
+
+    public int getChannelFeedLookahead() {
+        return propertiesLoader.getProperty("webhook.channelFeed.lookahead", 10);
+    }
+
+    public int getChannelFeedLookaheadThreads() {
+        return propertiesLoader.getProperty("webhook.channelFeed.lookaheadThreads", 20);
+    }
+
+    public boolean isInsertNotifyEnabled() {
+        return propertiesLoader.getProperty("webhook.insertNotify.enabled", true);
+    }
+
+    public int getInsertNotifyBackstopMillis() {
+        return propertiesLoader.getProperty("webhook.insertNotify.backstopMillis", 1000);
+    }
+
+    public int getInsertNotifyFlushMillis() {
+        return propertiesLoader.getProperty("webhook.insertNotify.flushMillis", 100);
+    }
+
+    public int getInsertNotifyThreads() {
+        return propertiesLoader.getProperty("webhook.insertNotify.threads", 20);
+    }
+
+    public int getInsertNotifyLeaderCacheSeconds() {
+        return propertiesLoader.getProperty("webhook.insertNotify.leaderCacheSeconds", 30);
+    }
+
+    public boolean isRebalanceEnabled() {
+        return propertiesLoader.getProperty("webhook.rebalance.enabled", true);
+    }
+
+    public int getRebalanceIntervalMinutes() {
+        return propertiesLoader.getProperty("webhook.rebalance.intervalMinutes", 5);
+    }
+
+    public double getRebalanceThreshold() {
+        return propertiesLoader.getProperty("webhook.rebalance.threshold", 0.25);
+    }
+
+    public int getRebalanceMaxMoves() {
+        return propertiesLoader.getProperty("webhook.rebalance.maxMoves", 3);
+    }
+
+    public boolean isAdaptiveConcurrencyEnabled() {
+        return propertiesLoader.getProperty("webhook.adaptiveConcurrency.enabled", false);
+    }
+
+    public double getAdaptiveConcurrencyLatencyTolerance() {
+        return propertiesLoader.getProperty("webhook.adaptiveConcurrency.latencyTolerance", 2.0);
+    }
+
+    public double getAdaptiveConcurrencyBackoffRatio() {
+        return propertiesLoader.getProperty("webhook.adaptiveConcurrency.backoffRatio", 0.75);
+    }
+
+    public boolean isCircuitBreakerEnabled() {
+        return propertiesLoader.getProperty("webhook.circuitBreaker.enabled", true);
+    }
+
+    public int getCircuitBreakerFailureThreshold() {
+        return propertiesLoader.getProperty("webhook.circuitBreaker.failureThreshold", 5);
+    }
+
+    public int getCircuitBreakerMaxOpenSeconds() {
+        return propertiesLoader.getProperty("webhook.circuitBreaker.maxOpenSeconds", 60);
+    }
+
+    public boolean isErrorsReplicated() {
+        return propertiesLoader.getProperty("webhook.errors.replicated", true);
+    }
+
+    public int getErrorsFlushSeconds() {
+        return propertiesLoader.getProperty("webhook.errors.flushSeconds", 5);
+    }
+
+    public int getErrorsLocalSeconds() {
+        return propertiesLoader.getProperty("webhook.errors.localSeconds", 60);
+    }
+
+    public int getReconcileThreadCount() {
+        return propertiesLoader.getProperty("webhook.reconcile.threads", 10);
+    }
+
     public int getShutdownThreadCount() {
         return propertiesLoader.getProperty("webhook.shutdown.threads", 100);
     }
@@ -1,59 +1,92 @@
 package com.flightstats.hub.dao;
 
 import com.flightstats.hub.app.HubServices;
+import com.flightstats.hub.cluster.ChangeLog;
 import com.flightstats.hub.cluster.WatchManager;
 import com.flightstats.hub.cluster.Watcher;
 import com.flightstats.hub.model.NamedType;
-import com.google.common.util.concurrent.AbstractIdleService;
+import com.google.common.util.concurrent.AbstractScheduledService;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.curator.framework.api.CuratorEvent;
 
 import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps every item in memory.  Changes are announced through the {@link ChangeLog} at the watched path,
+ * so other nodes reload only the changed names, and reload everything if they have missed part of the log.
+ * Everything is also reloaded every reconcileMinutes as a backstop.
+ */
 @Slf4j
 public class CachedDao<T extends NamedType> implements Dao<T> {
     private final Dao<T> delegate;
     private final String path;
     private final WatchManager watchManager;
+    private final long reconcileMinutes;
     private ConcurrentMap<String, T> cacheMap = new ConcurrentHashMap<>();
+    private volatile long sequence = -1;
+    private final AtomicLong version = new AtomicLong();
     private ExecutorService executor = Executors.newSingleThreadExecutor(
             new ThreadFactoryBuilder().setNameFormat("cachedDao-%d").build());
 
-    public CachedDao(Dao<T> delegate, WatchManager watchManager, String path) {
+    public CachedDao(Dao<T> delegate, WatchManager watchManager, String path, int reconcileMinutes) {
         this.delegate = delegate;
         this.watchManager = watchManager;
         this.path = path;
+        this.reconcileMinutes = Math.max(1, reconcileMinutes);
         HubServices.register(new CachedDaoService());
     }
 
+    String key(String name) {
+        return name;
+    }
+
     @Override
     public void upsert(T t) {
         delegate.upsert(t);
-        cacheMap.put(t.getName(), t);
-        notifyWatchers();
+        cacheMap.put(key(t.getName()), t);
+        version.incrementAndGet();
+        notifyWatchers(t.getName());
     }
 
     @Override
     public T get(String name) {
-        T t = delegate.get(name);
-        if (null != t) {
-            cacheMap.put(name, t);
+        String key = key(name);
+        T t = delegate.get(key);
+        if (null != t && !t.equals(cacheMap.put(key, t))) {
+            version.incrementAndGet();
         }
         return t;
     }
 
     @Override
     public T getCached(String name) {
-        T t = cacheMap.get(name);
+        String key = key(name);
+        T t = cacheMap.get(key);
         if (t != null) {
             return t;
         }
-        return get(name);
+        return get(key);
+    }
+
+    @Override
+    public Map<String, T> getBatch(Collection<String> names) {
+        Map<String, T> found = delegate.getBatch(names.stream().map(this::key).collect(Collectors.toList()));
+        cacheMap.putAll(found);
+        version.incrementAndGet();
+        return found;
     }
 
     @Override
@@ -66,24 +99,51 @@ public class CachedDao<T extends NamedType> implements Dao<T> {
 
     private void updateMap() {
         log.trace("updating map {}", cacheMap.keySet());
+        Optional<ChangeLog> changeLog = watchManager.getChangeLog(path);
         ConcurrentMap<String, T> newMap = new ConcurrentHashMap<>();
         Iterable<T> items = delegate.getAll(false);
         for (T named : items) {
-            newMap.put(named.getName(), named);
+            newMap.put(key(named.getName()), named);
         }
         cacheMap = newMap;
+        version.incrementAndGet();
+        sequence = changeLog.map(ChangeLog::getSequence).orElse(-1L);
         log.trace("updated map {}", newMap.keySet());
     }
 
+    private void updateChanged() {
+        Optional<ChangeLog> changeLog = watchManager.getChangeLog(path);
+        Optional<List<String>> changed = sequence < 0 ? Optional.empty()
+                : changeLog.flatMap(changes -> changes.since(sequence));
+        if (!changed.isPresent()) {
+            updateMap();
+            return;
+        }
+        Set<String> keys = changed.get().stream().map(this::key).collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, T> found = delegate.getBatch(keys);
+        for (String key : keys) {
+            T t = found.get(key);
+            if (t == null) {
+                cacheMap.remove(key);
+            } else {
+                cacheMap.put(key, t);
+            }
+        }
+        version.incrementAndGet();
+        sequence = changeLog.get().getSequence();
+        log.trace("updated {} {}", path, changed.get());
+    }
+
     @Override
     public void delete(String name) {
-        delegate.delete(name);
-        cacheMap.remove(name);
-        notifyWatchers();
+        delegate.delete(key(name));
+        cacheMap.remove(key(name));
+        version.incrementAndGet();
+        notifyWatchers(name);
     }
 
-    private void notifyWatchers() {
-        watchManager.notifyWatcher(path);
+    private void notifyWatchers(String name) {
+        watchManager.notifyWatcher(path, key(name));
     }
 
     @Override
@@ -92,12 +152,16 @@ public class CachedDao<T extends NamedType> implements Dao<T> {
         return true;
     }
 
+    @Override
+    public long getCacheVersion() {
+        return version.get();
+    }
+
     private void startWatcher() {
-        CachedDao dao = this;
         watchManager.register(new Watcher() {
             @Override
             public void callback(CuratorEvent event) {
-                executor.submit(dao::updateMap);
+                executor.submit(CachedDao.this::updateChanged);
             }
 
             @Override
@@ -107,7 +171,7 @@ public class CachedDao<T extends NamedType> implements Dao<T> {
         });
     }
 
-    private class CachedDaoService extends AbstractIdleService {
+    private class CachedDaoService extends AbstractScheduledService {
 
         @Override
         protected void startUp() throws Exception {
@@ -115,8 +179,13 @@ public class CachedDao<T extends NamedType> implements Dao<T> {
         }
 
         @Override
-        protected void shutDown() throws Exception {
-            //do nothing
+        protected void runOneIteration() {
+            executor.submit(CachedDao.this::updateMap);
+        }
+
+        @Override
+        protected Scheduler scheduler() {
+            return Scheduler.newFixedDelaySchedule(reconcileMinutes, reconcileMinutes, TimeUnit.MINUTES);
         }
     }
 }
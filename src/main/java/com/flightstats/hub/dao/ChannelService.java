@@ -21,6 +21,7 @@ import com.flightstats.hub.model.ContentKey;
 import com.flightstats.hub.model.StreamResults;
 import com.flightstats.hub.time.TimeService;
 import com.flightstats.hub.util.TimeUtil;
+import com.flightstats.hub.webhook.InsertNotifier;
 import com.flightstats.hub.webhook.TagWebhook;
 import com.google.inject.Singleton;
 import com.google.inject.name.Named;
@@ -60,6 +61,9 @@ public class ChannelService {
     @Inject
     private TagWebhook tagWebhook;
 
+    @Inject
+    private InsertNotifier insertNotifier;
+
     @Inject
     public ChannelService(
             ContentService contentService,
@@ -130,6 +134,7 @@ public class ChannelService {
         }
         long start = System.currentTimeMillis();
         ContentKey contentKey = insertInternal(channelName, content);
+        insertNotifier.inserted(channelName, contentKey);
         statsdReporter.insert(channelName, start, SINGLE, 1, content.getSize());
         return contentKey;
     }
@@ -206,6 +211,7 @@ public class ChannelService {
             multiPartParser.parse();
             return contentService.insert(bulkContent);
         });
+        insertNotifier.inserted(channel, contentKeys);
         statsdReporter.insert(channel, start, BULK, bulkContent.getItems().size(), bulkContent.getSize());
         return contentKeys;
     }
@@ -234,6 +240,13 @@ public class ChannelService {
         return getChannels(false);
     }
 
+    /**
+     * @return a number which changes whenever a channel changes, or -1 if channels aren't cached
+     */
+    public long getChannelsVersion() {
+        return channelConfigDao.getCacheVersion();
+    }
+
     private Collection<ChannelConfig> getChannels(boolean useCache) {
         return channelConfigDao.getAll(useCache);
     }
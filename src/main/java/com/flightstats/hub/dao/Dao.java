@@ -3,6 +3,8 @@ package com.flightstats.hub.dao;
 import com.flightstats.hub.model.NamedType;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 public interface Dao<T extends NamedType> {
 
@@ -18,6 +20,20 @@ public interface Dao<T extends NamedType> {
         return get(name);
     }
 
+    /**
+     * @return the items found for the names, keyed by name
+     */
+    default Map<String, T> getBatch(Collection<String> names) {
+        Map<String, T> items = new HashMap<>();
+        for (String name : names) {
+            T t = get(name);
+            if (t != null) {
+                items.put(name, t);
+            }
+        }
+        return items;
+    }
+
     Collection<T> getAll(boolean useCache);
 
     void delete(String name);
@@ -25,4 +41,11 @@ public interface Dao<T extends NamedType> {
     default boolean refresh() {
         return false;
     }
+
+    /**
+     * @return a number which changes whenever the cached items change, or -1 if nothing is cached
+     */
+    default long getCacheVersion() {
+        return -1;
+    }
 }
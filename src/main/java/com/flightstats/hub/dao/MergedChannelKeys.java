@@ -0,0 +1,98 @@
+package com.flightstats.hub.dao;
+
+import com.flightstats.hub.model.ChannelContentKey;
+import com.flightstats.hub.model.ContentKey;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * The keys of several channels, held per channel as {@link SortedKeySet}s and merged in order as they are iterated,
+ * so a large tag query doesn't build a key object per item up front.
+ */
+public class MergedChannelKeys implements Iterable<ChannelContentKey> {
+
+    private final Map<String, SortedKeySet> channelKeys = new LinkedHashMap<>();
+
+    public void add(String channel, Collection<ContentKey> keys) {
+        if (!keys.isEmpty()) {
+            channelKeys.put(channel, SortedKeySet.of(keys));
+        }
+    }
+
+    public int size() {
+        return channelKeys.values().stream().mapToInt(SortedKeySet::size).sum();
+    }
+
+    public boolean isEmpty() {
+        return channelKeys.isEmpty();
+    }
+
+    @Override
+    public Iterator<ChannelContentKey> iterator() {
+        return new MergeIterator(false);
+    }
+
+    public Iterable<ChannelContentKey> descending() {
+        return () -> new MergeIterator(true);
+    }
+
+    private class MergeIterator implements Iterator<ChannelContentKey> {
+
+        private final PriorityQueue<Head> heads;
+
+        MergeIterator(boolean descending) {
+            Comparator<Head> comparator = Comparator.comparing(head -> head.current);
+            heads = new PriorityQueue<>(Math.max(1, channelKeys.size()), descending ? comparator.reversed() : comparator);
+            channelKeys.forEach((channel, keys) -> {
+                Head head = new Head(channel, descending ? keys.descendingIterator() : keys.iterator());
+                if (head.advance()) {
+                    heads.add(head);
+                }
+            });
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public ChannelContentKey next() {
+            Head head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            ChannelContentKey next = head.current;
+            if (head.advance()) {
+                heads.add(head);
+            }
+            return next;
+        }
+    }
+
+    private static class Head {
+
+        private final String channel;
+        private final Iterator<ContentKey> keys;
+        private ChannelContentKey current;
+
+        Head(String channel, Iterator<ContentKey> keys) {
+            this.channel = channel;
+            this.keys = keys;
+        }
+
+        boolean advance() {
+            if (keys.hasNext()) {
+                current = new ChannelContentKey(channel, keys.next());
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -2,16 +2,20 @@ package com.flightstats.hub.dao;
 
 import com.flightstats.hub.model.ContentKey;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
 import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 
-
+/**
+ * Collects the keys from each source without locking, and merges them when they are read.
+ */
 public class QueryResult {
 
-    private SortedSet<ContentKey> contentKeys = Collections.synchronizedSortedSet(new TreeSet<>());
+    private final Queue<SortedKeySet> sources = new ConcurrentLinkedQueue<>();
     private AtomicInteger success = new AtomicInteger();
     private int attempts;
 
@@ -20,12 +24,22 @@ public class QueryResult {
     }
 
     public void addKeys(Collection<ContentKey> keys) {
-        contentKeys.addAll(keys);
+        sources.add(SortedKeySet.of(keys));
         success.incrementAndGet();
     }
 
-    public SortedSet<ContentKey> getContentKeys() {
-        return contentKeys;
+    /**
+     * @return a copy of the keys added so far, which the caller is free to change
+     */
+    public synchronized SortedSet<ContentKey> getContentKeys() {
+        List<SortedKeySet> sets = new ArrayList<>();
+        SortedKeySet set;
+        while ((set = sources.poll()) != null) {
+            sets.add(set);
+        }
+        SortedKeySet merged = SortedKeySet.merge(sets);
+        sources.add(merged);
+        return merged.copy();
     }
 
     public boolean hadSuccess() {
@@ -34,6 +48,6 @@ public class QueryResult {
 
     @Override
     public String toString() {
-        return "contentKeys=" + contentKeys.size() + " success=" + success + " attempts=" + attempts;
+        return "contentKeys=" + getContentKeys().size() + " success=" + success + " attempts=" + attempts;
     }
 }
@@ -3,6 +3,7 @@ package com.flightstats.hub.dao;
 import com.flightstats.hub.model.NamedType;
 
 import java.util.Collection;
+import java.util.Map;
 
 public class ReadOnlyDao<T extends NamedType> implements Dao<T> {
     private final Dao<T> delegate;
@@ -22,6 +23,11 @@ public class ReadOnlyDao<T extends NamedType> implements Dao<T> {
         return delegate.get(name);
     }
 
+    @Override
+    public Map<String, T> getBatch(Collection<String> names) {
+        return delegate.getBatch(names);
+    }
+
     @Override
     public Collection<T> getAll(boolean useCache) {
         return delegate.getAll(useCache);
@@ -36,4 +42,9 @@ public class ReadOnlyDao<T extends NamedType> implements Dao<T> {
     public boolean refresh() {
         return delegate.refresh();
     }
+
+    @Override
+    public long getCacheVersion() {
+        return delegate.getCacheVersion();
+    }
 }
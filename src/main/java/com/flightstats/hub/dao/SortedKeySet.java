@@ -0,0 +1,383 @@
+package com.flightstats.hub.dao;
+
+import com.flightstats.hub.model.ContentKey;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+/**
+ * A sorted set of keys held as parallel arrays of millis and hashes, rather than as a tree of key objects.
+ * Adds are appended, and the keys are only sorted and de-duplicated when the set is next read,
+ * so filling it from a listing which is already in order costs one comparison per key.
+ * Keys are created as they are iterated.
+ * <p>
+ * When maxSize is set, only the newest maxSize keys are kept, and keys at or after the limitKey are rejected.
+ * The sub set methods return copies rather than views.  This class is not thread safe,
+ * use one per source and {@link #merge(List)} them.
+ */
+public class SortedKeySet extends AbstractSet<ContentKey> implements SortedSet<ContentKey> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int maxSize;
+    private final ContentKey limitKey;
+    private long[] millis;
+    private String[] hashes;
+    private int size;
+    private boolean normalized = true;
+
+    public SortedKeySet() {
+        this(0, null);
+    }
+
+    public SortedKeySet(int maxSize, ContentKey limitKey) {
+        this(maxSize, limitKey, INITIAL_CAPACITY);
+    }
+
+    private SortedKeySet(int maxSize, ContentKey limitKey, int capacity) {
+        this.maxSize = maxSize;
+        this.limitKey = limitKey;
+        this.millis = new long[Math.max(capacity, 1)];
+        this.hashes = new String[Math.max(capacity, 1)];
+    }
+
+    public static SortedKeySet of(Collection<ContentKey> keys) {
+        if (keys instanceof SortedKeySet) {
+            return (SortedKeySet) keys;
+        }
+        SortedKeySet set = new SortedKeySet(0, null, keys.size());
+        set.addAll(keys);
+        return set;
+    }
+
+    /**
+     * Merges sorted sets with a k-way merge, dropping duplicates.
+     */
+    public static SortedKeySet merge(List<SortedKeySet> sets) {
+        if (sets.size() == 1) {
+            return sets.get(0);
+        }
+        int total = 0;
+        for (SortedKeySet set : sets) {
+            set.normalize();
+            total += set.size;
+        }
+        SortedKeySet merged = new SortedKeySet(0, null, total);
+        int[] positions = new int[sets.size()];
+        while (true) {
+            int next = -1;
+            for (int i = 0; i < sets.size(); i++) {
+                SortedKeySet set = sets.get(i);
+                if (positions[i] < set.size && (next < 0 || compare(set, positions[i], sets.get(next), positions[next]) < 0)) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                return merged;
+            }
+            SortedKeySet set = sets.get(next);
+            int position = positions[next]++;
+            if (merged.size == 0 || compare(merged, merged.size - 1, set, position) != 0) {
+                merged.append(set.millis[position], set.hashes[position]);
+            }
+        }
+    }
+
+    @Override
+    public boolean add(ContentKey key) {
+        if (limitKey != null && key.compareTo(limitKey) >= 0) {
+            return false;
+        }
+        if (size > 0) {
+            int diff = compare(millis[size - 1], hashes[size - 1], key.getMillis(), key.getHash());
+            if (diff == 0) {
+                return false;
+            }
+            if (diff > 0) {
+                normalized = false;
+            }
+        }
+        append(key.getMillis(), key.getHash());
+        if (maxSize > 0 && size >= 2 * Math.max(maxSize, INITIAL_CAPACITY)) {
+            normalize();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends ContentKey> keys) {
+        boolean changed = false;
+        for (ContentKey key : keys) {
+            changed |= add(key);
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public int size() {
+        normalize();
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        normalized = true;
+    }
+
+    @Override
+    public Iterator<ContentKey> iterator() {
+        normalize();
+        return new Iterator<ContentKey>() {
+            private int next;
+            private boolean removable;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public ContentKey next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                removable = true;
+                return get(next++);
+            }
+
+            @Override
+            public void remove() {
+                if (!removable) {
+                    throw new IllegalStateException();
+                }
+                removeAt(--next);
+                removable = false;
+            }
+        };
+    }
+
+    /**
+     * @return the keys from newest to oldest, without copying them
+     */
+    public Iterator<ContentKey> descendingIterator() {
+        normalize();
+        return new Iterator<ContentKey>() {
+            private int next = size - 1;
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public ContentKey next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                return get(next--);
+            }
+        };
+    }
+
+    @Override
+    public Comparator<? super ContentKey> comparator() {
+        return null;
+    }
+
+    @Override
+    public ContentKey first() {
+        normalize();
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return get(0);
+    }
+
+    @Override
+    public ContentKey last() {
+        normalize();
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return get(size - 1);
+    }
+
+    public SortedKeySet copy() {
+        normalize();
+        return copy(0, size);
+    }
+
+    @Override
+    public SortedSet<ContentKey> subSet(ContentKey fromElement, ContentKey toElement) {
+        return copy(insertionPoint(fromElement), insertionPoint(toElement));
+    }
+
+    @Override
+    public SortedSet<ContentKey> headSet(ContentKey toElement) {
+        return copy(0, insertionPoint(toElement));
+    }
+
+    @Override
+    public SortedSet<ContentKey> tailSet(ContentKey fromElement) {
+        normalize();
+        return copy(insertionPoint(fromElement), size);
+    }
+
+    private ContentKey get(int index) {
+        return new ContentKey(millis[index], hashes[index]);
+    }
+
+    private void append(long keyMillis, String hash) {
+        if (size == millis.length) {
+            int capacity = millis.length * 2;
+            millis = Arrays.copyOf(millis, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+        }
+        millis[size] = keyMillis;
+        hashes[size] = hash;
+        size++;
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(millis, index + 1, millis, index, size - index - 1);
+        System.arraycopy(hashes, index + 1, hashes, index, size - index - 1);
+        hashes[--size] = null;
+    }
+
+    private SortedKeySet copy(int from, int to) {
+        SortedKeySet copy = new SortedKeySet(0, null, Math.max(to - from, 0));
+        for (int i = from; i < to; i++) {
+            copy.append(millis[i], hashes[i]);
+        }
+        return copy;
+    }
+
+    private int indexOf(Object o) {
+        if (!(o instanceof ContentKey)) {
+            return -1;
+        }
+        ContentKey key = (ContentKey) o;
+        int index = insertionPoint(key);
+        if (index < size && compare(millis[index], hashes[index], key.getMillis(), key.getHash()) == 0) {
+            return index;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index of the first key which is not before the key
+     */
+    private int insertionPoint(ContentKey key) {
+        normalize();
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(millis[mid], hashes[mid], key.getMillis(), key.getHash()) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void normalize() {
+        if (!normalized) {
+            sort();
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                if (distinct == 0 || compare(millis[distinct - 1], hashes[distinct - 1], millis[i], hashes[i]) != 0) {
+                    millis[distinct] = millis[i];
+                    hashes[distinct] = hashes[i];
+                    distinct++;
+                }
+            }
+            Arrays.fill(hashes, distinct, size, null);
+            size = distinct;
+            normalized = true;
+        }
+        if (maxSize > 0 && size > maxSize) {
+            int oldest = size - maxSize;
+            System.arraycopy(millis, oldest, millis, 0, maxSize);
+            System.arraycopy(hashes, oldest, hashes, 0, maxSize);
+            Arrays.fill(hashes, maxSize, size, null);
+            size = maxSize;
+        }
+    }
+
+    /**
+     * Merge sorts an index over the arrays, then applies it.
+     */
+    private void sort() {
+        int[] index = new int[size];
+        for (int i = 0; i < size; i++) {
+            index[i] = i;
+        }
+        int[] buffer = new int[size];
+        for (int width = 1; width < size; width *= 2) {
+            for (int low = 0; low < size; low += 2 * width) {
+                int mid = Math.min(low + width, size);
+                int high = Math.min(low + 2 * width, size);
+                int left = low;
+                int right = mid;
+                for (int i = low; i < high; i++) {
+                    if (left < mid && (right >= high || compare(index[left], index[right]) <= 0)) {
+                        buffer[i] = index[left++];
+                    } else {
+                        buffer[i] = index[right++];
+                    }
+                }
+            }
+            int[] swap = index;
+            index = buffer;
+            buffer = swap;
+        }
+        long[] sortedMillis = new long[millis.length];
+        String[] sortedHashes = new String[hashes.length];
+        for (int i = 0; i < size; i++) {
+            sortedMillis[i] = millis[index[i]];
+            sortedHashes[i] = hashes[index[i]];
+        }
+        millis = sortedMillis;
+        hashes = sortedHashes;
+    }
+
+    private int compare(int a, int b) {
+        return compare(millis[a], hashes[a], millis[b], hashes[b]);
+    }
+
+    private static int compare(SortedKeySet a, int indexA, SortedKeySet b, int indexB) {
+        return compare(a.millis[indexA], a.hashes[indexA], b.millis[indexB], b.hashes[indexB]);
+    }
+
+    private static int compare(long millisA, String hashA, long millisB, String hashB) {
+        int diff = Long.compare(millisA, millisB);
+        if (diff == 0) {
+            diff = hashA.compareTo(hashB);
+        }
+        return diff;
+    }
+}
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.flightstats.hub.channel.BulkBuilder;
 import com.flightstats.hub.channel.ChannelEarliestResource;
 import com.flightstats.hub.channel.LinkBuilder;
+import com.flightstats.hub.config.properties.ContentProperties;
 import com.flightstats.hub.dao.aws.ContentRetriever;
 import com.flightstats.hub.metrics.ActiveTraces;
 import com.flightstats.hub.metrics.Traces;
@@ -17,7 +18,10 @@ import com.flightstats.hub.model.DirectionQuery;
 import com.flightstats.hub.model.Epoch;
 import com.flightstats.hub.model.Location;
 import com.flightstats.hub.model.TimeQuery;
+import com.flightstats.hub.util.RuntimeInterruptedException;
 import com.flightstats.hub.util.TimeUtil;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import org.joda.time.DateTime;
@@ -26,14 +30,23 @@ import javax.inject.Inject;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 import java.net.URI;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.SortedSet;
 import java.util.TreeSet;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import static javax.ws.rs.core.Response.Status.NOT_FOUND;
 import static javax.ws.rs.core.Response.Status.SEE_OTHER;
@@ -47,18 +60,24 @@ public class TagService {
     private final LinkBuilder linkBuilder;
     private final BulkBuilder bulkBuilder;
     private final ObjectMapper objectMapper;
+    private final ExecutorService executorService;
+    private final int parallelism;
 
     @Inject
     public TagService(ChannelService channelService,
                       ContentRetriever contentRetriever,
                       LinkBuilder linkBuilder,
                       BulkBuilder bulkBuilder,
-                      ObjectMapper objectMapper) {
+                      ObjectMapper objectMapper,
+                      ContentProperties contentProperties) {
         this.channelService = channelService;
         this.contentRetriever = contentRetriever;
         this.linkBuilder = linkBuilder;
         this.bulkBuilder = bulkBuilder;
         this.objectMapper = objectMapper;
+        this.parallelism = Math.max(1, contentProperties.getTagQueryThreads());
+        this.executorService = Executors.newCachedThreadPool(
+                new ThreadFactoryBuilder().setNameFormat("TagService-%d").setDaemon(true).build());
     }
 
     public Iterable<ChannelConfig> getChannels(String tag) {
@@ -70,49 +89,49 @@ public class TagService {
     }
 
     public SortedSet<ChannelContentKey> queryByTime(TimeQuery timeQuery) {
-        Iterable<ChannelConfig> channels = getChannels(timeQuery.getTagName());
-        SortedSet<ChannelContentKey> orderedKeys = Collections.synchronizedSortedSet(new TreeSet<>());
-        for (ChannelConfig channel : channels) {
-            final Collection<ContentKey> contentKeys = contentRetriever.queryByTime(timeQuery.withChannelName(channel.getDisplayName()));
-            for (ContentKey contentKey : contentKeys) {
-                orderedKeys.add(new ChannelContentKey(channel.getDisplayName(), contentKey));
-            }
-        }
+        SortedSet<ChannelContentKey> orderedKeys = new TreeSet<>();
+        queryKeysByTime(timeQuery).forEach(orderedKeys::add);
         return orderedKeys;
     }
 
+    private MergedChannelKeys queryKeysByTime(TimeQuery timeQuery) {
+        MergedChannelKeys mergedKeys = new MergedChannelKeys();
+        queryChannels(timeQuery.getTagName(),
+                channel -> contentRetriever.queryByTime(timeQuery.withChannelName(channel)),
+                mergedKeys::add);
+        return mergedKeys;
+    }
+
     public SortedSet<ChannelContentKey> getKeys(DirectionQuery query) {
-        Iterable<ChannelConfig> channels = getChannels(query.getTagName());
-        SortedSet<ChannelContentKey> orderedKeys = Collections.synchronizedSortedSet(new TreeSet<>());
+        TreeSet<ChannelContentKey> orderedKeys = new TreeSet<>();
         Traces traces = ActiveTraces.getLocal();
-        for (ChannelConfig channel : channels) {
-            traces.add("query for channel", channel.getDisplayName());
-            final Collection<ContentKey> contentKeys = contentRetriever.query(query.withChannelName(channel.getDisplayName()));
-            traces.add("query size for channel", channel.getDisplayName(), contentKeys.size());
-            for (ContentKey contentKey : contentKeys) {
-                orderedKeys.add(new ChannelContentKey(channel.getDisplayName(), contentKey));
-            }
-        }
-
-        Stream<ChannelContentKey> stream = orderedKeys.stream();
-        if (!query.isNext()) {
-            Collection<ChannelContentKey> contentKeys = new TreeSet<>(Collections.reverseOrder());
-            contentKeys.addAll(orderedKeys);
-            stream = contentKeys.stream();
-        }
-
-        return stream
-                .limit(query.getCount())
-                .collect(Collectors.toCollection(TreeSet::new));
+        queryChannels(query.getTagName(),
+                channel -> {
+                    traces.add("query for channel", channel);
+                    Collection<ContentKey> contentKeys = contentRetriever.query(query.withChannelName(channel));
+                    traces.add("query size for channel", channel, contentKeys.size());
+                    return contentKeys;
+                },
+                (channel, contentKeys) -> {
+                    for (ContentKey contentKey : contentKeys) {
+                        orderedKeys.add(new ChannelContentKey(channel, contentKey));
+                    }
+                    while (orderedKeys.size() > query.getCount()) {
+                        if (query.isNext()) {
+                            orderedKeys.pollLast();
+                        } else {
+                            orderedKeys.pollFirst();
+                        }
+                    }
+                });
+        return orderedKeys;
     }
 
     public Optional<ChannelContentKey> getLatest(DirectionQuery tagQuery) {
-        Iterable<ChannelConfig> channels = getChannels(tagQuery.getTagName());
-        SortedSet<ChannelContentKey> orderedKeys = Collections.synchronizedSortedSet(new TreeSet<>());
-        for (ChannelConfig channel : channels) {
-            Optional<ContentKey> contentKey = contentRetriever.getLatest(tagQuery.withChannelName(channel.getDisplayName()));
-            contentKey.ifPresent(contentKey1 -> orderedKeys.add(new ChannelContentKey(channel.getDisplayName(), contentKey1)));
-        }
+        SortedSet<ChannelContentKey> orderedKeys = new TreeSet<>();
+        queryChannels(tagQuery.getTagName(),
+                channel -> contentRetriever.getLatest(tagQuery.withChannelName(channel)),
+                (channel, contentKey) -> contentKey.ifPresent(key -> orderedKeys.add(new ChannelContentKey(channel, key))));
         if (orderedKeys.isEmpty()) {
             return Optional.empty();
         } else {
@@ -121,21 +140,63 @@ public class TagService {
     }
 
     public SortedSet<ChannelContentKey> getEarliest(DirectionQuery tagQuery) {
-        Iterable<ChannelConfig> channels = getChannels(tagQuery.getTagName());
         Traces traces = ActiveTraces.getLocal();
         traces.add("TagService.getEarliest", tagQuery.getTagName());
-        SortedSet<ChannelContentKey> orderedKeys = Collections.synchronizedSortedSet(new TreeSet<>());
-        for (ChannelConfig channel : channels) {
-            DirectionQuery query = ChannelEarliestResource.getDirectionQuery(channel.getDisplayName(), tagQuery.getCount(),
-                    tagQuery.isStable(), tagQuery.getLocation().name(), tagQuery.getEpoch().name());
-            for (ContentKey contentKey : contentRetriever.query(query)) {
-                orderedKeys.add(new ChannelContentKey(channel.getDisplayName(), contentKey));
-            }
-        }
+        SortedSet<ChannelContentKey> orderedKeys = new TreeSet<>();
+        queryChannels(tagQuery.getTagName(),
+                channel -> {
+                    DirectionQuery query = ChannelEarliestResource.getDirectionQuery(channel, tagQuery.getCount(),
+                            tagQuery.isStable(), tagQuery.getLocation().name(), tagQuery.getEpoch().name());
+                    return contentRetriever.query(query);
+                },
+                (channel, contentKeys) -> {
+                    for (ContentKey contentKey : contentKeys) {
+                        orderedKeys.add(new ChannelContentKey(channel, contentKey));
+                    }
+                });
         traces.add("TagService.getEarliest completed", orderedKeys);
         return orderedKeys;
     }
 
+    /**
+     * Runs the query for each channel in the tag, with at most tag.query.threads running for this request.
+     * The results are merged on the calling thread as they complete, so the merge doesn't need to be thread safe.
+     */
+    private <T> void queryChannels(String tag, Function<String, T> query, BiConsumer<String, T> merge) {
+        Iterator<ChannelConfig> channels = getChannels(tag).iterator();
+        Traces traces = ActiveTraces.getLocal();
+        String threadName = Thread.currentThread().getName();
+        CompletionService<Map.Entry<String, T>> completionService = new ExecutorCompletionService<>(executorService);
+        List<Future<Map.Entry<String, T>>> futures = new ArrayList<>();
+        int running = 0;
+        try {
+            while (true) {
+                while (running < parallelism && channels.hasNext()) {
+                    String channel = channels.next().getDisplayName();
+                    futures.add(completionService.submit(() -> {
+                        Thread.currentThread().setName("tag-" + channel + "|" + threadName);
+                        ActiveTraces.setLocal(traces);
+                        return new AbstractMap.SimpleImmutableEntry<>(channel, query.apply(channel));
+                    }));
+                    running++;
+                }
+                if (running == 0) {
+                    return;
+                }
+                Map.Entry<String, T> result = completionService.take().get();
+                running--;
+                merge.accept(result.getKey(), result.getValue());
+            }
+        } catch (InterruptedException e) {
+            throw new RuntimeInterruptedException(e);
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
     public Optional<Content> getValue(ItemRequest itemRequest) {
         Iterable<ChannelConfig> channels = getChannels(itemRequest.getTag());
         for (ChannelConfig channel : channels) {
@@ -161,7 +222,7 @@ public class TagService {
                 .location(Location.valueOf(location))
                 .epoch(Epoch.valueOf(epoch))
                 .build();
-        SortedSet<ChannelContentKey> keys = queryByTime(query);
+        MergedChannelKeys keys = queryKeysByTime(query);
         DateTime current = TimeUtil.time(stable);
         DateTime next = startTime.plus(unit.getDuration());
         DateTime previous = startTime.minus(unit.getDuration());
@@ -184,11 +245,7 @@ public class TagService {
         }
         links.putObject("previous").put("href", baseUri + unit.format(previous) + "?stable=" + stable);
         ArrayNode ids = links.putArray("uris");
-        ArrayList<ChannelContentKey> list = new ArrayList<>(keys);
-        if (descending) {
-            Collections.reverse(list);
-        }
-        for (ChannelContentKey key : list) {
+        for (ChannelContentKey key : descending ? keys.descending() : keys) {
             final URI channelUri = this.linkBuilder.buildChannelUri(key.getChannel(), uriInfo);
             final URI uri = this.linkBuilder.buildItemUri(key.getContentKey(), channelUri);
             ids.add(uri.toString() + "?tag=" + tag);
@@ -75,6 +75,7 @@ public class ClusterContentService implements ContentService {
     private final ContentDao s3BatchContentDao;
     private final ContentDao s3LargePayloadContentDao;
     private final LatestContentCache latestContentCache;
+    private final LatestKeyCache latestKeyCache;
     private final WriteQueue writeQueue;
     private final ContentRetriever contentRetriever;
     private final ClusterCacheDao clusterCacheDao;
@@ -93,6 +94,7 @@ public class ClusterContentService implements ContentService {
             @Named(ContentDao.LARGE_PAYLOAD) ContentDao s3LargePayloadContentDao,
             @Named(ContentDao.BATCH_LONG_TERM) ContentDao s3BatchContentDao,
             LatestContentCache latestContentCache,
+            LatestKeyCache latestKeyCache,
             WriteQueue writeQueue,
             ContentRetriever contentRetriever,
             ClusterCacheDao clusterCacheDao,
@@ -108,6 +110,7 @@ public class ClusterContentService implements ContentService {
         this.s3LargePayloadContentDao = s3LargePayloadContentDao;
         this.s3BatchContentDao = s3BatchContentDao;
         this.latestContentCache = latestContentCache;
+        this.latestKeyCache = latestKeyCache;
         this.writeQueue = writeQueue;
         this.clusterCacheDao = clusterCacheDao;
         this.hubUtils = hubUtils;
@@ -186,6 +189,7 @@ public class ClusterContentService implements ContentService {
             SortedSet<ContentKey> keys;
             keys = supplier.get();
             ref.set(keys.last());
+            latestKeyCache.inserted(channelName, keys);
             return keys;
         } catch (Exception e) {
             future.cancel(true);
@@ -407,8 +411,16 @@ public class ClusterContentService implements ContentService {
         }
 
         DateTime channelTtlTime = optionalChannelConfig.get().getTtlTime();
+        if (latestQuery.isStable()) {
+            Optional<ContentKey> localKey = latestKeyCache.getLatest(channel, latestQuery.getStartKey());
+            if (localKey.isPresent() && (channelTtlTime == null || !localKey.get().getTime().isBefore(channelTtlTime))) {
+                ActiveTraces.getLocal().add("found local latest", channel, localKey.get());
+                return localKey;
+            }
+        }
         Optional<ContentKey> cachedKey = getLatestCachedKeyIfNotExpired(channel, channelTtlTime);
         if (latestQuery.isStable() && cachedKey.isPresent()) {
+            latestKeyCache.confirm(channel, cachedKey.get(), latestQuery.getStartKey());
             return cachedKey;
         }
 
@@ -457,6 +469,9 @@ public class ClusterContentService implements ContentService {
                 latestContentCache.setIfNewer(channel, ContentKey.NONE);
             }
         }
+        if (latestQuery.isStable()) {
+            latestKeyCache.confirm(channel, latest.orElse(ContentKey.NONE), latestQuery.getStartKey());
+        }
 
         return latest;
     }
@@ -485,6 +500,7 @@ public class ClusterContentService implements ContentService {
         s3BatchContentDao.delete(channelName);
         s3LargePayloadContentDao.delete(channelName);
         latestContentCache.deleteCache(channelName);
+        latestKeyCache.invalidate(channelName);
         clusterCacheDao.delete(channelName, LAST_SINGLE_VERIFIED);
         Optional<ChannelConfig> optionalChannelConfig = contentRetriever.getCachedChannelConfig(channelName);
         if (optionalChannelConfig.isPresent() && !optionalChannelConfig.get().isSingle()) {
@@ -526,6 +542,7 @@ public class ClusterContentService implements ContentService {
         }
         if (newConfig.isHistorical() && oldConfig != null && oldConfig.isHistorical()) {
             if (newConfig.getMutableTime().isBefore(oldConfig.getMutableTime())) {
+                latestKeyCache.invalidate(newConfig.getDisplayName());
                 setLastToNewlyImmutableContent(newConfig, oldConfig);
             }
         }
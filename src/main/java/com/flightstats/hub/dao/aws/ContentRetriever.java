@@ -4,9 +4,11 @@ import com.flightstats.hub.cluster.ClusterCacheDao;
 import com.flightstats.hub.config.properties.ContentProperties;
 import com.flightstats.hub.dao.ContentService;
 import com.flightstats.hub.dao.Dao;
+import com.flightstats.hub.dao.SortedKeySet;
 import com.flightstats.hub.exception.NoSuchChannelException;
 import com.flightstats.hub.metrics.ActiveTraces;
 import com.flightstats.hub.model.ChannelConfig;
+import com.flightstats.hub.model.Content;
 import com.flightstats.hub.model.ContentKey;
 import com.flightstats.hub.model.ContentPath;
 import com.flightstats.hub.model.DirectionQuery;
@@ -25,7 +27,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.SortedSet;
-import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -180,7 +181,11 @@ public class ContentRetriever {
         query = query.withChannelStable(lastUpdated.getTime());
         Stream<ContentKey> stream = contentService.queryByTime(query).stream();
         stream = enforceLimits(query, stream);
-        return stream.collect(Collectors.toCollection(TreeSet::new));
+        return stream.collect(Collectors.toCollection(SortedKeySet::new));
+    }
+
+    public Optional<Content> getContent(String channelName, ContentKey key) {
+        return contentService.get(getDisplayName(channelName), key, false);
     }
 
     public Optional<ContentKey> getLatest(String channel, boolean stable) {
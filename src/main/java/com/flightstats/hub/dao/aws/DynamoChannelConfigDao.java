@@ -7,8 +7,6 @@ import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
 import com.amazonaws.services.dynamodbv2.model.GetItemResult;
 import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
 import com.amazonaws.services.dynamodbv2.model.ResourceNotFoundException;
-import com.amazonaws.services.dynamodbv2.model.ScanRequest;
-import com.amazonaws.services.dynamodbv2.model.ScanResult;
 import com.flightstats.hub.config.properties.DynamoProperties;
 import com.flightstats.hub.dao.Dao;
 import com.flightstats.hub.model.ChannelConfig;
@@ -32,12 +30,15 @@ public class DynamoChannelConfigDao implements Dao<ChannelConfig> {
 
     private final AmazonDynamoDB dbClient;
     private final DynamoProperties dynamoProperties;
+    private final DynamoItemReader itemReader;
 
     @Inject
     public DynamoChannelConfigDao(AmazonDynamoDB dbClient,
-                                  DynamoProperties dynamoProperties) {
+                                  DynamoProperties dynamoProperties,
+                                  DynamoItemReader itemReader) {
         this.dbClient = dbClient;
         this.dynamoProperties = dynamoProperties;
+        this.itemReader = itemReader;
     }
 
     @Override
@@ -149,28 +150,21 @@ public class DynamoChannelConfigDao implements Dao<ChannelConfig> {
     }
 
     @Override
-    public Collection<ChannelConfig> getAll(boolean useCache) {
-        List<ChannelConfig> configurations = new ArrayList<>();
-        ScanRequest scanRequest = new ScanRequest()
-                .withConsistentRead(true)
-                .withTableName(dynamoProperties.getChannelConfigTableName());
-
-        ScanResult result = dbClient.scan(scanRequest);
-        mapItems(configurations, result);
-
-        while (result.getLastEvaluatedKey() != null) {
-            scanRequest.setExclusiveStartKey(result.getLastEvaluatedKey());
-            result = dbClient.scan(scanRequest);
-            mapItems(configurations, result);
-        }
-
+    public Map<String, ChannelConfig> getBatch(Collection<String> names) {
+        Map<String, ChannelConfig> configurations = new HashMap<>();
+        itemReader.batchGet(dynamoProperties.getChannelConfigTableName(), "key", names).forEach(
+                item -> mapItem(item).ifPresent(config -> configurations.put(config.getName(), config))
+        );
         return configurations;
     }
 
-    private void mapItems(List<ChannelConfig> configurations, ScanResult result) {
-        result.getItems().forEach(
+    @Override
+    public Collection<ChannelConfig> getAll(boolean useCache) {
+        List<ChannelConfig> configurations = new ArrayList<>();
+        itemReader.scan(dynamoProperties.getChannelConfigTableName()).forEach(
                 item -> mapItem(item).ifPresent(configurations::add)
         );
+        return configurations;
     }
 
     @Override
@@ -0,0 +1,149 @@
+package com.flightstats.hub.dao.aws;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.flightstats.hub.config.properties.DynamoProperties;
+import com.flightstats.hub.metrics.StatsdReporter;
+import com.flightstats.hub.util.RuntimeInterruptedException;
+import com.flightstats.hub.util.Sleeper;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads whole config tables with parallel segmented scans, and sets of items with batch gets.
+ */
+@Slf4j
+@Singleton
+public class DynamoItemReader {
+
+    static final int MAX_BATCH_KEYS = 100;
+    private static final int MAX_BATCH_ATTEMPTS = 10;
+
+    private final AmazonDynamoDB dbClient;
+    private final DynamoProperties dynamoProperties;
+    private final StatsdReporter statsdReporter;
+    private final ExecutorService executorService = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat("DynamoItemReader-%d").setDaemon(true).build());
+
+    @Inject
+    public DynamoItemReader(AmazonDynamoDB dbClient,
+                            DynamoProperties dynamoProperties,
+                            StatsdReporter statsdReporter) {
+        this.dbClient = dbClient;
+        this.dynamoProperties = dynamoProperties;
+        this.statsdReporter = statsdReporter;
+    }
+
+    List<Map<String, AttributeValue>> scan(String tableName) {
+        long start = System.currentTimeMillis();
+        int segments = Math.max(1, dynamoProperties.getScanSegments());
+        List<Map<String, AttributeValue>> items;
+        if (segments == 1) {
+            items = scanSegment(new ScanRequest(tableName).withConsistentRead(true));
+        } else {
+            items = scanSegments(tableName, segments);
+        }
+        statsdReporter.time("dynamo.scan", start, "table:" + tableName, "segments:" + segments);
+        log.debug("scanned {} items from {} in {} segments in {} ms", items.size(), tableName, segments, System.currentTimeMillis() - start);
+        return items;
+    }
+
+    private List<Map<String, AttributeValue>> scanSegments(String tableName, int segments) {
+        List<Future<List<Map<String, AttributeValue>>>> futures = new ArrayList<>();
+        try {
+            for (int segment = 0; segment < segments; segment++) {
+                ScanRequest scanRequest = new ScanRequest(tableName)
+                        .withConsistentRead(true)
+                        .withSegment(segment)
+                        .withTotalSegments(segments);
+                futures.add(executorService.submit(() -> scanSegment(scanRequest)));
+            }
+            List<Map<String, AttributeValue>> items = new ArrayList<>();
+            for (Future<List<Map<String, AttributeValue>>> future : futures) {
+                items.addAll(future.get());
+            }
+            return items;
+        } catch (InterruptedException e) {
+            throw new RuntimeInterruptedException(e);
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private List<Map<String, AttributeValue>> scanSegment(ScanRequest scanRequest) {
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        ScanResult result = dbClient.scan(scanRequest);
+        items.addAll(result.getItems());
+        while (result.getLastEvaluatedKey() != null) {
+            result = dbClient.scan(scanRequest.clone().withExclusiveStartKey(result.getLastEvaluatedKey()));
+            items.addAll(result.getItems());
+        }
+        return items;
+    }
+
+    /**
+     * Reads the items with the keys, in batches of up to 100.  Keys which aren't found are left out.
+     */
+    List<Map<String, AttributeValue>> batchGet(String tableName, String keyName, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        long start = System.currentTimeMillis();
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        for (List<String> batch : Iterables.partition(new LinkedHashSet<>(keys), MAX_BATCH_KEYS)) {
+            List<Map<String, AttributeValue>> keyMaps = new ArrayList<>();
+            for (String key : batch) {
+                Map<String, AttributeValue> keyMap = new HashMap<>();
+                keyMap.put(keyName, new AttributeValue(key));
+                keyMaps.add(keyMap);
+            }
+            Map<String, KeysAndAttributes> requestItems = new HashMap<>();
+            requestItems.put(tableName, new KeysAndAttributes().withKeys(keyMaps).withConsistentRead(true));
+            items.addAll(batchGet(tableName, requestItems));
+        }
+        statsdReporter.time("dynamo.batchGet", start, "table:" + tableName);
+        log.debug("read {} of {} items from {} in {} ms", items.size(), keys.size(), tableName, System.currentTimeMillis() - start);
+        return items;
+    }
+
+    private List<Map<String, AttributeValue>> batchGet(String tableName, Map<String, KeysAndAttributes> requestItems) {
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        for (int attempt = 0; attempt < MAX_BATCH_ATTEMPTS; attempt++) {
+            if (attempt > 0) {
+                Sleeper.sleep(50L << Math.min(attempt, 6));
+            }
+            BatchGetItemResult result = dbClient.batchGetItem(new BatchGetItemRequest().withRequestItems(requestItems));
+            items.addAll(result.getResponses().getOrDefault(tableName, Collections.emptyList()));
+            requestItems = result.getUnprocessedKeys();
+            if (requestItems == null || requestItems.isEmpty()) {
+                return items;
+            }
+            log.debug("{} unprocessed keys from {}", requestItems.get(tableName).getKeys().size(), tableName);
+        }
+        throw new IllegalStateException("unable to read all keys from " + tableName + " after " + MAX_BATCH_ATTEMPTS + " attempts");
+    }
+}
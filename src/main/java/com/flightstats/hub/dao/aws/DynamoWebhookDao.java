@@ -5,8 +5,6 @@ import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
 import com.amazonaws.services.dynamodbv2.model.GetItemResult;
 import com.amazonaws.services.dynamodbv2.model.ResourceNotFoundException;
-import com.amazonaws.services.dynamodbv2.model.ScanRequest;
-import com.amazonaws.services.dynamodbv2.model.ScanResult;
 import com.flightstats.hub.config.properties.DynamoProperties;
 import com.flightstats.hub.config.properties.WebhookProperties;
 import com.flightstats.hub.dao.Dao;
@@ -28,14 +26,17 @@ public class DynamoWebhookDao implements Dao<Webhook> {
     private final AmazonDynamoDB dbClient;
     private final DynamoProperties dynamoProperties;
     private final WebhookProperties webhookProperties;
+    private final DynamoItemReader itemReader;
 
     @Inject
     public DynamoWebhookDao(AmazonDynamoDB dbClient,
                             DynamoProperties dynamoProperties,
-                            WebhookProperties webhookProperties) {
+                            WebhookProperties webhookProperties,
+                            DynamoItemReader itemReader) {
         this.dbClient = dbClient;
         this.dynamoProperties = dynamoProperties;
         this.webhookProperties = webhookProperties;
+        this.itemReader = itemReader;
     }
 
     @Override
@@ -57,6 +58,9 @@ public class DynamoWebhookDao implements Dao<Webhook> {
         if (!StringUtils.isEmpty(webhook.getErrorChannelUrl())) {
             item.put("errorChannelUrl", new AttributeValue(webhook.getErrorChannelUrl()));
         }
+        if (webhook.isInlinePayload()) {
+            item.put("inlinePayload", new AttributeValue().withBOOL(true));
+        }
         if (!StringUtils.isEmpty(webhook.getTagUrl())) {
             item.put("tagUrl", new AttributeValue(webhook.getTagUrl()));
         }
@@ -135,31 +139,29 @@ public class DynamoWebhookDao implements Dao<Webhook> {
         if (item.containsKey("errorChannelUrl")) {
             builder.errorChannelUrl(item.get("errorChannelUrl").getS());
         }
+        if (item.containsKey("inlinePayload")) {
+            builder.inlinePayload(item.get("inlinePayload").getBOOL());
+        }
         return builder.build().withDefaults(webhookProperties.getCallbackTimeoutDefaultInSec());
 
     }
 
     @Override
-    public Collection<Webhook> getAll(boolean useCache) {
-        List<Webhook> configurations = new ArrayList<>();
-
-        ScanResult result = dbClient.scan(new ScanRequest(dynamoProperties.getWebhookConfigTableName()).withConsistentRead(true));
-        mapItems(configurations, result);
-
-        while (result.getLastEvaluatedKey() != null) {
-            ScanRequest scanRequest = new ScanRequest(dynamoProperties.getWebhookConfigTableName())
-                    .withExclusiveStartKey(result.getLastEvaluatedKey());
-            result = dbClient.scan(scanRequest);
-            mapItems(configurations, result);
+    public Map<String, Webhook> getBatch(Collection<String> names) {
+        Map<String, Webhook> configurations = new HashMap<>();
+        for (Map<String, AttributeValue> item : itemReader.batchGet(dynamoProperties.getWebhookConfigTableName(), "name", names)) {
+            mapItem(item).ifPresent(webhook -> configurations.put(webhook.getName(), webhook));
         }
-
         return configurations;
     }
 
-    private void mapItems(List<Webhook> configurations, ScanResult result) {
-        for (Map<String, AttributeValue> item : result.getItems()) {
+    @Override
+    public Collection<Webhook> getAll(boolean useCache) {
+        List<Webhook> configurations = new ArrayList<>();
+        for (Map<String, AttributeValue> item : itemReader.scan(dynamoProperties.getWebhookConfigTableName())) {
             mapItem(item).ifPresent(configurations::add);
         }
+        return configurations;
     }
 
     @Override
@@ -0,0 +1,202 @@
+package com.flightstats.hub.dao.aws;
+
+import com.flightstats.hub.config.properties.ContentProperties;
+import com.flightstats.hub.model.ContentKey;
+import com.google.inject.Singleton;
+
+import javax.inject.Inject;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers stable latest queries from memory.
+ * Each node keeps the newest key inserted per channel per second, from its own inserts and from
+ * the other hub servers' inserts, which {@link com.flightstats.hub.webhook.InsertNotifier} sends
+ * in small batches along with its webhook notifications.  An answer is only given within
+ * staleSeconds of the existing path confirming the latest key, and only when the per second maxima
+ * are enough to know the answer for the limit key, otherwise the caller uses the existing path.
+ */
+@Singleton
+public class LatestKeyCache {
+
+    private final ConcurrentMap<String, ChannelLatest> channels = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Map<Long, ContentKey>> pending = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final long staleMillis;
+    private final long retainMillis;
+    private final long startMillis = System.currentTimeMillis();
+
+    @Inject
+    public LatestKeyCache(ContentProperties contentProperties) {
+        this.enabled = contentProperties.isLatestCacheEnabled();
+        this.staleMillis = TimeUnit.SECONDS.toMillis(contentProperties.getLatestCacheStaleSeconds());
+        this.retainMillis = TimeUnit.SECONDS.toMillis(contentProperties.getStableSeconds() + 5);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Called with keys inserted on this node, which are also sent to the other hub servers.
+     */
+    public void inserted(String channel, Collection<ContentKey> keys) {
+        if (!enabled || keys.isEmpty()) {
+            return;
+        }
+        received(channel, keys);
+        pending.compute(channel.toLowerCase(), (name, buckets) -> {
+            if (buckets == null) {
+                buckets = new HashMap<>();
+            }
+            for (ContentKey key : keys) {
+                buckets.merge(ChannelLatest.bucket(key), key, ChannelLatest::max);
+            }
+            return buckets;
+        });
+    }
+
+    /**
+     * Called with keys inserted on other hub servers.
+     */
+    public void received(String channel, Collection<ContentKey> keys) {
+        if (enabled) {
+            long now = System.currentTimeMillis();
+            getChannel(channel).add(keys, now);
+        }
+    }
+
+    /**
+     * Records the latest key before the limit key, as found by the existing path.
+     */
+    public void confirm(String channel, ContentKey latest, ContentKey limitKey) {
+        long now = System.currentTimeMillis();
+        if (enabled && now - startMillis > retainMillis) {
+            getChannel(channel).confirm(latest, limitKey, now);
+        }
+    }
+
+    public Optional<ContentKey> getLatest(String channel, ContentKey limitKey) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        ChannelLatest channelLatest = channels.get(channel.toLowerCase());
+        if (channelLatest == null) {
+            return Optional.empty();
+        }
+        return channelLatest.get(limitKey, System.currentTimeMillis());
+    }
+
+    public void invalidate(String channel) {
+        channels.remove(channel.toLowerCase());
+    }
+
+    private ChannelLatest getChannel(String channel) {
+        return channels.computeIfAbsent(channel.toLowerCase(), name -> new ChannelLatest(staleMillis, retainMillis));
+    }
+
+    /**
+     * @return the newest local insert per channel per second since the last call, to send to the other hub servers
+     */
+    public Map<String, Collection<ContentKey>> drainPending() {
+        Map<String, Collection<ContentKey>> drained = new HashMap<>();
+        for (String channel : pending.keySet()) {
+            Map<Long, ContentKey> buckets = pending.remove(channel);
+            if (buckets != null) {
+                drained.put(channel, buckets.values());
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * The newest key per second of a channel, with the seconds ending on a whole second,
+     * so a stable limit key never falls inside a second.
+     */
+    static class ChannelLatest {
+
+        private final NavigableMap<Long, ContentKey> buckets = new TreeMap<>();
+        private final long staleMillis;
+        private final long retainMillis;
+        private ContentKey trimmed;
+        private ContentKey confirmed;
+        private ContentKey confirmedLimit;
+        private long confirmedMillis;
+
+        ChannelLatest(long staleMillis, long retainMillis) {
+            this.staleMillis = staleMillis;
+            this.retainMillis = retainMillis;
+        }
+
+        static long bucket(ContentKey key) {
+            return Math.floorDiv(key.getMillis() + 999, 1000);
+        }
+
+        static ContentKey max(ContentKey a, ContentKey b) {
+            if (a == null) {
+                return b;
+            }
+            if (b == null) {
+                return a;
+            }
+            return a.compareTo(b) >= 0 ? a : b;
+        }
+
+        synchronized void add(Collection<ContentKey> keys, long now) {
+            for (ContentKey key : keys) {
+                buckets.merge(bucket(key), key, ChannelLatest::max);
+            }
+            trim(now);
+        }
+
+        synchronized void confirm(ContentKey latest, ContentKey limitKey, long now) {
+            if (latest.compareTo(limitKey) >= 0) {
+                return;
+            }
+            if (confirmedLimit == null || limitKey.compareTo(confirmedLimit) >= 0) {
+                confirmed = latest;
+                confirmedLimit = limitKey;
+                confirmedMillis = now;
+            }
+        }
+
+        synchronized Optional<ContentKey> get(ContentKey limitKey, long now) {
+            if (confirmedLimit == null || now - confirmedMillis > staleMillis || limitKey.compareTo(confirmedLimit) < 0) {
+                return Optional.empty();
+            }
+            trim(now);
+            ContentKey latest = confirmed;
+            if (trimmed != null) {
+                if (trimmed.compareTo(limitKey) >= 0) {
+                    return Optional.empty();
+                }
+                latest = max(latest, trimmed);
+            }
+            for (Map.Entry<Long, ContentKey> entry : buckets.descendingMap().entrySet()) {
+                ContentKey key = entry.getValue();
+                if (key.compareTo(limitKey) < 0) {
+                    return Optional.of(max(latest, key));
+                }
+                long bucketStart = (entry.getKey() - 1) * 1000 + 1;
+                if (bucketStart <= limitKey.getMillis()) {
+                    return Optional.empty();
+                }
+            }
+            return Optional.of(latest);
+        }
+
+        private void trim(long now) {
+            long oldest = Math.floorDiv(now - retainMillis + 999, 1000);
+            while (!buckets.isEmpty() && buckets.firstKey() < oldest) {
+                trimmed = max(trimmed, buckets.pollFirstEntry().getValue());
+            }
+        }
+    }
+}
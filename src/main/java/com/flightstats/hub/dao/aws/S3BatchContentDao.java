@@ -16,6 +16,7 @@ import com.flightstats.hub.config.properties.AppProperties;
 import com.flightstats.hub.config.properties.S3Properties;
 import com.flightstats.hub.dao.ContentDao;
 import com.flightstats.hub.dao.ContentMarshaller;
+import com.flightstats.hub.dao.SortedKeySet;
 import com.flightstats.hub.metrics.ActiveTraces;
 import com.flightstats.hub.metrics.StatsdReporter;
 import com.flightstats.hub.metrics.Traces;
@@ -229,7 +230,7 @@ public class S3BatchContentDao implements ContentDao {
 
     private SortedSet<ContentKey> queryHourPlus(TimeQuery query) {
         Traces traces = ActiveTraces.getLocal();
-        SortedSet<ContentKey> keys = new TreeSet<>();
+        SortedSet<ContentKey> keys = new SortedKeySet();
         if (query.getCount() > 0) {
             keys = new ContentKeySet(query.getCount(), query.getLimitKey());
         }
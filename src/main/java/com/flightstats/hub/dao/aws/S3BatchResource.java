@@ -9,6 +9,7 @@ import com.flightstats.hub.metrics.StatsdReporter;
 import com.flightstats.hub.model.ContentKey;
 import com.flightstats.hub.model.MinutePath;
 import com.flightstats.hub.rest.RestClient;
+import com.flightstats.hub.util.HubUtils;
 import com.sun.jersey.api.client.ClientResponse;
 import lombok.extern.slf4j.Slf4j;
 
@@ -50,12 +51,17 @@ public class S3BatchResource {
                 .resource(batchUrl + "&location=CACHE_WRITE")
                 .accept("application/zip")
                 .get(ClientResponse.class);
-        if (response.getStatus() != 200) {
-            log.warn("unable to get data for {} {}", channel, response);
-            return false;
+        final byte[] bytes;
+        try {
+            if (response.getStatus() != 200) {
+                log.warn("unable to get data for {} {}", channel, response);
+                return false;
+            }
+            ActiveTraces.getLocal().add("S3BatchResource.getAndWriteBatch got response");
+            bytes = response.getEntity(byte[].class);
+        } finally {
+            HubUtils.close(response);
         }
-        ActiveTraces.getLocal().add("S3BatchResource.getAndWriteBatch got response");
-        final byte[] bytes = response.getEntity(byte[].class);
 
         if(!verifyZipBytes(bytes)) {
             statsdReporter.increment("batch.invalid_zip");
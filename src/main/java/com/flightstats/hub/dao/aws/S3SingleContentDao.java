@@ -13,6 +13,7 @@ import com.flightstats.hub.config.properties.AppProperties;
 import com.flightstats.hub.config.properties.S3Properties;
 import com.flightstats.hub.dao.ContentDao;
 import com.flightstats.hub.dao.ContentMarshaller;
+import com.flightstats.hub.dao.SortedKeySet;
 import com.flightstats.hub.metrics.ActiveTraces;
 import com.flightstats.hub.metrics.StatsdReporter;
 import com.flightstats.hub.metrics.Traces;
@@ -36,7 +37,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.SortedSet;
-import java.util.TreeSet;
 import java.util.function.Function;
 
 @Singleton
@@ -211,7 +211,7 @@ public class S3SingleContentDao implements ContentDao {
     private SortedSet<ContentKey> iterateListObjects(String channel, ListObjectsRequest request,
                                                      int maxItems, int count, ContentKey limitKey) {
         Traces traces = ActiveTraces.getLocal();
-        SortedSet<ContentKey> keys = new TreeSet<>();
+        SortedSet<ContentKey> keys = new SortedKeySet();
         if (limitKey != null) {
             keys = new ContentKeySet(count, limitKey);
         }
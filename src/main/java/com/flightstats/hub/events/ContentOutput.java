@@ -45,6 +45,10 @@ public class ContentOutput implements Closeable {
         eventOutput.write(builder.data(byte[].class, content.getData()).build());
     }
 
+    boolean isClosed() {
+        return eventOutput.isClosed();
+    }
+
     @Override
     public void close() {
         HubUtils.closeQuietly(eventOutput);
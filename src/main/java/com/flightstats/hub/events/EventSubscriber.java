@@ -0,0 +1,111 @@
+package com.flightstats.hub.events;
+
+import com.flightstats.hub.model.Content;
+import com.flightstats.hub.model.ContentKey;
+import com.flightstats.hub.webhook.strategy.ChannelSubscriber;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jetty.io.EofException;
+
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * One server sent events client on a channel.
+ * Items are written from a bounded buffer by a shared pool of writers, with at most one writer per client.
+ * The payload is resolved by the writer, so the first client to write an item loads it for everyone.
+ */
+@Slf4j
+class EventSubscriber implements ChannelSubscriber<Optional<Content>> {
+
+    private static final Supplier<Optional<Content>> HEARTBEAT = Optional::empty;
+
+    private final ContentOutput contentOutput;
+    private final Executor writers;
+    private final int bufferSize;
+    private final BlockingQueue<Supplier<Optional<Content>>> buffer;
+    private final AtomicBoolean writing = new AtomicBoolean(false);
+    private volatile boolean closed;
+
+    EventSubscriber(ContentOutput contentOutput, Executor writers, int bufferSize) {
+        this.contentOutput = contentOutput;
+        this.writers = writers;
+        this.bufferSize = bufferSize;
+        this.buffer = new LinkedBlockingQueue<>(bufferSize);
+    }
+
+    @Override
+    public ContentKey getStartingKey() {
+        return contentOutput.getContentKey();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !closed && !contentOutput.isClosed();
+    }
+
+    @Override
+    public boolean offer(ContentKey key, Supplier<Optional<Content>> payload) {
+        if (!buffer.offer(payload)) {
+            return false;
+        }
+        schedule();
+        return true;
+    }
+
+    @Override
+    public boolean hasCapacityForCatchUp() {
+        return buffer.remainingCapacity() > bufferSize / 2;
+    }
+
+    @Override
+    public void heartbeat() {
+        if (buffer.offer(HEARTBEAT)) {
+            schedule();
+        }
+    }
+
+    private void schedule() {
+        if (writing.compareAndSet(false, true)) {
+            writers.execute(this::write);
+        }
+    }
+
+    private void write() {
+        try {
+            Supplier<Optional<Content>> item;
+            while (!closed && (item = buffer.poll()) != null) {
+                if (item == HEARTBEAT) {
+                    contentOutput.writeHeartbeat();
+                } else {
+                    Optional<Content> content = item.get();
+                    if (content.isPresent()) {
+                        contentOutput.write(content.get());
+                    }
+                }
+            }
+        } catch (EofException e) {
+            log.debug("unable to write, closing {}", contentOutput.getChannel());
+            close(Reason.SHUTDOWN);
+        } catch (Exception e) {
+            log.warn("unable to send to {}", contentOutput.getChannel(), e);
+            close(Reason.SHUTDOWN);
+        } finally {
+            writing.set(false);
+        }
+        if (!closed && !buffer.isEmpty()) {
+            schedule();
+        }
+    }
+
+    @Override
+    public void close(Reason reason) {
+        log.debug("closing events for {} {}", contentOutput.getChannel(), reason);
+        closed = true;
+        buffer.clear();
+        contentOutput.close();
+    }
+}
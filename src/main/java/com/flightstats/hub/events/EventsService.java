@@ -1,111 +1,63 @@
 package com.flightstats.hub.events;
 
-import com.diffplug.common.base.Errors;
-import com.flightstats.hub.config.properties.AppProperties;
-import com.flightstats.hub.config.properties.LocalHostProperties;
+import com.flightstats.hub.config.properties.EventsProperties;
 import com.flightstats.hub.dao.ChannelService;
 import com.flightstats.hub.dao.ItemRequest;
-import com.flightstats.hub.model.ChannelContentKey;
+import com.flightstats.hub.dao.aws.ContentRetriever;
 import com.flightstats.hub.model.Content;
-import com.flightstats.hub.webhook.WebhookService;
+import com.flightstats.hub.model.ContentKey;
+import com.flightstats.hub.webhook.strategy.ChannelFanouts;
+import com.flightstats.hub.webhook.strategy.ChannelKeyFeed;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
-import org.eclipse.jetty.io.EofException;
 
 import javax.inject.Inject;
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Consumer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * Server sent events are served from this node, with one fanout per channel.
+ * Each item is read once and written to all of the clients on the channel.
+ */
 @Singleton
 @Slf4j
 public class EventsService {
-    
-    private final ChannelService channelService;
-    private final WebhookService webhookService;
-    private final AppProperties appProperties;
-    private final LocalHostProperties localHostProperties;
+
+    private final ChannelFanouts<Optional<Content>> fanouts;
+    private final ExecutorService writers;
+    private final EventsProperties eventsProperties;
 
     @Inject
     public EventsService(ChannelService channelService,
-                         WebhookService webhookService,
-                         AppProperties appProperties,
-                         LocalHostProperties localHostProperties){
-        this.channelService = channelService;
-        this.webhookService = webhookService;
-        this.appProperties = appProperties;
-        this.localHostProperties = localHostProperties;
-    }
-
-    private Map<String, EventWebhook> outputStreamMap = new ConcurrentHashMap<>();
-
-    void getAndSendData(String uri, String id) {
-        ChannelContentKey key = ChannelContentKey.fromResourcePath(uri);
-        ItemRequest itemRequest = ItemRequest.builder()
-                .channel(key.getChannel())
-                .key(key.getContentKey())
-                .build();
-        Optional<Content> optional = channelService.get(itemRequest);
-        if (optional.isPresent()) {
-            Content content = optional.get();
-            sendData(id, Errors.rethrow().wrap(contentOutput -> {
-                contentOutput.write(content);
-                log.debug("sent content {} to {}", id, content.getContentKey());
-            }));
-        }
+                         ContentRetriever contentRetriever,
+                         ChannelKeyFeed channelKeyFeed,
+                         EventsProperties eventsProperties) {
+        this.eventsProperties = eventsProperties;
+        this.fanouts = new ChannelFanouts<>("events", contentRetriever, channelKeyFeed,
+                (channel, key) -> load(channelService, channel, key));
+        this.writers = Executors.newFixedThreadPool(eventsProperties.getWriterThreads(),
+                new ThreadFactoryBuilder().setNameFormat("events-writer-%d").setDaemon(true).build());
     }
 
-    void checkHealth(String id) {
-        log.trace("check health {}", id);
-        sendData(id, Errors.rethrow().wrap(contentOutput -> {
-            contentOutput.writeHeartbeat();
-            log.trace("sent heartbeat to {}", id);
-        }));
-    }
-
-    private void sendData(String id, Consumer<ContentOutput> contentConsumer) {
+    /**
+     * The loaded item is shared by writers on several threads, so the payload is read into memory here
+     * rather than by the first writer to reach the stream.
+     */
+    private static Optional<Content> load(ChannelService channelService, String channel, ContentKey key) {
+        Optional<Content> content = channelService.get(ItemRequest.builder().channel(channel).key(key).build());
         try {
-            EventWebhook eventWebhook = outputStreamMap.get(id);
-            if (eventWebhook == null) {
-                log.warn("unable to find id {}", id);
-                unregister(id);
-            } else {
-                contentConsumer.accept(eventWebhook.getContentOutput());
-            }
-        } catch (Errors.WrappedAsRuntimeException e) {
-            if (e.getCause() instanceof EofException) {
-                log.error("unable to write, closing " + id);
-            } else {
-                log.error("unable to send to " + id, e);
-            }
-            unregister(id);
-        } catch (Exception e) {
-            log.error("unable to send to " + id, e);
-            unregister(id);
+            return content.map(Content::copy);
+        } finally {
+            content.ifPresent(Content::close);
         }
     }
 
     public void register(ContentOutput contentOutput) {
-        EventWebhook eventWebhook = new EventWebhook(
-                contentOutput,
-                webhookService,
-                localHostProperties,
-                appProperties.getAppUrl(),
-                appProperties.getAppEnv());
-        log.debug("registering events {}", eventWebhook.getGroupName());
-        outputStreamMap.put(eventWebhook.getGroupName(), eventWebhook);
-        eventWebhook.start();
-    }
-
-    private void unregister(String id) {
-        log.debug("unregistering events {}", id);
-        EventWebhook remove = outputStreamMap.remove(id);
-        if (null != remove) {
-            remove.stop();
-        } else {
-            webhookService.delete(id);
-        }
+        log.debug("registering events {} {}", contentOutput.getChannel(), contentOutput.getContentKey());
+        EventSubscriber subscriber = new EventSubscriber(contentOutput, writers, eventsProperties.getClientBufferSize());
+        fanouts.subscribe(contentOutput.getChannel(), subscriber);
     }
 
 }
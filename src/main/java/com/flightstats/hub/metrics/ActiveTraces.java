@@ -2,6 +2,8 @@ package com.flightstats.hub.metrics;
 
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.flightstats.hub.config.properties.AppProperties;
+import com.flightstats.hub.config.properties.PropertiesLoader;
 import com.flightstats.hub.util.ObjectRing;
 import lombok.extern.slf4j.Slf4j;
 
@@ -9,10 +11,13 @@ import java.util.Collection;
 import java.util.Map;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Slf4j
 public class ActiveTraces {
 
+    //Requests which aren't sampled keep only their context, response and time
+    private static final int samplePercent = new AppProperties(PropertiesLoader.getInstance()).getTracesSamplePercent();
     private static final Map<String, Traces> tracesMap = new ConcurrentHashMap<>();
     private static final ThreadLocal<Traces> threadLocal = new ThreadLocal<>();
 
@@ -22,7 +27,11 @@ public class ActiveTraces {
     private static final TopSortedSet<Traces> slowest = new TopSortedSet<>(100, Traces::getTime, new DescendingTracesComparator());
 
     public static void start(Object... objects) {
-        start(new Traces(objects));
+        Traces traces = new Traces(objects);
+        if (samplePercent < 100 && ThreadLocalRandom.current().nextInt(100) >= samplePercent) {
+            traces.stopRecording();
+        }
+        start(traces);
     }
 
     private static void start(Traces traces) {
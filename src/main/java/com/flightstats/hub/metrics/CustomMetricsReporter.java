@@ -1,5 +1,6 @@
 package com.flightstats.hub.metrics;
 
+import com.flightstats.hub.rest.RestClient;
 import javax.inject.Inject;
 import com.sun.management.UnixOperatingSystemMXBean;
 import lombok.extern.slf4j.Slf4j;
@@ -32,5 +33,11 @@ public class CustomMetricsReporter {
             log.debug("open files {}", openFiles);
             statsdReporter.count("openFiles", openFiles);
         }
+        RestClient.getPoolStats().forEach((pool, stats) -> {
+            statsdReporter.gauge("http.client.pool.leased", stats.getLeased(), "pool:" + pool);
+            statsdReporter.gauge("http.client.pool.available", stats.getAvailable(), "pool:" + pool);
+            statsdReporter.gauge("http.client.pool.pending", stats.getPending(), "pool:" + pool);
+            statsdReporter.gauge("http.client.pool.max", stats.getMax(), "pool:" + pool);
+        });
     }
 }
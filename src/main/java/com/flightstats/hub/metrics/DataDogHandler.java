@@ -3,6 +3,7 @@ package com.flightstats.hub.metrics;
 import com.flightstats.hub.config.properties.DatadogMetricsProperties;
 import com.flightstats.hub.config.properties.MetricsProperties;
 import com.flightstats.hub.rest.RestClient;
+import com.flightstats.hub.util.HubUtils;
 import com.flightstats.hub.util.TimeUtil;
 import javax.inject.Inject;
 import com.sun.jersey.api.client.ClientResponse;
@@ -39,11 +40,12 @@ class DataDogHandler {
         }
         String dataTemplate = "{ \"message\": \"restarting\", \"scope\": \"name:%s\", \"end\": %d }";
         String urlTemplate = "%s?api_key=%s&application_key=%s";
+        ClientResponse response = null;
         try {
 
             String data = String.format(dataTemplate, name, fourMinutesFutureInSeconds);
             String url = String.format(urlTemplate, datadogUrl, apiKey, appKey);
-            ClientResponse response = RestClient
+            response = RestClient
                     .defaultClient()
                     .resource(url)
                     .type(MediaType.APPLICATION_JSON)
@@ -57,6 +59,8 @@ class DataDogHandler {
             }
         } catch (Exception e) {
             log.warn("Muting datadog error ", e);
+        } finally {
+            HubUtils.close(response);
         }
     }
 }
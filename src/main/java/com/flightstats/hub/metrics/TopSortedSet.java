@@ -1,66 +1,113 @@
 package com.flightstats.hub.metrics;
 
+import java.util.AbstractCollection;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
 
 /**
+ * Keeps the maxSize items with the largest metric.
  * This is designed assuming that:
  * 1 - It is a single bottleneck for all transactions
  * 2 - The vast majority of transactions (99.999% per day for a list of 100)
  * will not be in the set
+ * Those are turned away by comparing against the smallest metric held, without locking.
+ * Items which qualify replace the smallest with a compare and set.
+ * An item's metric must not change after it is added.
  */
-public class TopSortedSet<E> extends TreeSet<E> {
+public class TopSortedSet<E> extends AbstractCollection<E> {
 
-    private final int maxSize;
-    private final Comparator comparator;
+    private final AtomicReferenceArray<E> slots;
+    private final Comparator<E> comparator;
     private final Function<E, Long> metricFunction;
-    private long smallestTime;
+    private volatile long smallest = Long.MIN_VALUE;
 
     public TopSortedSet(int maxSize, Function<E, Long> metricFunction, Comparator<E> comparator) {
-        super(comparator);
-        this.maxSize = maxSize;
+        this.slots = new AtomicReferenceArray<>(maxSize);
         this.comparator = comparator;
         this.metricFunction = metricFunction;
     }
 
     @Override
     public boolean add(E e) {
-        Long apply = metricFunction.apply(e);
-        if (size() >= maxSize) {
-            boolean result = false;
-
-            if (apply > smallestTime) {
-                synchronized (this) {
-                    E smallest = last();
-                    remove(smallest);
-                    result = super.add(e);
-                    smallestTime = metricFunction.apply(smallest);
-                    while (size() > maxSize) {
-                        remove(last());
-                    }
+        long metric = metricFunction.apply(e);
+        if (metric <= smallest) {
+            return false;
+        }
+        while (true) {
+            int index = -1;
+            E current = null;
+            long currentMetric = Long.MAX_VALUE;
+            for (int i = 0; i < slots.length(); i++) {
+                E item = slots.get(i);
+                if (item == null) {
+                    index = i;
+                    current = null;
+                    break;
                 }
-            }
-            return result;
-        } else {
-            synchronized (this) {
-                if (isEmpty()) {
-                    smallestTime = apply;
-                } else {
-                    smallestTime = Math.min(metricFunction.apply(last()), apply);
+                long itemMetric = metricFunction.apply(item);
+                if (itemMetric < currentMetric) {
+                    index = i;
+                    current = item;
+                    currentMetric = itemMetric;
                 }
-                return super.add(e);
             }
+            if (index < 0) {
+                return false;
+            }
+            if (current != null && metric <= currentMetric) {
+                smallest = currentMetric;
+                return false;
+            }
+            if (slots.compareAndSet(index, current, e)) {
+                updateSmallest();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Slots only ever move to larger metrics, so a scan never finds a smallest value larger than the true one.
+     */
+    private void updateSmallest() {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < slots.length(); i++) {
+            E item = slots.get(i);
+            if (item == null) {
+                return;
+            }
+            min = Math.min(min, metricFunction.apply(item));
         }
+        smallest = min;
     }
 
     public SortedSet<E> getCopy() {
         TreeSet<E> copy = new TreeSet<>(comparator);
-        synchronized (this) {
-            copy.addAll(this);
+        for (int i = 0; i < slots.length(); i++) {
+            E item = slots.get(i);
+            if (item != null) {
+                copy.add(item);
+            }
         }
         return copy;
     }
 
+    @Override
+    public Iterator<E> iterator() {
+        return getCopy().iterator();
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
 }
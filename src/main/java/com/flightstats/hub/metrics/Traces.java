@@ -10,33 +10,49 @@ import com.flightstats.hub.util.ObjectRing;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.SortedSet;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Consumer;
 
+/**
+ * The trace of one request.  Traces may be added from several threads at once without locking:
+ * the first limit + 1 are kept in order, followed by the last limit.
+ * Values are only formatted when the traces are output.
+ */
 public class Traces {
 
     private static final AppProperties appProperties = new AppProperties(PropertiesLoader.getInstance());
-    private final List<Trace> traces = Collections.synchronizedList(new ArrayList<>());
-    private final String id = UUID.randomUUID().toString();
-    private long start = System.currentTimeMillis();
+    private final String id = new UUID(ThreadLocalRandom.current().nextLong(), ThreadLocalRandom.current().nextLong()).toString();
+    private volatile long start = System.currentTimeMillis();
 
+    private final AtomicReferenceArray<Trace> firstTraces;
+    private final AtomicInteger firstCount = new AtomicInteger();
     private final ObjectRing<Trace> lastTraces;
     private final int limit;
-    private long end;
+    private volatile long end;
+    private volatile boolean recording = true;
 
     public Traces(Object... objects) {
         this.limit = appProperties.getTracesLimit();
+        this.firstTraces = new AtomicReferenceArray<>(limit + 1);
         this.lastTraces = new ObjectRing<>(limit);
         add(objects);
     }
 
+    /**
+     * Keeps only the initial context and the response, for requests which aren't sampled.
+     */
+    void stopRecording() {
+        recording = false;
+    }
+
     public void end(int status) {
         end = System.currentTimeMillis();
-        add("response", status);
+        record(new ValuesTrace("response", status));
     }
 
     public void setEnd(long end) {
@@ -52,15 +68,46 @@ public class Traces {
     }
 
     public void add(Trace trace) {
-        if (traces.size() > limit) {
-            lastTraces.put(trace);
-        } else {
-            traces.add(trace);
+        if (recording) {
+            record(trace);
         }
     }
 
+    private void record(Trace trace) {
+        if (firstCount.get() <= limit) {
+            int index = firstCount.getAndIncrement();
+            if (index <= limit) {
+                firstTraces.set(index, trace);
+                return;
+            }
+        }
+        lastTraces.put(trace);
+    }
+
     public void add(Object... objects) {
-        add(new SingleTrace(objects));
+        if (recording) {
+            record(new SingleTrace(objects));
+        }
+    }
+
+    public void add(Object object) {
+        if (object instanceof Object[]) {
+            add((Object[]) object);
+        } else if (recording) {
+            record(new ValuesTrace(object));
+        }
+    }
+
+    public void add(Object first, Object second) {
+        if (recording) {
+            record(new ValuesTrace(first, second));
+        }
+    }
+
+    public void add(Object first, Object second, Object third) {
+        if (recording) {
+            record(new ValuesTrace(first, second, third));
+        }
     }
 
     public void add(String string, SortedSet sortedSet) {
@@ -102,13 +149,14 @@ public class Traces {
             outputTraces((trace) -> builder.append(trace).append("\n\t"));
             return builder.toString();
         } catch (Exception e) {
-            logger.warn("unable to log {} traces {}", traces);
+            logger.warn("unable to log traces {}", id, e);
             return "unable to output";
         }
     }
 
     public void output(ObjectNode root) {
-        root.put("first", traces.get(0).context());
+        Trace first = firstTraces.get(0);
+        root.put("first", first == null ? "" : first.context());
         root.put("id", id);
         root.put("start", new DateTime(this.start).toString());
         root.put("millis", getTime());
@@ -117,18 +165,20 @@ public class Traces {
     }
 
     void outputTraces(Consumer<String> consumer) {
-        synchronized (traces) {
-            for (Trace trace : traces) {
-                consumer.accept(trace.toString());
-            }
-            if (lastTraces.getTotalSize() > limit) {
-                consumer.accept("   ...cut " + (lastTraces.getTotalSize() - limit) + " lines...");
-            }
-            List<Trace> lastItems = lastTraces.getItems();
-            for (Trace trace : lastItems) {
+        int first = Math.min(firstCount.get(), limit + 1);
+        for (int i = 0; i < first; i++) {
+            Trace trace = firstTraces.get(i);
+            if (trace != null) {
                 consumer.accept(trace.toString());
             }
         }
+        if (lastTraces.getTotalSize() > limit) {
+            consumer.accept("   ...cut " + (lastTraces.getTotalSize() - limit) + " lines...");
+        }
+        List<Trace> lastItems = lastTraces.getItems();
+        for (Trace trace : lastItems) {
+            consumer.accept(trace.toString());
+        }
     }
 
 }
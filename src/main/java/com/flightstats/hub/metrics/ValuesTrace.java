@@ -0,0 +1,53 @@
+package com.flightstats.hub.metrics;
+
+import com.flightstats.hub.model.Trace;
+import org.joda.time.DateTime;
+
+/**
+ * Holds up to three values without an array, and only formats them when the traces are output.
+ * The output matches {@link com.flightstats.hub.model.SingleTrace}.
+ */
+class ValuesTrace implements Trace {
+
+    private final long time = System.currentTimeMillis();
+    private final int count;
+    private final Object first;
+    private final Object second;
+    private final Object third;
+
+    ValuesTrace(Object first) {
+        this(1, first, null, null);
+    }
+
+    ValuesTrace(Object first, Object second) {
+        this(2, first, second, null);
+    }
+
+    ValuesTrace(Object first, Object second, Object third) {
+        this(3, first, second, third);
+    }
+
+    private ValuesTrace(int count, Object first, Object second, Object third) {
+        this.count = count;
+        this.first = first;
+        this.second = second;
+        this.third = third;
+    }
+
+    @Override
+    public String toString() {
+        return new DateTime(time) + " " + context();
+    }
+
+    @Override
+    public String context() {
+        StringBuilder builder = new StringBuilder("[").append(first);
+        if (count > 1) {
+            builder.append(", ").append(second);
+        }
+        if (count > 2) {
+            builder.append(", ").append(third);
+        }
+        return builder.append(']').toString();
+    }
+}
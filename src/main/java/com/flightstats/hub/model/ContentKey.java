@@ -8,15 +8,18 @@ import org.joda.time.DateTimeZone;
 import org.joda.time.format.DateTimeFormatter;
 
 import java.nio.charset.StandardCharsets;
-import java.text.DecimalFormat;
 import java.util.Optional;
 
+/**
+ * A key is the epoch millis it was created at plus a hash.
+ * The DateTime is only built when it is asked for, since most keys are just parsed, compared and written out again.
+ */
 @Slf4j
 public class ContentKey implements ContentPath {
     public static final ContentKey NONE = new ContentKey(TimeUtil.BIG_BANG, "none");
-    private static final DecimalFormat format = new DecimalFormat("000000");
-    private final DateTime time;
+    private final long millis;
     private final String hash;
+    private DateTime time;
 
     public ContentKey() {
         this(TimeUtil.now());
@@ -27,10 +30,16 @@ public class ContentKey implements ContentPath {
     }
 
     public ContentKey(DateTime time, String hash) {
+        this.millis = time.getMillis();
         this.time = time;
         this.hash = hash;
     }
 
+    public ContentKey(long millis, String hash) {
+        this.millis = millis;
+        this.hash = hash;
+    }
+
     public ContentKey(int year, int month, int day, int hour, int minute, int second, int millis) {
         this(new DateTime(year, month, day, hour, minute, second, millis, DateTimeZone.UTC));
     }
@@ -56,40 +65,36 @@ public class ContentKey implements ContentPath {
 
     public static Optional<ContentKey> fromUrl(String key) {
         try {
-            int year = Integer.parseInt(key.substring(0, 4));
-            int month = Integer.parseInt(key.substring(5, 7));
-            int day = Integer.parseInt(key.substring(8, 10));
-            int hour = Integer.parseInt(key.substring(11, 13));
-            int minute = Integer.parseInt(key.substring(14, 16));
-            int second = Integer.parseInt(key.substring(17, 19));
-            int millis = Integer.parseInt(key.substring(20, 23));
-            String hash = key.substring(24);
-            DateTime dateTime = new DateTime(year, month, day, hour, minute, second, millis, DateTimeZone.UTC);
-            return Optional.of(new ContentKey(dateTime, hash));
+            long millis = ContentKeyCodec.parseMillis(key);
+            return Optional.of(new ContentKey(millis, key.substring(ContentKeyCodec.TIME_LENGTH)));
         } catch (Exception e) {
             log.trace("unable to parse {} {} ", key, e.getMessage());
             return Optional.empty();
         }
     }
 
-    private synchronized static String bulkHash(int number) {
-        return format.format(number);
-    }
-
     public static ContentKey bulkKey(ContentKey master, int index) {
-        return new ContentKey(master.getTime(), master.getHash() + ContentKey.bulkHash(index));
+        return new ContentKey(master.millis, ContentKeyCodec.bulkHash(master.getHash(), index));
     }
 
     public String toUrl() {
-        return TimeUtil.millis(time) + hash;
+        return ContentKeyCodec.toUrl(millis, hash);
+    }
+
+    /**
+     * Appends the url of this key to the builder, without creating any intermediate objects.
+     */
+    public StringBuilder appendUrl(StringBuilder builder) {
+        ContentKeyCodec.appendUrl(millis, hash, builder);
+        return builder;
     }
 
     public long getMillis() {
-        return time.getMillis();
+        return millis;
     }
 
     public String toString(DateTimeFormatter pathFormatter) {
-        return time.toString(pathFormatter) + hash;
+        return getTime().toString(pathFormatter) + hash;
     }
 
     @Override
@@ -104,7 +109,7 @@ public class ContentKey implements ContentPath {
         }
         if (other instanceof ContentKey) {
             ContentKey key = (ContentKey) other;
-            int diff = time.compareTo(key.getTime());
+            int diff = Long.compare(millis, key.millis);
             if (diff == 0) {
                 diff = hash.compareTo(key.hash);
             }
@@ -112,8 +117,7 @@ public class ContentKey implements ContentPath {
         }
         if (other instanceof SecondPath) {
             SecondPath secondPath = (SecondPath) other;
-            DateTime endTime = secondPath.getTime().plusSeconds(1);
-            int diff = time.compareTo(endTime);
+            int diff = Long.compare(millis, secondPath.getTime().getMillis() + 1000);
             if (diff == 0) {
                 return 1;
             }
@@ -121,8 +125,7 @@ public class ContentKey implements ContentPath {
 
         } else {
             MinutePath minutePath = (MinutePath) other;
-            DateTime endTime = minutePath.getTime().plusMinutes(1);
-            int diff = time.compareTo(endTime);
+            int diff = Long.compare(millis, minutePath.getTime().getMillis() + 60_000);
             if (diff == 0) {
                 return 1;
             }
@@ -135,16 +138,21 @@ public class ContentKey implements ContentPath {
     }
 
     public String toZk() {
-        return time.getMillis() + ":" + hash;
+        return millis + ":" + hash;
     }
 
     public ContentKey fromZk(String value) {
         String[] split = value.split(":");
-        return new ContentKey(new DateTime(Long.parseLong(split[0]), DateTimeZone.UTC), split[1]);
+        return new ContentKey(Long.parseLong(split[0]), split[1]);
     }
 
     public DateTime getTime() {
-        return this.time;
+        DateTime dateTime = time;
+        if (dateTime == null) {
+            dateTime = new DateTime(millis, DateTimeZone.UTC);
+            time = dateTime;
+        }
+        return dateTime;
     }
 
     public String getHash() {
@@ -156,9 +164,7 @@ public class ContentKey implements ContentPath {
         if (!(o instanceof ContentKey)) return false;
         final ContentKey other = (ContentKey) o;
         if (!other.canEqual(this)) return false;
-        final Object this$time = this.getTime();
-        final Object other$time = other.getTime();
-        if (this$time == null ? other$time != null : !this$time.equals(other$time)) return false;
+        if (this.millis != other.millis) return false;
         final Object this$hash = this.getHash();
         final Object other$hash = other.getHash();
         return this$hash == null ? other$hash == null : this$hash.equals(other$hash);
@@ -167,8 +173,7 @@ public class ContentKey implements ContentPath {
     public int hashCode() {
         final int PRIME = 59;
         int result = 1;
-        final Object $time = this.getTime();
-        result = result * PRIME + ($time == null ? 43 : $time.hashCode());
+        result = result * PRIME + (int) (millis >>> 32 ^ millis);
         final Object $hash = this.getHash();
         result = result * PRIME + ($hash == null ? 43 : $hash.hashCode());
         return result;
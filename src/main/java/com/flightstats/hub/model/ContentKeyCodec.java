@@ -0,0 +1,134 @@
+package com.flightstats.hub.model;
+
+/**
+ * Formats and parses the time part of a key url, yyyy/MM/dd/HH/mm/ss/SSS/, directly between epoch millis and chars,
+ * without Joda formatters, substrings or boxed values.
+ * Dates are proleptic Gregorian in UTC, which matches the ISO chronology the keys are created with.
+ */
+final class ContentKeyCodec {
+
+    static final int TIME_LENGTH = 24;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final int BULK_DIGITS = 6;
+    private static final ThreadLocal<char[]> buffers = ThreadLocal.withInitial(() -> new char[TIME_LENGTH]);
+
+    private ContentKeyCodec() {
+    }
+
+    static String toUrl(long millis, String hash) {
+        char[] chars = new char[TIME_LENGTH + hash.length()];
+        writeTime(millis, chars);
+        hash.getChars(0, hash.length(), chars, TIME_LENGTH);
+        return new String(chars);
+    }
+
+    static void appendUrl(long millis, String hash, StringBuilder builder) {
+        char[] chars = buffers.get();
+        writeTime(millis, chars);
+        builder.append(chars, 0, TIME_LENGTH).append(hash);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the key doesn't start with a valid time
+     */
+    static long parseMillis(CharSequence key) {
+        if (key.length() < TIME_LENGTH) {
+            throw new IllegalArgumentException("too short");
+        }
+        int year = digits(key, 0, 4);
+        int month = digits(key, 5, 2);
+        int day = digits(key, 8, 2);
+        int hour = digits(key, 11, 2);
+        int minute = digits(key, 14, 2);
+        int second = digits(key, 17, 2);
+        int millis = digits(key, 20, 3);
+        if (month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            throw new IllegalArgumentException("invalid time");
+        }
+        long days = daysFromCivil(year, month, day);
+        return days * MILLIS_PER_DAY + ((hour * 60 + minute) * 60 + second) * 1000L + millis;
+    }
+
+    static String bulkHash(String hash, int number) {
+        if (number < 0 || number >= 1_000_000) {
+            return hash + String.format("%06d", number);
+        }
+        char[] chars = new char[hash.length() + BULK_DIGITS];
+        hash.getChars(0, hash.length(), chars, 0);
+        writeDigits(number, chars, hash.length(), BULK_DIGITS);
+        return new String(chars);
+    }
+
+    private static void writeTime(long millis, char[] chars) {
+        long days = Math.floorDiv(millis, MILLIS_PER_DAY);
+        int millisOfDay = (int) Math.floorMod(millis, MILLIS_PER_DAY);
+        long z = days + 719468;
+        long era = (z >= 0 ? z : z - 146096) / 146097;
+        int dayOfEra = (int) (z - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = (int) (yearOfEra + era * 400) + (month <= 2 ? 1 : 0);
+
+        writeDigits(year, chars, 0, 4);
+        chars[4] = '/';
+        writeDigits(month, chars, 5, 2);
+        chars[7] = '/';
+        writeDigits(day, chars, 8, 2);
+        chars[10] = '/';
+        writeDigits(millisOfDay / 3_600_000, chars, 11, 2);
+        chars[13] = '/';
+        writeDigits(millisOfDay / 60_000 % 60, chars, 14, 2);
+        chars[16] = '/';
+        writeDigits(millisOfDay / 1000 % 60, chars, 17, 2);
+        chars[19] = '/';
+        writeDigits(millisOfDay % 1000, chars, 20, 3);
+        chars[23] = '/';
+    }
+
+    private static long daysFromCivil(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static int digits(CharSequence key, int start, int length) {
+        int value = 0;
+        for (int i = start; i < start + length; i++) {
+            int digit = key.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("not a digit at " + i);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void writeDigits(int value, char[] chars, int start, int length) {
+        for (int i = start + length - 1; i >= start; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.flightstats.hub.rest;
+
+import com.flightstats.hub.util.HubUtils;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientResponse;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.ws.rs.core.MediaType;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Makes calls on a Jersey {@link Client} without blocking the caller, so a call to many servers
+ * can be composed from futures rather than waiting on each one.
+ * Jersey 1 calls block, so each call still holds one of at most maxThreads threads until its handler returns,
+ * and calls beyond that wait in a queue.
+ * The handler is given the response while it is open, and the response is always closed afterwards,
+ * which returns the connection to the shared pool.
+ */
+public class AsyncClient {
+
+    private final Client client;
+    private final ThreadPoolExecutor executorService;
+
+    public AsyncClient(String name, Client client, int maxThreads) {
+        this.client = client;
+        int threads = Math.max(1, maxThreads);
+        this.executorService = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build());
+        this.executorService.allowCoreThreadTimeOut(true);
+    }
+
+    public <T> CompletableFuture<T> get(String url, Function<ClientResponse, T> handler) {
+        return call(url, () -> client.resource(url).get(ClientResponse.class), handler);
+    }
+
+    public <T> CompletableFuture<T> put(String url, Object entity, Function<ClientResponse, T> handler) {
+        return call(url, () -> client.resource(url).put(ClientResponse.class, entity), handler);
+    }
+
+    public <T> CompletableFuture<T> post(String url, String json, Function<ClientResponse, T> handler) {
+        return call(url, () -> client.resource(url).type(MediaType.APPLICATION_JSON).post(ClientResponse.class, json), handler);
+    }
+
+    public <T> CompletableFuture<T> delete(String url, Function<ClientResponse, T> handler) {
+        return call(url, () -> client.resource(url).delete(ClientResponse.class), handler);
+    }
+
+    private <T> CompletableFuture<T> call(String url, Supplier<ClientResponse> request, Function<ClientResponse, T> handler) {
+        return CompletableFuture.supplyAsync(() -> {
+            Thread thread = Thread.currentThread();
+            String threadName = thread.getName();
+            thread.setName(threadName + "|" + StringUtils.substringAfter(url, "://"));
+            ClientResponse response = null;
+            try {
+                response = request.get();
+                return handler.apply(response);
+            } finally {
+                HubUtils.close(response);
+                thread.setName(threadName);
+            }
+        }, executorService);
+    }
+}
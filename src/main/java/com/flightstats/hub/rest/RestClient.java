@@ -1,11 +1,26 @@
 package com.flightstats.hub.rest;
 
+import com.flightstats.hub.config.properties.PropertiesLoader;
+import com.flightstats.hub.config.properties.SystemProperties;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.sun.jersey.api.client.Client;
 import com.sun.jersey.api.client.config.ClientConfig;
 import com.sun.jersey.api.client.config.DefaultClientConfig;
 import com.sun.jersey.api.client.filter.GZIPContentEncodingFilter;
+import com.sun.jersey.client.apache4.ApacheHttpClient4;
+import com.sun.jersey.client.apache4.config.ApacheHttpClient4Config;
+import com.sun.jersey.client.apache4.config.DefaultApacheHttpClient4Config;
 import com.sun.jersey.client.urlconnection.HTTPSProperties;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
 
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
@@ -13,10 +28,33 @@ import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 import java.security.SecureRandom;
 import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Builds the Jersey clients used for calls between hubs, to webhook callbacks and to other services.
+ * Every client shares one pool of keep-alive connections, limited per host, so repeated calls
+ * to the same server don't pay for a new connection each time.
+ * Webhook callbacks have their own pool, so many webhooks calling one endpoint can't use up the connections
+ * to other hubs, and so their per host limit can be set separately.
+ * A call waits at most http.client.leaseTimeoutMillis for a connection from a full pool.
+ * Idle connections are closed in the background.
+ */
 @Slf4j
 public class RestClient {
+    private static final SystemProperties systemProperties = new SystemProperties(PropertiesLoader.getInstance());
+    private static final SSLContext sslContext = createSslContext();
+    private static final PoolingClientConnectionManager connectionManager = createConnectionManager(
+            systemProperties.getHttpClientMaxConnections(), systemProperties.getHttpClientMaxConnectionsPerRoute());
+    private static final PoolingClientConnectionManager webhookConnectionManager = createConnectionManager(
+            systemProperties.getHttpClientWebhookMaxConnections(), systemProperties.getHttpClientWebhookMaxConnectionsPerRoute());
+    private static final ConcurrentMap<String, Client> sharedClients = new ConcurrentHashMap<>();
+
     private final static Client client = RestClient.createClient(15, 60, true, false);
     private final static Client gzipClient = RestClient.createClient(15, 60, true, true);
     private final static Client noRedirect = RestClient.createClient(15, 60, false, false);
@@ -33,7 +71,73 @@ public class RestClient {
         return gzipClient;
     }
 
+    /**
+     * @return a client which is shared by every caller with the same settings, it must not be modified
+     */
+    public static Client sharedClient(int connectTimeout, int readTimeout, boolean followRedirects, boolean gzip) {
+        String key = connectTimeout + "|" + readTimeout + "|" + followRedirects + "|" + gzip;
+        return sharedClients.computeIfAbsent(key, k -> createClient(connectTimeout, readTimeout, followRedirects, gzip));
+    }
+
+    /**
+     * @return a client for webhook callbacks, from the webhook pool, which is shared by every caller with the same
+     * timeouts, it must not be modified
+     */
+    public static Client webhookClient(int connectTimeout, int readTimeout) {
+        String key = "webhook|" + connectTimeout + "|" + readTimeout;
+        return sharedClients.computeIfAbsent(key, k -> createClient(webhookConnectionManager, connectTimeout, readTimeout, true, false));
+    }
+
     public static Client createClient(int connectTimeout, int readTimeout, boolean followRedirects, boolean gzip) {
+        return createClient(connectionManager, connectTimeout, readTimeout, followRedirects, gzip);
+    }
+
+    private static Client createClient(PoolingClientConnectionManager manager,
+                                       int connectTimeout, int readTimeout, boolean followRedirects, boolean gzip) {
+        try {
+            Client client;
+            if (systemProperties.isHttpClientPooled()) {
+                HttpParams params = new BasicHttpParams();
+                params.setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT, Math.max(1, systemProperties.getHttpClientLeaseTimeoutMillis()));
+                DefaultApacheHttpClient4Config config = new DefaultApacheHttpClient4Config();
+                config.getProperties().put(ApacheHttpClient4Config.PROPERTY_CONNECTION_MANAGER, manager);
+                config.getProperties().put(ApacheHttpClient4Config.PROPERTY_HTTP_PARAMS, params);
+                config.getProperties().put(ApacheHttpClient4Config.PROPERTY_DISABLE_COOKIES, true);
+                client = ApacheHttpClient4.create(config);
+            } else {
+                HttpsURLConnection.setDefaultSSLSocketFactory(sslContext.getSocketFactory());
+                ClientConfig config = new DefaultClientConfig();
+                config.getProperties().put(HTTPSProperties.PROPERTY_HTTPS_PROPERTIES,
+                        new HTTPSProperties((hostname, session) -> true, sslContext));
+                client = Client.create(config);
+            }
+            client.setConnectTimeout((int) TimeUnit.SECONDS.toMillis(connectTimeout));
+            client.setReadTimeout((int) TimeUnit.SECONDS.toMillis(readTimeout));
+            client.setFollowRedirects(followRedirects);
+            if (gzip) {
+                client.addFilter(new GZIPContentEncodingFilter());
+            }
+            return client;
+        } catch (Exception e) {
+            log.warn("can't create client ", e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return the stats of each connection pool by name, or nothing if clients aren't pooled
+     */
+    public static Map<String, PoolStats> getPoolStats() {
+        if (!systemProperties.isHttpClientPooled()) {
+            return Collections.emptyMap();
+        }
+        Map<String, PoolStats> stats = new LinkedHashMap<>();
+        stats.put("default", connectionManager.getTotalStats());
+        stats.put("webhook", webhookConnectionManager.getTotalStats());
+        return stats;
+    }
+
+    private static SSLContext createSslContext() {
         try {
             TrustManager[] certs = new TrustManager[]{
                     new X509TrustManager() {
@@ -51,22 +155,29 @@ public class RestClient {
             };
             SSLContext ctx = SSLContext.getInstance("SSL");
             ctx.init(null, certs, new SecureRandom());
-            HttpsURLConnection.setDefaultSSLSocketFactory(ctx.getSocketFactory());
-
-            ClientConfig config = new DefaultClientConfig();
-            config.getProperties().put(HTTPSProperties.PROPERTY_HTTPS_PROPERTIES,
-                    new HTTPSProperties((hostname, session) -> true, ctx));
-            Client client = Client.create(config);
-            client.setConnectTimeout((int) TimeUnit.SECONDS.toMillis(connectTimeout));
-            client.setReadTimeout((int) TimeUnit.SECONDS.toMillis(readTimeout));
-            client.setFollowRedirects(followRedirects);
-            if (gzip) {
-                client.addFilter(new GZIPContentEncodingFilter());
-            }
-            return client;
+            return ctx;
         } catch (Exception e) {
-            log.warn("can't create client ", e);
+            log.warn("can't create ssl context ", e);
             throw new RuntimeException(e);
         }
     }
+
+    private static PoolingClientConnectionManager createConnectionManager(int maxConnections, int maxConnectionsPerRoute) {
+        SchemeRegistry schemeRegistry = new SchemeRegistry();
+        schemeRegistry.register(new Scheme("http", 80, PlainSocketFactory.getSocketFactory()));
+        schemeRegistry.register(new Scheme("https", 443,
+                new SSLSocketFactory(sslContext, SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER)));
+        PoolingClientConnectionManager manager = new PoolingClientConnectionManager(schemeRegistry,
+                systemProperties.getHttpClientConnectionTtlSeconds(), TimeUnit.SECONDS);
+        manager.setMaxTotal(Math.max(1, maxConnections));
+        manager.setDefaultMaxPerRoute(Math.max(1, maxConnectionsPerRoute));
+        int idleSeconds = Math.max(1, systemProperties.getHttpClientIdleSeconds());
+        Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("http-pool-evictor-%d").setDaemon(true).build())
+                .scheduleWithFixedDelay(() -> {
+                    manager.closeExpiredConnections();
+                    manager.closeIdleConnections(idleSeconds, TimeUnit.SECONDS);
+                }, idleSeconds, idleSeconds, TimeUnit.SECONDS);
+        return manager;
+    }
 }
@@ -36,6 +36,7 @@ public class RetryClientFilter extends ClientFilter {
                     if (attempt >= maxRetries) {
                         return response;
                     }
+                    response.close();
                 } else {
                     return response;
                 }
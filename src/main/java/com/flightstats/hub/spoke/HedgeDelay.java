@@ -0,0 +1,44 @@
+package com.flightstats.hub.spoke;
+
+import java.util.Arrays;
+
+/**
+ * How long to wait for one replica before asking another.
+ * The delay is a percentile of recent successful read times, kept between a minimum and maximum,
+ * so only the slowest reads are hedged, and a cluster wide slowdown doesn't double the load.
+ * Until there are enough samples, the maximum is used.
+ */
+class HedgeDelay {
+
+    private static final int SAMPLES = 1000;
+    private static final int RECALCULATE = 100;
+
+    private final long[] samples = new long[SAMPLES];
+    private final double percentile;
+    private final long minMillis;
+    private final long maxMillis;
+    private long recorded;
+    private volatile long delayMillis;
+
+    HedgeDelay(double percentile, long minMillis, long maxMillis) {
+        this.percentile = percentile;
+        this.minMillis = minMillis;
+        this.maxMillis = maxMillis;
+        this.delayMillis = maxMillis;
+    }
+
+    long getMillis() {
+        return delayMillis;
+    }
+
+    synchronized void record(long millis) {
+        samples[(int) (recorded % SAMPLES)] = millis;
+        recorded++;
+        if (recorded % RECALCULATE == 0) {
+            long[] sorted = Arrays.copyOf(samples, (int) Math.min(recorded, SAMPLES));
+            Arrays.sort(sorted);
+            int index = (int) Math.min(sorted.length - 1, Math.floor(percentile * sorted.length));
+            delayMillis = Math.max(minMillis, Math.min(maxMillis, sorted[index]));
+        }
+    }
+}
@@ -4,17 +4,21 @@ import com.fasterxml.jackson.databind.JsonMappingException;
 import com.flightstats.hub.cluster.CuratorCluster;
 import com.flightstats.hub.config.properties.ContentProperties;
 import com.flightstats.hub.config.properties.LocalHostProperties;
+import com.flightstats.hub.config.properties.SpokeProperties;
 import com.flightstats.hub.dao.ContentKeyUtil;
 import com.flightstats.hub.dao.ContentMarshaller;
 import com.flightstats.hub.dao.QueryResult;
+import com.flightstats.hub.dao.SortedKeySet;
 import com.flightstats.hub.metrics.ActiveTraces;
 import com.flightstats.hub.metrics.StatsdReporter;
 import com.flightstats.hub.metrics.Traces;
 import com.flightstats.hub.model.Content;
 import com.flightstats.hub.model.ContentKey;
+import com.flightstats.hub.rest.AsyncClient;
 import com.flightstats.hub.rest.RestClient;
 import com.flightstats.hub.util.HubUtils;
 import com.flightstats.hub.util.RuntimeInterruptedException;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.name.Named;
 import com.sun.jersey.api.client.Client;
@@ -24,18 +28,30 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.inject.Inject;
+import java.io.IOException;
 import java.net.ConnectException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @SuppressWarnings({"Convert2streamapi", "Convert2Lambda"})
 @Slf4j
@@ -50,21 +66,51 @@ public class SpokeManager implements SpokeClusterHealthCheck, SpokeChronologySto
     private final ContentProperties contentProperties;
     private final String uriScheme;
     private final String hostAddressWithPort;
-    private final ExecutorService executorService;
+    private final AsyncClient writeClient;
+    private final AsyncClient queryClient;
+    private final AsyncClient readClient;
     private final LocalHostProperties localHostProperties;
+    private final SpokeProperties spokeProperties;
+    private final HedgeDelay hedgeDelay;
+    private final int maxReadsPerServer;
+    private final ConcurrentMap<String, AtomicInteger> readsInFlight = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService hedgeScheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("RemoteSpokeHedge-%d").setDaemon(true).build());
 
     @Inject
     public SpokeManager(@Named("SpokeCuratorCluster") CuratorCluster cluster,
                         StatsdReporter statsdReporter,
                         ContentProperties contentProperties,
-                        LocalHostProperties localHostProperties) {
+                        LocalHostProperties localHostProperties,
+                        SpokeProperties spokeProperties) {
+        this(cluster, statsdReporter, contentProperties, localHostProperties, spokeProperties,
+                new AsyncClient("RemoteSpokeWrite", write_client, spokeProperties.getClientThreads()),
+                new AsyncClient("RemoteSpokeQuery", query_client, spokeProperties.getClientThreads()),
+                new AsyncClient("RemoteSpokeRead", query_client, spokeProperties.getClientThreads()));
+    }
+
+    @VisibleForTesting
+    SpokeManager(CuratorCluster cluster,
+                 StatsdReporter statsdReporter,
+                 ContentProperties contentProperties,
+                 LocalHostProperties localHostProperties,
+                 SpokeProperties spokeProperties,
+                 AsyncClient writeClient,
+                 AsyncClient queryClient,
+                 AsyncClient readClient) {
         this.cluster = cluster;
         this.statsdReporter = statsdReporter;
         this.contentProperties = contentProperties;
         this.uriScheme = localHostProperties.getUriScheme();
         this.hostAddressWithPort = localHostProperties.getAddressWithPort();
         this.localHostProperties = localHostProperties;
-        this.executorService = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("RemoteSpokeStore-%d").build());
+        this.spokeProperties = spokeProperties;
+        this.writeClient = writeClient;
+        this.queryClient = queryClient;
+        this.readClient = readClient;
+        this.hedgeDelay = new HedgeDelay(spokeProperties.getHedgedReadPercentile(),
+                spokeProperties.getHedgedReadMinMillis(), spokeProperties.getHedgedReadMaxMillis());
+        this.maxReadsPerServer = Math.max(1, spokeProperties.getReadMaxPerServer());
     }
 
     static int getQuorum(int size) {
@@ -113,10 +159,11 @@ public class SpokeManager implements SpokeClusterHealthCheck, SpokeChronologySto
         log.info("*********************************************");
         String path = hostAddressWithPort;
         for (String server : servers) {
+            ClientResponse response = null;
             try {
                 log.info("calling server {} path {}", server, path);
                 String url = uriScheme + server + "/internal/spoke/test/" + path;
-                ClientResponse response = query_client.resource(url).get(ClientResponse.class);
+                response = query_client.resource(url).get(ClientResponse.class);
                 if (response.getStatus() == 200) {
                     log.debug("success calling {}", response);
                 } else if (response.getStatus() == 404) {
@@ -128,6 +175,8 @@ public class SpokeManager implements SpokeClusterHealthCheck, SpokeChronologySto
             } catch (Exception e) {
                 log.error("unable to test {} with {}", path, server, e);
                 return false;
+            } finally {
+                HubUtils.close(response);
             }
         }
         log.info("all startup tests succeeded {}", path);
@@ -147,56 +196,35 @@ public class SpokeManager implements SpokeClusterHealthCheck, SpokeChronologySto
 
     private boolean insertToStore(SpokeStore spokeStore, String path, byte[] payload, Collection<String> servers, Traces traces, String spokeApi, String channel) {
         int quorum = getQuorum(servers.size());
-        CountDownLatch quorumLatch = new CountDownLatch(quorum);
-        AtomicBoolean firstComplete = new AtomicBoolean();
-        for (final String server : servers) {
-            executorService.submit(new Runnable() {
-                @Override
-                public void run() {
-                    setThread(path);
-                    String uri = uriScheme + server + "/internal/spoke/" + spokeStore + "/" + spokeApi + "/" + path;
-                    traces.add(uri);
-                    ClientResponse response = null;
-                    try {
-                        response = write_client.resource(uri).put(ClientResponse.class, payload);
-                        traces.add(server, response.getEntity(String.class));
-                        if (response.getStatus() == 201) {
-                            if (firstComplete.compareAndSet(false, true)) {
-                                statsdReporter.time(channel, "heisenberg", traces.getStart());
-                            }
-                            quorumLatch.countDown();
-                            log.trace("server {} path {} response {}", server, path, response);
-                        } else {
-                            log.warn("write failed: server {} path {} response {}", server, path, response);
-                        }
-                    } catch (Exception e) {
-                        traces.add(server, e.getMessage());
-                        log.warn("write failed: {} {}", server, path, e);
-                    } finally {
-                        HubUtils.close(response);
-                        resetThread();
+        AtomicInteger successes = new AtomicInteger();
+        CompletableFuture<Void> quorumReached = new CompletableFuture<>();
+        List<CompletableFuture<Boolean>> writes = new ArrayList<>();
+        for (String server : servers) {
+            String uri = uriScheme + server + "/internal/spoke/" + spokeStore + "/" + spokeApi + "/" + path;
+            traces.add(uri);
+            writes.add(writeClient.put(uri, payload, response -> {
+                traces.add(server, response.getEntity(String.class));
+                if (response.getStatus() == 201) {
+                    if (successes.incrementAndGet() == 1) {
+                        statsdReporter.time(channel, "heisenberg", traces.getStart());
                     }
-
+                    if (successes.get() >= quorum) {
+                        quorumReached.complete(null);
+                    }
+                    log.trace("server {} path {} response {}", server, path, response);
+                    return true;
                 }
-            });
-        }
-        try {
-            quorumLatch.await(contentProperties.getStableSeconds(), TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            throw new RuntimeInterruptedException(e);
+                log.warn("write failed: server {} path {} response {}", server, path, response);
+                return false;
+            }).exceptionally(e -> {
+                traces.add(server, e.getMessage());
+                log.warn("write failed: {} {}", server, path, e);
+                return false;
+            }));
         }
+        await(CompletableFuture.anyOf(quorumReached, allOf(writes)), contentProperties.getStableSeconds());
         statsdReporter.time(channel, "consistent", traces.getStart());
-        return quorumLatch.getCount() != quorum;
-    }
-
-    private void setThread(String name) {
-        Thread thread = Thread.currentThread();
-        thread.setName(thread.getName() + "|" + name);
-    }
-
-    private void resetThread() {
-        Thread thread = Thread.currentThread();
-        thread.setName(StringUtils.substringBefore(thread.getName(), "|"));
+        return successes.get() > 0;
     }
 
     @Override
@@ -211,35 +239,156 @@ public class SpokeManager implements SpokeClusterHealthCheck, SpokeChronologySto
 
     private Content get(SpokeStore spokeStore, String path, ContentKey key) {
         Collection<String> servers = cluster.getRandomServers();
-        for (String server : servers) {
-            ClientResponse response = null;
-            try {
-                setThread(path);
-                String url = uriScheme + server + "/internal/spoke/" + spokeStore + "/payload/" + path;
-                response = query_client.resource(url).get(ClientResponse.class);
-                log.trace("server {} path {} response {}", server, path, response);
-                if (response.getStatus() == 200) {
-                    byte[] entity = response.getEntity(byte[].class);
-                    if (entity.length > 0) {
+        if (!spokeProperties.isHedgedReadEnabled()) {
+            for (String server : servers) {
+                getReadsInFlight(server).incrementAndGet();
+                Content content = getFrom(spokeStore, server, path, key).join();
+                if (content != null) {
+                    return content;
+                }
+            }
+            return null;
+        }
+        HedgedRead hedgedRead = new HedgedRead(spokeStore, path, key, servers);
+        hedgedRead.next();
+        try {
+            return hedgedRead.result.get();
+        } catch (InterruptedException e) {
+            throw new RuntimeInterruptedException(e);
+        } catch (ExecutionException e) {
+            log.error("unable to get content {}", path, e);
+            return null;
+        }
+    }
+
+    private AtomicInteger getReadsInFlight(String server) {
+        return readsInFlight.computeIfAbsent(server, s -> new AtomicInteger());
+    }
+
+    /**
+     * Reads can't be aborted, so a replica which stops answering holds a read thread for each call until
+     * the read timeout.  Capping the calls to each replica leaves the rest of the read pool for the others.
+     */
+    private boolean tryReserveRead(String server) {
+        AtomicInteger inFlight = getReadsInFlight(server);
+        if (inFlight.incrementAndGet() <= maxReadsPerServer) {
+            return true;
+        }
+        inFlight.decrementAndGet();
+        return false;
+    }
+
+    /**
+     * The caller must have counted the read in {@link #readsInFlight}, it is released when the read completes.
+     */
+    private CompletableFuture<Content> getFrom(SpokeStore spokeStore, String server, String path, ContentKey key) {
+        String url = uriScheme + server + "/internal/spoke/" + spokeStore + "/payload/" + path;
+        return readClient.get(url, response -> {
+            log.trace("server {} path {} response {}", server, path, response);
+            if (response.getStatus() == 200) {
+                byte[] entity = response.getEntity(byte[].class);
+                if (entity.length > 0) {
+                    try {
                         return ContentMarshaller.toContent(entity, key);
+                    } catch (JsonMappingException e) {
+                        log.error("JsonMappingException for {}", path);
+                    } catch (IOException e) {
+                        log.error("unable to get content {} {}", server, path, e);
                     }
                 }
-            } catch (JsonMappingException e) {
-                log.error("JsonMappingException for {}", path);
-            } catch (ClientHandlerException e) {
-                if (e.getCause() != null && e.getCause() instanceof ConnectException) {
-                    log.error("connection exception on {}", server);
+            }
+            return (Content) null;
+        }).exceptionally(throwable -> {
+            Throwable e = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+            if (e instanceof ClientHandlerException && e.getCause() instanceof ConnectException) {
+                log.error("connection exception on {}", server);
+            } else {
+                log.error("unable to get content {} {}", server, path, e);
+            }
+            return null;
+        }).whenComplete((content, e) -> getReadsInFlight(server).decrementAndGet());
+    }
+
+    /**
+     * Reads from one replica at a time, moving to the next as soon as one fails.
+     * If a replica hasn't answered within the hedge delay, the same read is also sent to the next replica,
+     * and the first content returned wins.  A hedge which is still scheduled is then cancelled,
+     * and the slower calls are left to finish on their own, with their results ignored.
+     * Replicas which already have maxPerServer reads outstanding are skipped, unless every replica is.
+     */
+    private class HedgedRead {
+        private final CompletableFuture<Content> result = new CompletableFuture<>();
+        private final SpokeStore spokeStore;
+        private final String path;
+        private final ContentKey key;
+        private final Iterator<String> servers;
+        private int started;
+        private int outstanding;
+        private ScheduledFuture<?> pendingHedge;
+        private String leastBusySkipped;
+
+        HedgedRead(SpokeStore spokeStore, String path, ContentKey key, Collection<String> servers) {
+            this.spokeStore = spokeStore;
+            this.path = path;
+            this.key = key;
+            this.servers = new ArrayList<>(servers).iterator();
+        }
+
+        synchronized void next() {
+            if (result.isDone()) {
+                return;
+            }
+            String server = null;
+            while (server == null && servers.hasNext()) {
+                String candidate = servers.next();
+                if (tryReserveRead(candidate)) {
+                    server = candidate;
                 } else {
-                    log.error("unable to get content {} {}", server, path, e);
+                    statsdReporter.incrementCounter("spoke.read.saturated");
+                    if (leastBusySkipped == null || getReadsInFlight(candidate).get() < getReadsInFlight(leastBusySkipped).get()) {
+                        leastBusySkipped = candidate;
+                    }
                 }
-            } catch (Exception e) {
-                log.error("unable to get content {}", path, e);
-            } finally {
-                HubUtils.close(response);
-                resetThread();
+            }
+            if (server == null && started == 0 && leastBusySkipped != null) {
+                server = leastBusySkipped;
+                getReadsInFlight(server).incrementAndGet();
+            }
+            if (server == null) {
+                if (outstanding == 0) {
+                    result.complete(null);
+                }
+                return;
+            }
+            int attempt = ++started;
+            outstanding++;
+            long start = System.currentTimeMillis();
+            getFrom(spokeStore, server, path, key)
+                    .whenComplete((content, e) -> completed(content, start));
+            if (servers.hasNext() && attempt == started && !result.isDone()) {
+                pendingHedge = hedgeScheduler.schedule(() -> hedge(attempt), hedgeDelay.getMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private synchronized void hedge(int attempt) {
+            if (attempt == started && !result.isDone()) {
+                statsdReporter.incrementCounter("spoke.read.hedged");
+                next();
+            }
+        }
+
+        private synchronized void completed(Content content, long start) {
+            outstanding--;
+            if (content != null) {
+                hedgeDelay.record(System.currentTimeMillis() - start);
+                result.complete(content);
+                if (pendingHedge != null) {
+                    pendingHedge.cancel(false);
+                }
+            } else {
+                next();
             }
         }
-        return null;
     }
 
     @Override
@@ -260,93 +409,68 @@ public class SpokeManager implements SpokeClusterHealthCheck, SpokeChronologySto
     private QueryResult getKeys(final String path) throws InterruptedException {
         Traces traces = ActiveTraces.getLocal();
         Collection<String> servers = cluster.getAllServers();
-        CountDownLatch countDownLatch = new CountDownLatch(servers.size());
         QueryResult queryResult = new QueryResult(servers.size());
-        for (final String server : servers) {
-            executorService.submit(new Runnable() {
-                @Override
-                public void run() {
-                    ClientResponse response = null;
-                    try {
-                        setThread(path);
-                        traces.add("spoke calling", server, path);
-                        response = query_client.resource(uriScheme + server + path).get(ClientResponse.class);
-                        traces.add("spoke server response", server, response);
-                        if (response.getStatus() == 200) {
-                            SortedSet<ContentKey> keySet = new TreeSet<>();
-                            String keysString = response.getEntity(String.class);
-                            ContentKeyUtil.convertKeyStrings(keysString, keySet);
-                            traces.add(server, keySet);
-                            queryResult.addKeys(keySet);
-                        }
-                    } catch (ClientHandlerException e) {
-                        if (e.getCause() != null && e.getCause() instanceof ConnectException) {
-                            log.warn("connection exception " + server);
-                        } else {
-                            log.warn("unable to get content " + path, e);
-                        }
-                        traces.add("ClientHandlerException", e.getMessage(), server);
-                    } catch (Exception e) {
-                        log.warn("unable to handle " + server + " " + path, e);
-                        traces.add("unable to handle ", server, path, e);
-                    } finally {
-                        HubUtils.close(response);
-                        resetThread();
-                        countDownLatch.countDown();
-                    }
+        List<CompletableFuture<Void>> queries = new ArrayList<>();
+        for (String server : servers) {
+            traces.add("spoke calling", server, path);
+            queries.add(queryClient.get(uriScheme + server + path, response -> {
+                traces.add("spoke server response", server, response);
+                if (response.getStatus() == 200) {
+                    SortedSet<ContentKey> keySet = new SortedKeySet();
+                    String keysString = response.getEntity(String.class);
+                    ContentKeyUtil.convertKeyStrings(keysString, keySet);
+                    traces.add(server, keySet);
+                    queryResult.addKeys(keySet);
                 }
-            });
+                return (Void) null;
+            }).exceptionally(e -> logQueryFailure(traces, server, path, e)));
         }
-        countDownLatch.await(20, TimeUnit.SECONDS);
+        awaitInterruptibly(allOf(queries), 20);
         return queryResult;
     }
 
     @Override
     public Optional<ContentKey> getLatestFromCluster(String channel, String path, Traces traces) throws InterruptedException {
         Collection<String> servers = cluster.getAllServers();
-        CountDownLatch countDownLatch = new CountDownLatch(servers.size());
         SortedSet<ContentKey> orderedKeys = Collections.synchronizedSortedSet(new TreeSet<>());
-        for (final String server : servers) {
-            executorService.submit(new Runnable() {
-                @Override
-                public void run() {
-                    ClientResponse response = null;
-                    try {
-                        setThread(path);
-                        traces.add("spoke calling", server, channel);
-                        response = query_client.resource(uriScheme + server + "/internal/spoke/latest/" + path)
-                                .get(ClientResponse.class);
-                        traces.add("spoke server response", server, response);
-                        if (response.getStatus() == 200) {
-                            String key = response.getEntity(String.class);
-                            if (StringUtils.isNotEmpty(key)) {
-                                orderedKeys.add(ContentKeyUtil.convertKey(key).get());
-                            }
-                            traces.add(server, key);
-                        }
-                    } catch (ClientHandlerException e) {
-                        if (e.getCause() != null && e.getCause() instanceof ConnectException) {
-                            log.warn("connection exception " + server);
-                        } else {
-                            log.warn("unable to get content " + path, e);
-                        }
-                        traces.add("ClientHandlerException", e.getMessage(), server);
-                    } catch (Exception e) {
-                        log.warn("unable to handle " + server + " " + channel, e);
-                        traces.add("unable to handle ", server, channel, e);
-                    } finally {
-                        HubUtils.close(response);
-                        resetThread();
-                        countDownLatch.countDown();
+        List<CompletableFuture<Void>> queries = new ArrayList<>();
+        for (String server : servers) {
+            traces.add("spoke calling", server, channel);
+            queries.add(queryClient.get(uriScheme + server + "/internal/spoke/latest/" + path, response -> {
+                traces.add("spoke server response", server, response);
+                if (response.getStatus() == 200) {
+                    String key = response.getEntity(String.class);
+                    if (StringUtils.isNotEmpty(key)) {
+                        orderedKeys.add(ContentKeyUtil.convertKey(key).get());
                     }
+                    traces.add(server, key);
                 }
-            });
+                return (Void) null;
+            }).exceptionally(e -> logQueryFailure(traces, server, channel, e)));
+        }
+        awaitInterruptibly(allOf(queries), 5);
+        synchronized (orderedKeys) {
+            if (orderedKeys.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(orderedKeys.last());
         }
-        countDownLatch.await(5, TimeUnit.SECONDS);
-        if (orderedKeys.isEmpty()) {
-            return Optional.empty();
+    }
+
+    private Void logQueryFailure(Traces traces, String server, String path, Throwable throwable) {
+        Throwable e = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        if (e instanceof ClientHandlerException) {
+            if (e.getCause() != null && e.getCause() instanceof ConnectException) {
+                log.warn("connection exception " + server);
+            } else {
+                log.warn("unable to get content " + path, e);
+            }
+            traces.add("ClientHandlerException", e.getMessage(), server);
+        } else {
+            log.warn("unable to handle " + server + " " + path, e);
+            traces.add("unable to handle ", server, path, e);
         }
-        return Optional.of(orderedKeys.last());
+        return null;
     }
 
     @Override
@@ -361,33 +485,41 @@ public class SpokeManager implements SpokeClusterHealthCheck, SpokeChronologySto
 
     private boolean delete(SpokeStore spokeStore, String path) throws Exception {
         Collection<String> servers = cluster.getAllServers();
-        int quorum = servers.size();
-        CountDownLatch countDownLatch = new CountDownLatch(quorum);
-        for (final String server : servers) {
-            executorService.submit(new Runnable() {
-                @Override
-                public void run() {
-                    ClientResponse response = null;
-                    try {
-                        setThread(path);
-                        response = query_client.resource(uriScheme + server + "/internal/spoke/" + spokeStore + "/payload/" + path)
-                                .delete(ClientResponse.class);
+        List<CompletableFuture<Boolean>> deletes = new ArrayList<>();
+        for (String server : servers) {
+            deletes.add(queryClient.delete(uriScheme + server + "/internal/spoke/" + spokeStore + "/payload/" + path, response -> {
+                log.trace("server {} path {} response {}", server, path, response);
+                return response.getStatus() < 400;
+            }).exceptionally(e -> {
+                log.warn("unable to delete " + path, e);
+                return false;
+            }));
+        }
+        awaitInterruptibly(allOf(deletes), 60);
+        return deletes.stream().allMatch(delete -> delete.getNow(false));
+    }
 
-                        if (response.getStatus() < 400) {
-                            countDownLatch.countDown();
-                        }
-                        log.trace("server {} path {} response {}", server, path, response);
-                    } catch (Exception e) {
-                        log.warn("unable to delete " + path, e);
-                    } finally {
-                        HubUtils.close(response);
-                        resetThread();
-                    }
-                }
-            });
+    private static CompletableFuture<Void> allOf(List<? extends CompletableFuture<?>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    private static void await(CompletableFuture<?> future, int seconds) {
+        try {
+            awaitInterruptibly(future, seconds);
+        } catch (InterruptedException e) {
+            throw new RuntimeInterruptedException(e);
         }
+    }
 
-        return countDownLatch.await(60, TimeUnit.SECONDS);
+    /**
+     * Waits for the future to complete, the results of any calls which are still outstanding are ignored.
+     */
+    private static void awaitInterruptibly(CompletableFuture<?> future, int seconds) throws InterruptedException {
+        try {
+            future.get(seconds, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            log.trace("stopped waiting {}", e.getMessage());
+        }
     }
 
     /**
@@ -137,7 +137,7 @@ public class SpokeWriteContentDao implements ContentDao {
                     ActiveTraces.getLocal().log(log);
                     throw new FailedQueryException("unable to execute time query " + query + " " + queryResult);
                 }
-                queryResult.getContentKeys().addAll(retryResult.getContentKeys());
+                queryResult.addKeys(retryResult.getContentKeys());
             }
             ActiveTraces.getLocal().add("spoke query by time", queryResult.getContentKeys());
             return queryResult.getContentKeys();
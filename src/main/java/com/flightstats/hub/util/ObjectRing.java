@@ -2,43 +2,40 @@ package com.flightstats.hub.util;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+/**
+ * Keeps the last size items put.  Writers claim a slot without locking, so a reader racing with writers
+ * may see a slot which has just been overwritten.
+ */
 public class ObjectRing<T> {
 
-    private T[] items;
-    private int position = 0;
-    private int totalSize = 0;
+    private final AtomicReferenceArray<T> items;
+    private final AtomicLong totalSize = new AtomicLong();
 
     public ObjectRing(int size) {
-        items = (T[]) new Object[size];
+        items = new AtomicReferenceArray<>(size);
     }
 
-    public synchronized void put(T item) {
-        if (position == items.length) {
-            position = 0;
-        }
-        items[position] = item;
-        position++;
-        totalSize++;
+    public void put(T item) {
+        long index = totalSize.getAndIncrement();
+        items.lazySet((int) (index % items.length()), item);
     }
 
     public List<T> getItems() {
-        List<T> list = new ArrayList<>();
-        int start = position;
-        for (int i = start; i < items.length; i++) {
-            if (null != items[i]) {
-                list.add(items[i]);
-            }
-        }
-        for (int i = 0; i < start; i++) {
-            if (null != items[i]) {
-                list.add(items[i]);
+        List<T> list = new ArrayList<>(items.length());
+        long end = totalSize.get();
+        for (long i = Math.max(0, end - items.length()); i < end; i++) {
+            T item = items.get((int) (i % items.length()));
+            if (null != item) {
+                list.add(item);
             }
         }
         return list;
     }
 
     public int getTotalSize() {
-        return totalSize;
+        return (int) Math.min(Integer.MAX_VALUE, totalSize.get());
     }
 }
@@ -72,6 +72,24 @@ public class SafeZooKeeperUtils {
         );
     }
 
+    /**
+     * Sets the data, creating the node if it doesn't exist yet.
+     */
+    public void setData(byte[] data, String... pathParts) {
+        doItSafely(path -> {
+                    try {
+                        curator.setData().forPath(path, data);
+                    } catch (KeeperException.NoNodeException e) {
+                        curator.create().creatingParentsIfNeeded().forPath(path, data);
+                    }
+                    return null;
+                },
+                newArrayList(pathParts),
+                "unable to set data",
+                null
+        );
+    }
+
     public void delete(String... pathParts) {
         deletePath(builder -> builder, pathParts);
     }
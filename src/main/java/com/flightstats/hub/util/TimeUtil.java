@@ -38,6 +38,13 @@ public class TimeUtil {
         return now().minusSeconds(stableSeconds).withMillisOfSecond(0);
     }
 
+    /**
+     * @return the time in millis when the second containing this time is before {@link #stable()}
+     */
+    public static long stableMillis(DateTime time) {
+        return time.withMillisOfSecond(0).plusSeconds(stableSeconds + 1).getMillis();
+    }
+
     public static DateTime time(boolean stable) {
         return stable ? stable() : now();
     }
@@ -0,0 +1,169 @@
+package com.flightstats.hub.webhook;
+
+import com.flightstats.hub.config.properties.WebhookProperties;
+import com.flightstats.hub.metrics.StatsdReporter;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.inject.Inject;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One circuit breaker per callback host, shared by every item and every webhook which calls that host.
+ * After failureThreshold consecutive failures the circuit opens, and attempts are short circuited until
+ * the open interval passes.  Then a single probe is let through: if it succeeds the circuit closes,
+ * otherwise it opens again for twice as long, up to maxOpenSeconds.
+ * Each allowed attempt gets a token, so only the probe's own result changes the circuit while it is open.
+ * Late results from attempts which started before it opened only count towards the failures.
+ * This keeps a dead host from tying up a retry loop per item, and from writing an error for each of them.
+ */
+@Singleton
+@Slf4j
+public class CallbackCircuitBreakers {
+
+    static final long SHORT_CIRCUITED = -1;
+    private static final long MIN_OPEN_MILLIS = 1000;
+
+    private final LoadingCache<String, CircuitBreaker> breakers;
+    private final StatsdReporter statsdReporter;
+    private final boolean enabled;
+    private final int failureThreshold;
+    private final long maxOpenMillis;
+
+    @Inject
+    public CallbackCircuitBreakers(WebhookProperties webhookProperties, StatsdReporter statsdReporter) {
+        this.statsdReporter = statsdReporter;
+        this.enabled = webhookProperties.isCircuitBreakerEnabled();
+        this.failureThreshold = webhookProperties.getCircuitBreakerFailureThreshold();
+        this.maxOpenMillis = TimeUnit.SECONDS.toMillis(webhookProperties.getCircuitBreakerMaxOpenSeconds());
+        this.breakers = CacheBuilder.newBuilder()
+                .expireAfterAccess(1, TimeUnit.HOURS)
+                .build(CacheLoader.from(CircuitBreaker::new));
+    }
+
+    /**
+     * @return a token to pass to {@link #onResult}, or SHORT_CIRCUITED if no attempt to this url should be made now
+     */
+    long allowAttempt(String callbackUrl) {
+        return enabled ? getBreaker(callbackUrl).allowAttempt() : 0;
+    }
+
+    void onResult(String callbackUrl, long token, boolean success) {
+        if (enabled) {
+            getBreaker(callbackUrl).onResult(token, success);
+        }
+    }
+
+    /**
+     * @return how long a short circuited attempt should wait before trying again
+     */
+    long getRetryDelayMillis(String callbackUrl) {
+        if (!enabled) {
+            return 0;
+        }
+        return getBreaker(callbackUrl).getRetryDelayMillis();
+    }
+
+    private CircuitBreaker getBreaker(String callbackUrl) {
+        return breakers.getUnchecked(getHost(callbackUrl));
+    }
+
+    static String getHost(String callbackUrl) {
+        try {
+            URI uri = URI.create(callbackUrl);
+            if (uri.getHost() != null) {
+                int port = uri.getPort();
+                if (port < 0) {
+                    port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+                }
+                return uri.getHost().toLowerCase() + ":" + port;
+            }
+        } catch (IllegalArgumentException e) {
+            log.trace("unable to parse {}", callbackUrl);
+        }
+        return callbackUrl;
+    }
+
+    private class CircuitBreaker {
+
+        private final String host;
+        private int failures;
+        private long openMillis;
+        private long openUntil;
+        private long probeStarted;
+        private boolean probeInFlight;
+        private long probeToken;
+        private long lastToken;
+
+        CircuitBreaker(String host) {
+            this.host = host;
+        }
+
+        synchronized long allowAttempt() {
+            if (openUntil == 0) {
+                return ++lastToken;
+            }
+            long now = System.currentTimeMillis();
+            if (now < openUntil) {
+                return SHORT_CIRCUITED;
+            }
+            // a probe whose result never arrives only blocks others for maxOpenMillis
+            if (probeInFlight && now - probeStarted < maxOpenMillis) {
+                return SHORT_CIRCUITED;
+            }
+            log.info("probing callback host {}", host);
+            probeStarted = now;
+            probeInFlight = true;
+            probeToken = ++lastToken;
+            return probeToken;
+        }
+
+        synchronized void onResult(long token, boolean success) {
+            if (openUntil != 0) {
+                if (!probeInFlight || token != probeToken) {
+                    if (!success) {
+                        failures++;
+                    }
+                    return;
+                }
+                probeInFlight = false;
+                if (success) {
+                    log.info("closing circuit for callback host {}", host);
+                    close();
+                } else {
+                    failures++;
+                    open();
+                }
+                return;
+            }
+            if (success) {
+                failures = 0;
+            } else if (++failures >= failureThreshold) {
+                open();
+            }
+        }
+
+        private void close() {
+            failures = 0;
+            openMillis = 0;
+            openUntil = 0;
+            probeStarted = 0;
+        }
+
+        private void open() {
+            openMillis = openMillis == 0 ? MIN_OPEN_MILLIS : Math.min(maxOpenMillis, openMillis * 2);
+            openUntil = System.currentTimeMillis() + openMillis;
+            probeStarted = 0;
+            log.info("opening circuit for callback host {} for {} ms after {} failures", host, openMillis, failures);
+            statsdReporter.incrementCounter("webhook.circuit.open", "host:" + host);
+        }
+
+        synchronized long getRetryDelayMillis() {
+            return Math.max(MIN_OPEN_MILLIS, openUntil - System.currentTimeMillis());
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.flightstats.hub.webhook;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.flightstats.hub.app.HubServices;
+import com.flightstats.hub.cluster.CuratorCluster;
+import com.flightstats.hub.config.properties.LocalHostProperties;
+import com.flightstats.hub.config.properties.WebhookProperties;
+import com.flightstats.hub.dao.Dao;
+import com.flightstats.hub.dao.aws.LatestKeyCache;
+import com.flightstats.hub.model.ContentKey;
+import com.flightstats.hub.webhook.strategy.ChannelKeyFeed;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.AbstractScheduledService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.flightstats.hub.app.HubServices.register;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Tells the servers leading webhooks on a channel that an item was inserted, so they don't need to poll for it.
+ * Local webhooks are told immediately, remote servers are told in small batches.
+ * This is best effort, webhooks still poll as a backstop.
+ * The same batches carry the keys for each server's {@link LatestKeyCache}.  Since those go to every hub server,
+ * when the cache is enabled every server gets one batch with all of the channels, rather than a second
+ * batch for the webhook leaders.
+ * Batches are posted in parallel, so one slow server can't delay the others.  While a server is still working
+ * on its last batch, the next ones are merged into a single batch which is sent when it is done.
+ */
+@Singleton
+@Slf4j
+public class InsertNotifier {
+
+    private final ChannelKeyFeed channelKeyFeed;
+    private final Dao<Webhook> webhookDao;
+    private final WebhookLeaderState webhookLeaderState;
+    private final InternalWebhookClient webhookClient;
+    private final ObjectMapper objectMapper;
+    private final LatestKeyCache latestKeyCache;
+    private final CuratorCluster hubCluster;
+    private final String localServer;
+    private final String localServerName;
+    private final boolean enabled;
+    private final LoadingCache<String, Set<String>> leaders;
+    private final ConcurrentMap<String, Long> pending = new ConcurrentHashMap<>();
+    private final Set<String> posting = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<String, ObjectNode> waiting = new ConcurrentHashMap<>();
+    private final ExecutorService postExecutor;
+
+    @Inject
+    public InsertNotifier(ChannelKeyFeed channelKeyFeed,
+                          @Named("Webhook") Dao<Webhook> webhookDao,
+                          WebhookLeaderState webhookLeaderState,
+                          InternalWebhookClient webhookClient,
+                          ObjectMapper objectMapper,
+                          LatestKeyCache latestKeyCache,
+                          @Named("HubCuratorCluster") CuratorCluster hubCluster,
+                          LocalHostProperties localHostProperties,
+                          WebhookProperties webhookProperties) {
+        this.channelKeyFeed = channelKeyFeed;
+        this.webhookDao = webhookDao;
+        this.webhookLeaderState = webhookLeaderState;
+        this.webhookClient = webhookClient;
+        this.objectMapper = objectMapper;
+        this.latestKeyCache = latestKeyCache;
+        this.hubCluster = hubCluster;
+        this.localServer = localHostProperties.getAddressWithPort();
+        this.localServerName = localHostProperties.getNameWithPort();
+        this.enabled = webhookProperties.isInsertNotifyEnabled();
+        this.leaders = CacheBuilder.newBuilder()
+                .expireAfterWrite(webhookProperties.getInsertNotifyLeaderCacheSeconds(), TimeUnit.SECONDS)
+                .build(new CacheLoader<String, Set<String>>() {
+                    @Override
+                    public Set<String> load(String channel) {
+                        return getLeaders(channel);
+                    }
+                });
+        this.postExecutor = Executors.newFixedThreadPool(Math.max(1, webhookProperties.getInsertNotifyThreads()),
+                new ThreadFactoryBuilder().setNameFormat("insert-notifier-%d").setDaemon(true).build());
+        if (enabled || latestKeyCache.isEnabled()) {
+            register(new InsertNotifierService(webhookProperties.getInsertNotifyFlushMillis()), HubServices.TYPE.AFTER_HEALTHY_START);
+        }
+    }
+
+    public void inserted(String channel, ContentKey key) {
+        if (enabled) {
+            long millis = key.getMillis();
+            channelKeyFeed.inserted(channel, millis);
+            pending.merge(channel.toLowerCase(), millis, Math::max);
+        }
+    }
+
+    public void inserted(String channel, Collection<ContentKey> keys) {
+        keys.stream()
+                .max(ContentKey::compareTo)
+                .ifPresent(key -> inserted(channel, key));
+    }
+
+    private Set<String> getLeaders(String channel) {
+        return webhookDao.getAll(true).stream()
+                .filter(webhook -> !webhook.isTagPrototype())
+                .filter(webhook -> channel.equalsIgnoreCase(webhook.getChannelName()))
+                .flatMap(webhook -> webhookLeaderState.getState(webhook.getName()).getRunningServers().stream())
+                .filter(server -> !server.equals(localServer))
+                .collect(toSet());
+    }
+
+    /**
+     * Sends each server its channels, as {"channel": {"millis": newest insert, "keys": [latest keys]}}
+     */
+    @VisibleForTesting
+    void flush() {
+        Map<String, Long> inserts = new HashMap<>();
+        for (String channel : pending.keySet()) {
+            Long millis = pending.remove(channel);
+            if (millis != null) {
+                inserts.put(channel, millis);
+            }
+        }
+        Map<String, Collection<ContentKey>> latestKeys = latestKeyCache.drainPending();
+        if (inserts.isEmpty() && latestKeys.isEmpty()) {
+            return;
+        }
+        Map<String, ObjectNode> serverInserts = new HashMap<>();
+        if (latestKeyCache.isEnabled()) {
+            ObjectNode all = objectMapper.createObjectNode();
+            inserts.forEach((channel, millis) -> all.with(channel).put("millis", millis));
+            latestKeys.forEach((channel, keys) -> {
+                ArrayNode urls = all.with(channel).putArray("keys");
+                keys.forEach(key -> urls.add(key.toUrl()));
+            });
+            hubCluster.getAllServers().stream()
+                    .filter(server -> !server.equals(localServerName))
+                    .forEach(server -> serverInserts.put(server, all));
+        } else {
+            inserts.forEach((channel, millis) -> {
+                for (String server : leaders.getUnchecked(channel)) {
+                    serverInserts.computeIfAbsent(server, s -> objectMapper.createObjectNode())
+                            .with(channel).put("millis", millis);
+                }
+            });
+        }
+        serverInserts.forEach(this::post);
+    }
+
+    private void post(String server, ObjectNode channels) {
+        waiting.compute(server, (s, batch) -> batch == null ? channels.deepCopy() : merge(batch, channels));
+        if (!posting.add(server)) {
+            log.debug("queueing inserts for {}, still posting the last batch", server);
+            return;
+        }
+        try {
+            postExecutor.submit(() -> drain(server));
+        } catch (RuntimeException e) {
+            posting.remove(server);
+            throw e;
+        }
+    }
+
+    private void drain(String server) {
+        do {
+            try {
+                ObjectNode batch;
+                while ((batch = waiting.remove(server)) != null) {
+                    webhookClient.inserted(server, batch.toString());
+                }
+            } finally {
+                posting.remove(server);
+            }
+        } while (waiting.containsKey(server) && posting.add(server));
+    }
+
+    /**
+     * Keeps the newest millis and every key of each channel.
+     */
+    private static ObjectNode merge(ObjectNode batch, ObjectNode channels) {
+        channels.fields().forEachRemaining(entry -> {
+            ObjectNode channel = batch.with(entry.getKey());
+            JsonNode millis = entry.getValue().get("millis");
+            if (millis != null) {
+                channel.put("millis", Math.max(channel.path("millis").asLong(0), millis.asLong()));
+            }
+            JsonNode keys = entry.getValue().get("keys");
+            if (keys != null) {
+                Set<String> urls = new LinkedHashSet<>();
+                channel.path("keys").forEach(key -> urls.add(key.asText()));
+                keys.forEach(key -> urls.add(key.asText()));
+                ArrayNode merged = channel.putArray("keys");
+                urls.forEach(merged::add);
+            }
+        });
+        return batch;
+    }
+
+    private class InsertNotifierService extends AbstractScheduledService {
+
+        private final long flushMillis;
+
+        InsertNotifierService(long flushMillis) {
+            this.flushMillis = flushMillis;
+        }
+
+        @Override
+        protected void runOneIteration() {
+            try {
+                flush();
+            } catch (Exception e) {
+                log.warn("unable to notify inserts", e);
+            }
+        }
+
+        @Override
+        protected Scheduler scheduler() {
+            return Scheduler.newFixedDelaySchedule(flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.flightstats.hub.webhook;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flightstats.hub.cluster.CuratorCluster;
 import com.flightstats.hub.config.properties.LocalHostProperties;
 import com.flightstats.hub.util.HubUtils;
@@ -9,10 +10,13 @@ import lombok.extern.slf4j.Slf4j;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import javax.ws.rs.core.MediaType;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -24,14 +28,21 @@ public class InternalWebhookClient {
     private final Client client;
     private final CuratorCluster hubCluster;
     private final String uriScheme;
+    private final ObjectMapper objectMapper;
 
     @Inject
     public InternalWebhookClient(@Named("HubCuratorCluster") CuratorCluster hubCluster,
                                  @Named(WEBHOOK_CLIENT) Client client,
-                                 LocalHostProperties localHostProperties) {
+                                 LocalHostProperties localHostProperties,
+                                 ObjectMapper objectMapper) {
         this.hubCluster = hubCluster;
         this.client = client;
         this.uriScheme = localHostProperties.getUriScheme();
+        this.objectMapper = objectMapper;
+    }
+
+    boolean inserted(String server, String inserts) {
+        return post(server + "/internal/webhook/inserted", inserts);
     }
 
     List<String> stop(String name, Collection<String> servers) {
@@ -79,18 +90,40 @@ public class InternalWebhookClient {
     }
 
     /**
-     * We want this to return this list in order from fewest to most
-     * If we get a non-200, return max int so it's tried last
+     * We want this to return this list in order from least to most loaded.
+     * If we get a non-200, the load is max value so it's tried last.
      */
     private Collection<String> getOrderedServers() {
-        return hubCluster.getRandomServers().stream()
-                .sorted(Comparator.comparingInt(this::getCount))
+        List<String> servers = hubCluster.getRandomServers();
+        Map<String, Double> loads = new HashMap<>();
+        servers.forEach(server -> loads.put(server, getLoad(server).orElse(Double.MAX_VALUE)));
+        return servers.stream()
+                .sorted(Comparator.comparingDouble(loads::get))
                 .collect(toList());
     }
 
-    private Integer getCount(String server) {
-        return get(server + "/internal/webhook/count")
-                .orElse(Integer.MAX_VALUE);
+    /**
+     * @return the load of each server which responded
+     */
+    Map<String, Double> getLoads() {
+        Map<String, Double> loads = new HashMap<>();
+        hubCluster.getRandomServers()
+                .forEach(server -> getLoad(server).ifPresent(load -> loads.put(server, load)));
+        return loads;
+    }
+
+    private Optional<Double> getLoad(String server) {
+        return get(server + "/internal/webhook/load")
+                .flatMap(this::parseLoad);
+    }
+
+    private Optional<Double> parseLoad(String entity) {
+        try {
+            return Optional.of(objectMapper.readTree(entity).get("load").asDouble());
+        } catch (Exception e) {
+            log.warn("unable to parse load {}", entity, e);
+            return Optional.empty();
+        }
     }
 
     private boolean put(String url) {
@@ -113,7 +146,28 @@ public class InternalWebhookClient {
         return false;
     }
 
-    private Optional<Integer> get(String url) {
+    private boolean post(String url, String json) {
+        String hubUrl = uriScheme + url;
+        ClientResponse response = null;
+        try {
+            log.trace("calling {}", hubUrl);
+            response = client.resource(hubUrl)
+                    .type(MediaType.APPLICATION_JSON)
+                    .post(ClientResponse.class, json);
+            if (response.getStatus() == 200) {
+                return true;
+            } else {
+                log.warn("unexpected response posting {}: {}", hubUrl, response);
+            }
+        } catch (Exception e) {
+            log.warn("unable to post {} {}", hubUrl, e.getMessage());
+        } finally {
+            HubUtils.close(response);
+        }
+        return false;
+    }
+
+    private Optional<String> get(String url) {
         ClientResponse response = null;
         String hubUrl = uriScheme + url;
         try {
@@ -121,8 +175,7 @@ public class InternalWebhookClient {
             response = client.resource(hubUrl).get(ClientResponse.class);
             if (response.getStatus() == 200) {
                 log.trace("success {}", response);
-                Integer count = Integer.parseInt(response.getEntity(String.class));
-                return Optional.of(count);
+                return Optional.of(response.getEntity(String.class));
             } else {
                 log.error("unexpected response {}", response);
             }
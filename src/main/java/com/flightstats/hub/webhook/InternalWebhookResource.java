@@ -1,17 +1,23 @@
 package com.flightstats.hub.webhook;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.flightstats.hub.app.PermissionsChecker;
 import com.flightstats.hub.config.properties.LocalHostProperties;
+import com.flightstats.hub.dao.aws.LatestKeyCache;
+import com.flightstats.hub.model.ContentKey;
 import com.flightstats.hub.model.ContentPath;
 import com.flightstats.hub.util.StaleEntity;
+import com.flightstats.hub.webhook.strategy.ChannelKeyFeed;
 import lombok.extern.slf4j.Slf4j;
 import org.joda.time.DateTime;
 
 import javax.inject.Inject;
+import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
@@ -21,8 +27,12 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
+import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.TreeSet;
@@ -43,7 +53,8 @@ public class InternalWebhookResource {
     private final LocalWebhookRunner localWebhookRunner;
     private final StaleEntity staleEntity;
     private final ObjectMapper objectMapper;
-
+    private final ChannelKeyFeed channelKeyFeed;
+    private final LatestKeyCache latestKeyCache;
 
     @Context
     private UriInfo uriInfo;
@@ -54,13 +65,17 @@ public class InternalWebhookResource {
                                    WebhookService webhookService,
                                    LocalWebhookRunner localWebhookRunner,
                                    StaleEntity staleEntity,
-                                   ObjectMapper objectMapper) {
+                                   ObjectMapper objectMapper,
+                                   ChannelKeyFeed channelKeyFeed,
+                                   LatestKeyCache latestKeyCache) {
         this.permissionsChecker = permissionsChecker;
         this.localHostProperties = localHostProperties;
         this.webhookService = webhookService;
         this.localWebhookRunner = localWebhookRunner;
         this.staleEntity = staleEntity;
         this.objectMapper = objectMapper;
+        this.channelKeyFeed = channelKeyFeed;
+        this.latestKeyCache = latestKeyCache;
     }
 
     @GET
@@ -74,6 +89,7 @@ public class InternalWebhookResource {
         directions.put("stale", "HTTP GET to /internal/webhook/stale/{age} to list webhooks that are more than {age} minutes behind.");
         directions.put("errors", "HTTP GET to /internal/webhook/errors to list all webhooks with recent errors.");
         directions.put("running", "HTTP GET to /internal/webhook/running to list all webhooks that are running on this server.");
+        directions.put("load", "HTTP GET to /internal/webhook/load to see the load of the webhooks running on this server.");
         directions.put("run/{name}", "HTTP PUT to /internal/webhook/run/{name} to start processing this webhook.");
         directions.put("stop/{name}", "HTTP PUT to /internal/webhook/stop/{name} to stop processing this webhook on this server.");
 
@@ -177,12 +193,52 @@ public class InternalWebhookResource {
         return attemptStop(name);
     }
 
+    @POST
+    @Path("/inserted")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response inserted(String inserts) throws IOException {
+        Iterator<Map.Entry<String, JsonNode>> fields = objectMapper.readTree(inserts).fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String channel = field.getKey();
+            JsonNode inserted = field.getValue();
+            if (inserted.has("millis")) {
+                channelKeyFeed.inserted(channel, inserted.get("millis").asLong());
+            }
+            if (inserted.has("keys")) {
+                List<ContentKey> keys = new ArrayList<>();
+                for (JsonNode key : inserted.get("keys")) {
+                    ContentKey.fromUrl(key.asText()).ifPresent(keys::add);
+                }
+                latestKeyCache.received(channel, keys);
+            }
+        }
+        return Response.ok().build();
+    }
+
     @GET
     @Path("/count")
     public Response count() {
         return Response.ok(localWebhookRunner.getCount()).build();
     }
 
+    @GET
+    @Path("/load")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response load() {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("load", localWebhookRunner.getLoad());
+        ObjectNode webhooks = root.putObject("webhooks");
+        new TreeMap<>(localWebhookRunner.getLoads()).forEach((name, load) -> {
+            ObjectNode node = webhooks.putObject(name);
+            node.put("load", load.getLoad());
+            node.put("rate", load.getRate());
+            node.put("latencyMillis", load.getLatencyMillis());
+            node.put("inFlight", load.getInFlight());
+        });
+        return Response.ok(root).build();
+    }
+
     @GET
     @Path("/running")
     @Produces(MediaType.APPLICATION_JSON)
@@ -14,6 +14,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -111,6 +112,18 @@ public class LocalWebhookRunner {
         return localLeaders.size();
     }
 
+    double getLoad() {
+        return localLeaders.values().stream()
+                .mapToDouble(leader -> leader.getLoad().getLoad())
+                .sum();
+    }
+
+    Map<String, WebhookLoad> getLoads() {
+        Map<String, WebhookLoad> loads = new HashMap<>();
+        localLeaders.forEach((name, leader) -> loads.put(name, leader.getLoad()));
+        return loads;
+    }
+
     List<String> getRunning() {
         return new ArrayList<>(localLeaders.keySet());
     }
@@ -73,6 +73,8 @@ public class Webhook implements Comparable<Webhook>, NamedType {
     private final Integer maxAttempts;
     @Wither
     private final String errorChannelUrl;
+    @Wither
+    private final boolean inlinePayload;  // SINGLE webhooks can have the item's bytes sent in the callback body
 
     boolean secondaryMetricsReporting;
 
@@ -96,6 +98,7 @@ public class Webhook implements Comparable<Webhook>, NamedType {
                     .managedByTag(existing.managedByTag)
                     .maxAttempts(existing.maxAttempts)
                     .errorChannelUrl(existing.errorChannelUrl)
+                    .inlinePayload(existing.inlinePayload)
                     .secondaryMetricsReporting(existing.secondaryMetricsReporting);
         }
         try {
@@ -159,6 +162,9 @@ public class Webhook implements Comparable<Webhook>, NamedType {
             if (root.has("errorChannelUrl")) {
                 builder.errorChannelUrl(root.get("errorChannelUrl").asText());
             }
+            if (root.has("inlinePayload")) {
+                builder.inlinePayload(root.get("inlinePayload").asBoolean());
+            }
             if (root.has("secondaryMetricsReporting")) {
                 builder.secondaryMetricsReporting(root.get("secondaryMetricsReporting").asBoolean());
             }
@@ -192,7 +198,7 @@ public class Webhook implements Comparable<Webhook>, NamedType {
     static Webhook instanceFromTagPrototype(Webhook whp, ChannelConfig channel) {
         String channelUrl = RequestUtils.getHost(whp.getTagUrl()) + "/channel/" + channel.getName();
         String whName = "TAGWH_" + whp.getTagFromTagUrl() + "_" + channel.getName();
-        return new Webhook(whp.callbackUrl, channelUrl, whp.parallelCalls, whName, null, whp.batch, whp.heartbeat, whp.paused, whp.ttlMinutes, whp.maxWaitMinutes, whp.callbackTimeoutSeconds, whp.fastForwardable, null, whp.getTagFromTagUrl(), whp.maxAttempts, whp.errorChannelUrl, whp.secondaryMetricsReporting);
+        return new Webhook(whp.callbackUrl, channelUrl, whp.parallelCalls, whName, null, whp.batch, whp.heartbeat, whp.paused, whp.ttlMinutes, whp.maxWaitMinutes, whp.callbackTimeoutSeconds, whp.fastForwardable, null, whp.getTagFromTagUrl(), whp.maxAttempts, whp.errorChannelUrl, whp.inlinePayload, whp.secondaryMetricsReporting);
     }
 
     public static Webhook fromJson(String json, ContentRetriever contentRetriever) {
@@ -0,0 +1,115 @@
+package com.flightstats.hub.webhook;
+
+import com.flightstats.hub.metrics.StatsdReporter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limits how many callbacks a webhook has in flight, between one and parallelCalls.
+ * When adaptive, the limit follows the endpoint with AIMD: an attempt which succeeds without being much slower
+ * than the fastest recent attempts adds 1/limit, so the limit grows by about one per round trip.
+ * A failure, or a slow attempt, multiplies the limit by the backoff ratio, at most once per round trip.
+ */
+@Slf4j
+class WebhookConcurrencyLimiter {
+
+    private static final int WINDOW_SAMPLES = 100;
+    private static final long MIN_SLACK_MILLIS = 50;
+
+    private final String name;
+    private final int maxLimit;
+    private final boolean adaptive;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+    private final StatsdReporter statsdReporter;
+
+    private double limit;
+    private int inFlight;
+    private long lastDecrease;
+    private long baselineMillis = Long.MAX_VALUE;
+    private long windowMinMillis = Long.MAX_VALUE;
+    private int windowSamples;
+
+    WebhookConcurrencyLimiter(String name,
+                              int maxLimit,
+                              boolean adaptive,
+                              double latencyTolerance,
+                              double backoffRatio,
+                              StatsdReporter statsdReporter) {
+        this.name = name;
+        this.maxLimit = Math.max(1, maxLimit);
+        this.adaptive = adaptive;
+        this.latencyTolerance = latencyTolerance;
+        this.backoffRatio = backoffRatio;
+        this.statsdReporter = statsdReporter;
+        this.limit = this.maxLimit;
+    }
+
+    synchronized void acquire() throws InterruptedException {
+        while (inFlight >= getLimit()) {
+            wait();
+        }
+        inFlight++;
+    }
+
+    synchronized void release() {
+        inFlight--;
+        notifyAll();
+    }
+
+    /**
+     * Called after each delivery attempt with when it started and whether the endpoint handled it.
+     */
+    synchronized void onAttempt(long startMillis, boolean success) {
+        if (!adaptive) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long latencyMillis = now - startMillis;
+        updateBaseline(latencyMillis);
+        int previous = getLimit();
+        if (!success || isSlow(latencyMillis)) {
+            if (startMillis > lastDecrease) {
+                limit = Math.max(1, limit * backoffRatio);
+                lastDecrease = now;
+            }
+        } else {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+        int current = getLimit();
+        if (current != previous) {
+            log.debug("{} concurrency limit {} latency {} baseline {}", name, current, latencyMillis, getBaselineMillis());
+            statsdReporter.gauge("webhook.concurrency.limit", current, "name:" + name);
+            notifyAll();
+        }
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private boolean isSlow(long latencyMillis) {
+        long baseline = getBaselineMillis();
+        return latencyMillis > baseline * latencyTolerance && latencyMillis - baseline > MIN_SLACK_MILLIS;
+    }
+
+    /**
+     * The baseline is the fastest attempt in the current or previous window, so it can rise again
+     * after the endpoint's normal latency changes.
+     */
+    private void updateBaseline(long latencyMillis) {
+        windowMinMillis = Math.min(windowMinMillis, latencyMillis);
+        if (++windowSamples >= WINDOW_SAMPLES) {
+            baselineMillis = windowMinMillis;
+            windowMinMillis = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+    }
+
+    private long getBaselineMillis() {
+        return Math.min(baselineMillis, windowMinMillis);
+    }
+}
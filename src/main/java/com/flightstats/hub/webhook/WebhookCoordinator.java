@@ -1,16 +1,21 @@
 package com.flightstats.hub.webhook;
 
 import com.flightstats.hub.app.HubServices;
+import com.flightstats.hub.cluster.ChangeLog;
 import com.flightstats.hub.cluster.ClusterCacheDao;
+import com.flightstats.hub.cluster.CuratorCluster;
 import com.flightstats.hub.cluster.WatchManager;
 import com.flightstats.hub.cluster.Watcher;
+import com.flightstats.hub.config.properties.LocalHostProperties;
 import com.flightstats.hub.config.properties.WebhookProperties;
 import com.flightstats.hub.dao.Dao;
+import com.flightstats.hub.metrics.StatsdReporter;
 import com.flightstats.hub.model.ContentPath;
 import com.flightstats.hub.webhook.strategy.WebhookStrategy;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.AbstractIdleService;
 import com.google.common.util.concurrent.AbstractScheduledService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.curator.framework.api.CuratorEvent;
@@ -18,17 +23,45 @@ import org.apache.curator.framework.api.CuratorEvent;
 import javax.inject.Inject;
 import javax.inject.Named;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.flightstats.hub.app.HubServices.register;
 import static com.flightstats.hub.constant.ZookeeperNodes.WEBHOOK_LAST_COMPLETED;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
+/**
+ * Keeps each webhook running on exactly one server.
+ * A full pass checks the leadership state of every webhook, which is ZooKeeper reads per webhook, so it only runs
+ * at startup and on a schedule as a safety net.  Watcher notifications and servers leaving the cluster trigger an
+ * incremental pass, which only checks webhooks whose config changed, which have no known leader,
+ * or whose leader was on a departed server.
+ * Leaders are known by their lease ids (address:port), while the cluster knows servers by name, so a server which
+ * stops cleanly announces both of its ids in the watcher's change log.  A server which leaves without announcing
+ * itself can't be matched to its leases, so it triggers a full pass.
+ * An incremental pass trusts the leaders it last saw, so a leader which exits while its server stays in the cluster
+ * is only noticed by the next full pass, up to five minutes later.
+ * Passes are coalesced, so at most one runs at a time, and the webhooks in a pass are checked in parallel.
+ */
 @Slf4j
 @Singleton
 public class WebhookCoordinator {
-    private static final String WATCHER_PATH = "/groupCallback/watcher";
+    static final String WATCHER_PATH = "/groupCallback/watcher";
 
     private final LocalWebhookRunner localWebhookRunner;
     private final WebhookErrorService webhookErrorService;
@@ -39,6 +72,21 @@ public class WebhookCoordinator {
     private final WebhookLeaderState webhookLeaderState;
     private final WatchManager watchManager;
     private final Dao<Webhook> webhookDao;
+    private final WebhookRebalancer webhookRebalancer;
+    private final CuratorCluster hubCluster;
+    private final LocalHostProperties localHostProperties;
+    private final StatsdReporter statsdReporter;
+    private final ExecutorService passExecutor;
+    private final ExecutorService reconcileExecutor;
+
+    private final Map<String, Webhook> reconciled = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> runningServers = new ConcurrentHashMap<>();
+    private final Set<String> departedServers = ConcurrentHashMap.newKeySet();
+    private final Set<String> announcedServers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong changeSequence = new AtomicLong(-1);
+    private final AtomicBoolean passRunning = new AtomicBoolean();
+    private final AtomicBoolean fullPassRequested = new AtomicBoolean();
+    private final AtomicBoolean incrementalPassRequested = new AtomicBoolean();
 
     @Inject
     public WebhookCoordinator(LocalWebhookRunner localWebhookRunner,
@@ -50,7 +98,11 @@ public class WebhookCoordinator {
                               WebhookLeaderState webhookLeaderState,
                               WebhookProperties webhookProperties,
                               WatchManager watchManager,
-                              @Named("Webhook") Dao<Webhook> webhookDao) {
+                              @Named("Webhook") Dao<Webhook> webhookDao,
+                              WebhookRebalancer webhookRebalancer,
+                              @Named("HubCuratorCluster") CuratorCluster hubCluster,
+                              LocalHostProperties localHostProperties,
+                              StatsdReporter statsdReporter) {
         this.localWebhookRunner = localWebhookRunner;
         this.webhookErrorService = webhookErrorService;
         this.contentKeysInFlight = contentKeysInFlight;
@@ -60,18 +112,31 @@ public class WebhookCoordinator {
         this.webhookLeaderState = webhookLeaderState;
         this.watchManager = watchManager;
         this.webhookDao = webhookDao;
+        this.webhookRebalancer = webhookRebalancer;
+        this.hubCluster = hubCluster;
+        this.localHostProperties = localHostProperties;
+        this.statsdReporter = statsdReporter;
+        this.passExecutor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("webhook-coordinator-%d").setDaemon(true).build());
+        this.reconcileExecutor = Executors.newFixedThreadPool(Math.max(1, webhookProperties.getReconcileThreadCount()),
+                new ThreadFactoryBuilder().setNameFormat("webhook-reconcile-%d").setDaemon(true).build());
 
         if (webhookProperties.isWebhookLeadershipEnabled()) {
             register(new WebhookCoordinatorIdleService(), HubServices.TYPE.AFTER_HEALTHY_START, HubServices.TYPE.PRE_STOP);
             register(new WebhookCoordinatorScheduledService(), HubServices.TYPE.AFTER_HEALTHY_START);
+            if (webhookProperties.isRebalanceEnabled()) {
+                register(new WebhookRebalancerService(webhookProperties.getRebalanceIntervalMinutes()), HubServices.TYPE.AFTER_HEALTHY_START);
+            }
         }
     }
 
     private void start() {
+        changeSequence.set(watchManager.getChangeLog(WATCHER_PATH).map(ChangeLog::getSequence).orElse(0L));
         watchManager.register(new Watcher() {
             @Override
             public void callback(CuratorEvent event) {
-                manageWebhookLeaders(true);
+                readAnnouncements();
+                requestIncrementalPass();
             }
 
             @Override
@@ -80,12 +145,132 @@ public class WebhookCoordinator {
             }
 
         });
-        manageWebhookLeaders(false);
+        hubCluster.addRemovedListener(server -> {
+            if (announcedServers.remove(server)) {
+                log.info("server {} left the cluster", server);
+            } else {
+                log.info("server {} left the cluster without announcing itself", server);
+                requestFullPass();
+            }
+        });
+        manageWebhookLeaders(true);
     }
 
-    private synchronized void manageWebhookLeaders(boolean useCache) {
-        webhookDao.getAll(useCache)
-                .forEach(webhook -> ensureRunningOnOnlyOneServer(webhook, false));
+    /**
+     * Adds the servers announced since the last read to the departed servers.
+     * If the change log has been lost or has wrapped, the announcements can't be known, so a full pass is requested.
+     */
+    private synchronized void readAnnouncements() {
+        Optional<ChangeLog> changeLog = watchManager.getChangeLog(WATCHER_PATH);
+        if (!changeLog.isPresent()) {
+            fullPassRequested.set(true);
+            return;
+        }
+        long previous = changeSequence.getAndSet(changeLog.get().getSequence());
+        Optional<List<String>> servers = changeLog.get().since(previous);
+        if (servers.isPresent()) {
+            log.info("servers {} are leaving the cluster", servers.get());
+            departedServers.addAll(servers.get());
+            announcedServers.addAll(servers.get());
+        } else {
+            fullPassRequested.set(true);
+        }
+    }
+
+    private void requestFullPass() {
+        passExecutor.submit(() -> manageWebhookLeaders(true));
+    }
+
+    private void requestIncrementalPass() {
+        incrementalPassRequested.set(true);
+        passExecutor.submit(() -> manageWebhookLeaders(false));
+    }
+
+    /**
+     * Runs the requested passes, unless another thread is already running passes, in which case that thread
+     * picks up the request.  A full pass satisfies any pending incremental request.
+     */
+    private void manageWebhookLeaders(boolean full) {
+        if (full) {
+            fullPassRequested.set(true);
+        }
+        while (isPassRequested() && passRunning.compareAndSet(false, true)) {
+            try {
+                while (isPassRequested()) {
+                    boolean isFull = fullPassRequested.getAndSet(false);
+                    incrementalPassRequested.set(false);
+                    runPass(isFull);
+                }
+            } catch (Exception e) {
+                log.warn("unable to manage webhook leaders", e);
+            } finally {
+                passRunning.set(false);
+            }
+        }
+    }
+
+    private boolean isPassRequested() {
+        return fullPassRequested.get() || incrementalPassRequested.get();
+    }
+
+    private void runPass(boolean full) {
+        long start = System.currentTimeMillis();
+        String type = full ? "full" : "incremental";
+        Collection<Webhook> webhooks = webhookDao.getAll(!full);
+        Set<String> departed = new HashSet<>(departedServers);
+        departedServers.removeAll(departed);
+        Set<String> names = webhooks.stream().map(Webhook::getName).collect(toSet());
+        reconciled.keySet().retainAll(names);
+        runningServers.keySet().retainAll(names);
+        Collection<Webhook> toReconcile = full ? webhooks : getChanged(webhooks, departed);
+        statsdReporter.gauge("webhook.coordinator.pending", toReconcile.size(), "type:" + type);
+        List<Future<?>> futures = toReconcile.stream()
+                .map(webhook -> reconcileExecutor.submit(() -> reconcile(webhook)))
+                .collect(toList());
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.warn("unable to reconcile webhook", e.getCause());
+            }
+        }
+        statsdReporter.time("webhook.coordinator.pass", start, "type:" + type);
+        log.debug("{} pass reconciled {} of {} webhooks in {} ms", type, toReconcile.size(), webhooks.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    @VisibleForTesting
+    void reconcile(Webhook webhook) {
+        try {
+            ensureRunningOnOnlyOneServer(webhook, false);
+            reconciled.put(webhook.getName(), webhook);
+        } catch (Exception e) {
+            log.warn("unable to reconcile webhook {}", webhook.getName(), e);
+        }
+    }
+
+    /**
+     * @return the webhooks which an incremental pass needs to check
+     */
+    @VisibleForTesting
+    Collection<Webhook> getChanged(Collection<Webhook> webhooks, Set<String> departed) {
+        return webhooks.stream()
+                .filter(webhook -> !isTagPrototype(webhook))
+                .filter(webhook -> {
+                    Webhook previous = reconciled.get(webhook.getName());
+                    if (previous == null || !previous.equals(webhook)) {
+                        return true;
+                    }
+                    Set<String> servers = runningServers.getOrDefault(webhook.getName(), Collections.emptySet());
+                    if (!webhook.isPaused() && servers.isEmpty()) {
+                        return true;
+                    }
+                    return servers.stream().anyMatch(departed::contains);
+                })
+                .collect(toList());
     }
 
     void notifyWatchers(Webhook webhook) {
@@ -94,7 +279,7 @@ public class WebhookCoordinator {
 
     @VisibleForTesting
     void ensureRunningOnOnlyOneServer(Webhook daoWebhook, boolean webhookChanged) {
-        if (daoWebhook.getTagUrl() != null && !daoWebhook.getTagUrl().isEmpty()) {
+        if (isTagPrototype(daoWebhook)) {
             // tag webhooks are not processed like normal webhooks.
             // they are used as prototype definitions for new webhooks added
             // automatically when a new/existing channel is assigned a tag that is
@@ -108,21 +293,31 @@ public class WebhookCoordinator {
 
         if (director.webhookRequiresNoChanges()) {
             log.debug("no changes required for {}", name);
+            runningServers.put(name, state.getRunningServers());
         } else if (director.webhookShouldStop()) {
             log.debug("stopping {}", name);
             webhookClient.stop(name, state.getRunningServers());
+            runningServers.put(name, Collections.emptySet());
         } else if (director.webhookShouldStart()) {
             log.debug("found v2 webhook {}", name);
-            webhookClient.runOnServerWithFewestWebhooks(name);
+            runningServers.put(name, serversOf(webhookClient.runOnServerWithFewestWebhooks(name)));
         } else if (director.webhookShouldRestartOnOneServerAndStopAnyOthers()) {
             log.debug("found existing webhook {} running on {}", name, state.getRunningServers());
-            webhookClient.runOnOnlyOneServer(name, state.getRunningServers());
+            runningServers.put(name, serversOf(webhookClient.runOnOnlyOneServer(name, state.getRunningServers())));
         } else {
             log.warn("the webhook coordinator seems to have a bug; this statement shouldn't be reached");
         }
 
     }
 
+    private static boolean isTagPrototype(Webhook webhook) {
+        return webhook.getTagUrl() != null && !webhook.getTagUrl().isEmpty();
+    }
+
+    private static Set<String> serversOf(Optional<String> server) {
+        return server.map(Collections::singleton).orElse(Collections.emptySet());
+    }
+
     @VisibleForTesting
     static class WebhookActionDirector {
         private final WebhookLeaderState.RunningState state;
@@ -154,13 +349,20 @@ public class WebhookCoordinator {
         }
     }
 
-    private void notifyWatchers() {
-        watchManager.notifyWatcher(WATCHER_PATH);
+    /**
+     * Tells the other servers that this one is leaving, by its lease id and its cluster id,
+     * so they take over its webhooks without waiting for a full pass.
+     */
+    private void announceDeparture() {
+        watchManager.notifyWatcher(WATCHER_PATH, localHostProperties.getAddressWithPort());
+        watchManager.notifyWatcher(WATCHER_PATH, localHostProperties.getNameWithPort());
     }
 
     public void stopLeader(String name) {
         WebhookLeaderState.RunningState state = webhookLeaderState.getState(name);
         webhookClient.stop(name, state.getRunningServers());
+        runningServers.remove(name);
+        reconciled.remove(name);
         webhookStateReaper.stop(name);
     }
 
@@ -187,7 +389,9 @@ public class WebhookCoordinator {
         @Override
         protected void shutDown() {
             localWebhookRunner.stopAll();
-            notifyWatchers();
+            announceDeparture();
+            passExecutor.shutdownNow();
+            reconcileExecutor.shutdownNow();
         }
 
     }
@@ -195,7 +399,7 @@ public class WebhookCoordinator {
     private class WebhookCoordinatorScheduledService extends AbstractScheduledService {
         @Override
         protected void runOneIteration() {
-            manageWebhookLeaders(false);
+            manageWebhookLeaders(true);
         }
 
         @Override
@@ -203,4 +407,26 @@ public class WebhookCoordinator {
             return Scheduler.newFixedRateSchedule(1, 5, TimeUnit.MINUTES);
         }
     }
+
+    private class WebhookRebalancerService extends AbstractScheduledService {
+        private final int intervalMinutes;
+
+        WebhookRebalancerService(int intervalMinutes) {
+            this.intervalMinutes = intervalMinutes;
+        }
+
+        @Override
+        protected void runOneIteration() {
+            try {
+                webhookRebalancer.rebalance();
+            } catch (Exception e) {
+                log.warn("unable to rebalance webhooks", e);
+            }
+        }
+
+        @Override
+        protected Scheduler scheduler() {
+            return Scheduler.newFixedDelaySchedule(intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+        }
+    }
 }
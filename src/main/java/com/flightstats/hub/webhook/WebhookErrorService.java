@@ -7,7 +7,7 @@ import com.flightstats.hub.model.Content;
 import com.flightstats.hub.util.RequestUtils;
 import com.flightstats.hub.webhook.error.WebhookError;
 import com.flightstats.hub.webhook.error.WebhookErrorPruner;
-import com.flightstats.hub.webhook.error.WebhookErrorRepository;
+import com.flightstats.hub.webhook.error.WebhookErrorStore;
 import javax.inject.Inject;
 import com.google.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
@@ -33,27 +33,27 @@ import static java.util.stream.Collectors.toList;
 @Slf4j
 class WebhookErrorService {
 
-    private final WebhookErrorRepository webhookErrorRepository;
+    private final WebhookErrorStore webhookErrorStore;
     private final ChannelService channelService;
     private final WebhookErrorPruner webhookErrorPruner;
 
     @Inject
-    public WebhookErrorService(WebhookErrorRepository webhookErrorRepository,
+    public WebhookErrorService(WebhookErrorStore webhookErrorStore,
                                WebhookErrorPruner webhookErrorPruner,
                                ChannelService channelService) {
-        this.webhookErrorRepository = webhookErrorRepository;
+        this.webhookErrorStore = webhookErrorStore;
         this.webhookErrorPruner = webhookErrorPruner;
         this.channelService = channelService;
     }
 
     public void add(String webhook, String error) {
-        webhookErrorRepository.add(webhook, error);
+        webhookErrorStore.add(webhook, error);
         trimAndLookup(webhook);
     }
 
     public void delete(String webhook) {
         log.info("deleting webhook errors for " + webhook);
-        webhookErrorRepository.deleteWebhook(webhook);
+        webhookErrorStore.deleteWebhook(webhook);
     }
 
     List<String> lookup(String webhook) {
@@ -63,7 +63,7 @@ class WebhookErrorService {
     }
 
     private List<WebhookError> trimAndLookup(String webhook) {
-        final List<WebhookError> errors = webhookErrorRepository.getErrors(webhook).stream()
+        final List<WebhookError> errors = webhookErrorStore.getErrors(webhook).stream()
                 .sorted(Comparator.comparing(WebhookError::getCreationTime))
                 .collect(toList());
 
@@ -18,6 +18,7 @@ import com.flightstats.hub.model.ContentPath;
 import com.flightstats.hub.util.RuntimeInterruptedException;
 import com.flightstats.hub.util.Sleeper;
 import com.flightstats.hub.util.TimeUtil;
+import com.flightstats.hub.webhook.strategy.ChannelKeyFeed;
 import com.flightstats.hub.webhook.strategy.WebhookStrategy;
 import lombok.extern.slf4j.Slf4j;
 import org.joda.time.DateTime;
@@ -40,8 +41,10 @@ class WebhookLeader implements Lockable {
     private static final MetricsType LEADERSHIP_METRIC = MetricsType.WEBHOOK_LEADERSHIP;
 
     private AtomicReference<ContentPath> lastUpdated = new AtomicReference<>();
+    private final WebhookLoad load = new WebhookLoad();
 
     private final ContentRetriever contentRetriever;
+    private final ChannelKeyFeed channelKeyFeed;
     private final WebhookService webhookService;
     private final StatsdReporter statsdReporter;
     private final ClusterCacheDao clusterCacheDao;
@@ -52,11 +55,13 @@ class WebhookLeader implements Lockable {
     private final WebhookProperties webhookProperties;
     private final LocalHostProperties localHostProperties;
     private final ObjectMapper objectMapper;
+    private final CallbackCircuitBreakers circuitBreakers;
 
     private DistributedAsyncLockRunner distributedLockRunner;
     private Optional<LeadershipLock> leadershipLock;
     private ExecutorService executorService;
     private Semaphore semaphore;
+    private WebhookConcurrencyLimiter concurrencyLimiter;
     private WebhookRetryer retryer;
     private WebhookStrategy webhookStrategy;
     private Webhook webhook;
@@ -64,6 +69,7 @@ class WebhookLeader implements Lockable {
 
     @Inject
     public WebhookLeader(ContentRetriever contentRetriever,
+                         ChannelKeyFeed channelKeyFeed,
                          WebhookService webhookService,
                          StatsdReporter statsdReporter,
                          ClusterCacheDao clusterCacheDao,
@@ -73,8 +79,10 @@ class WebhookLeader implements Lockable {
                          DistributedLeaderLockManager lockManager,
                          WebhookProperties webhookProperties,
                          LocalHostProperties localHostProperties,
-                         ObjectMapper objectMapper) {
+                         ObjectMapper objectMapper,
+                         CallbackCircuitBreakers circuitBreakers) {
         this.contentRetriever = contentRetriever;
+        this.channelKeyFeed = channelKeyFeed;
         this.webhookService = webhookService;
         this.statsdReporter = statsdReporter;
         this.clusterCacheDao = clusterCacheDao;
@@ -85,6 +93,7 @@ class WebhookLeader implements Lockable {
         this.webhookProperties = webhookProperties;
         this.localHostProperties = localHostProperties;
         this.objectMapper = objectMapper;
+        this.circuitBreakers = circuitBreakers;
     }
 
     boolean tryLeadership(Webhook webhook) {
@@ -119,6 +128,12 @@ class WebhookLeader implements Lockable {
         statsdReporter.incrementEventStart(LEADERSHIP_METRIC, "name:" + webhook.getName());
         executorService = Executors.newCachedThreadPool();
         semaphore = new Semaphore(webhook.getParallelCalls());
+        concurrencyLimiter = new WebhookConcurrencyLimiter(webhook.getName(),
+                webhook.getParallelCalls(),
+                webhookProperties.isAdaptiveConcurrencyEnabled(),
+                webhookProperties.getAdaptiveConcurrencyLatencyTolerance(),
+                webhookProperties.getAdaptiveConcurrencyBackoffRatio(),
+                statsdReporter);
         retryer = WebhookRetryer.builder()
                 .readTimeoutSeconds(webhook.getCallbackTimeoutSeconds())
                 .tryLaterIf(this::doesNotHaveLeadership)
@@ -131,8 +146,11 @@ class WebhookLeader implements Lockable {
                 .statsdReporter(statsdReporter)
                 .webhookProperties(webhookProperties)
                 .localHostProperties(localHostProperties)
+                .contentRetriever(contentRetriever)
+                .concurrencyLimiter(concurrencyLimiter)
+                .circuitBreakers(circuitBreakers)
                 .build();
-        webhookStrategy = WebhookStrategy.getStrategy(contentRetriever, clusterCacheDao, objectMapper, webhook);
+        webhookStrategy = WebhookStrategy.getStrategy(contentRetriever, channelKeyFeed, clusterCacheDao, objectMapper, webhook);
         try {
             final ContentPath lastCompletedPath = webhookStrategy.getStartingPath();
             lastUpdated.set(lastCompletedPath);
@@ -247,6 +265,12 @@ class WebhookLeader implements Lockable {
 
     private void send(ContentPath contentPath) throws InterruptedException {
         semaphore.acquire();
+        try {
+            concurrencyLimiter.acquire();
+        } catch (InterruptedException e) {
+            semaphore.release();
+            throw e;
+        }
         log.trace("sending {} to {}", contentPath, webhook.getName());
         String parentName = Thread.currentThread().getName();
         executorService.submit(() -> {
@@ -257,7 +281,13 @@ class WebhookLeader implements Lockable {
             try {
                 statsdReporter.time("webhook.delta", contentPath.getTime().getMillis(), "name:" + webhook.getName());
                 long start = System.currentTimeMillis();
-                boolean shouldGoToNextItem = retryer.send(webhook, contentPath, webhookStrategy.createResponse(contentPath));
+                load.started();
+                boolean shouldGoToNextItem;
+                try {
+                    shouldGoToNextItem = retryer.send(webhook, contentPath, webhookStrategy.createResponse(contentPath));
+                } finally {
+                    load.completed(start);
+                }
                 statsdReporter.time("webhook", start, "name:" + webhook.getName());
                 if (shouldGoToNextItem && increaseLastUpdatedIfNewer(contentPath)) {
                     clusterCacheDao.setIfNewer(contentPath, webhook.getName(), WEBHOOK_LAST_COMPLETED);
@@ -267,6 +297,7 @@ class WebhookLeader implements Lockable {
             } catch (Exception e) {
                 log.warn("exception sending {} to {}", contentPath, webhook.getName(), e);
             } finally {
+                concurrencyLimiter.release();
                 semaphore.release();
                 ActiveTraces.end();
                 Thread.currentThread().setName(workerName);
@@ -328,6 +359,10 @@ class WebhookLeader implements Lockable {
         return webhook;
     }
 
+    WebhookLoad getLoad() {
+        return load;
+    }
+
     void setWebhook(Webhook webhook) {
         this.webhook = webhook;
     }
@@ -0,0 +1,81 @@
+package com.flightstats.hub.webhook;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks how much of a node a webhook leader uses.
+ * The load is one for the leader itself, plus the average number of concurrent callbacks,
+ * which is the delivery rate times the callback latency.  Calls which are still in flight
+ * count immediately, so a callback which starts hanging is seen before the window rolls over.
+ */
+class WebhookLoad {
+
+    private static final long WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final double ALPHA = 0.5;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private long windowStart = System.currentTimeMillis();
+    private long windowDeliveries;
+    private long windowBusyMillis;
+
+    private double rate;
+    private double latencyMillis;
+    private double concurrency;
+
+    void started() {
+        inFlight.incrementAndGet();
+    }
+
+    void completed(long startMillis) {
+        long busyMillis = System.currentTimeMillis() - startMillis;
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            windowDeliveries++;
+            windowBusyMillis += busyMillis;
+        }
+    }
+
+    synchronized double getLoad() {
+        roll();
+        return 1 + Math.max(concurrency, inFlight.get());
+    }
+
+    /**
+     * @return deliveries per second
+     */
+    synchronized double getRate() {
+        roll();
+        return rate;
+    }
+
+    synchronized double getLatencyMillis() {
+        roll();
+        return latencyMillis;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void roll() {
+        long now = System.currentTimeMillis();
+        long elapsed = now - windowStart;
+        if (elapsed < WINDOW_MILLIS) {
+            return;
+        }
+        rate = smooth(rate, windowDeliveries * 1000.0 / elapsed);
+        concurrency = smooth(concurrency, (double) windowBusyMillis / elapsed);
+        if (windowDeliveries > 0) {
+            latencyMillis = smooth(latencyMillis, (double) windowBusyMillis / windowDeliveries);
+        }
+        windowStart = now;
+        windowDeliveries = 0;
+        windowBusyMillis = 0;
+    }
+
+    private double smooth(double previous, double current) {
+        return ALPHA * current + (1 - ALPHA) * previous;
+    }
+}
@@ -0,0 +1,107 @@
+package com.flightstats.hub.webhook;
+
+import com.flightstats.hub.config.properties.LocalHostProperties;
+import com.flightstats.hub.config.properties.WebhookProperties;
+import com.google.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.inject.Inject;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Moves webhook leaders off of this node when it is busier than the rest of the cluster.
+ * Each node only moves its own leaders, and only while it is above the cluster average by the threshold.
+ * A leader is only moved if the target will still be less loaded than this node,
+ * and at most maxMoves leaders are moved per run to bound the churn.
+ * Servers are known by their hub cluster name, and this node's own entry is replaced with its current load.
+ */
+@Singleton
+@Slf4j
+class WebhookRebalancer {
+
+    private final LocalWebhookRunner localWebhookRunner;
+    private final InternalWebhookClient webhookClient;
+    private final String localServer;
+    private final double threshold;
+    private final int maxMoves;
+
+    @Inject
+    WebhookRebalancer(LocalWebhookRunner localWebhookRunner,
+                      InternalWebhookClient webhookClient,
+                      LocalHostProperties localHostProperties,
+                      WebhookProperties webhookProperties) {
+        this.localWebhookRunner = localWebhookRunner;
+        this.webhookClient = webhookClient;
+        this.localServer = localHostProperties.getNameWithPort();
+        this.threshold = webhookProperties.getRebalanceThreshold();
+        this.maxMoves = webhookProperties.getRebalanceMaxMoves();
+    }
+
+    int rebalance() {
+        Map<String, Double> serverLoads = webhookClient.getLoads();
+        Map<String, Double> webhookLoads = new HashMap<>();
+        localWebhookRunner.getLoads().forEach((name, load) -> webhookLoads.put(name, load.getLoad()));
+        double localLoad = webhookLoads.values().stream().mapToDouble(Double::doubleValue).sum();
+        serverLoads.put(localServer, localLoad);
+        if (serverLoads.size() < 2) {
+            return 0;
+        }
+        double limit = (1 + threshold) * serverLoads.values().stream()
+                .mapToDouble(Double::doubleValue)
+                .average()
+                .orElse(0);
+        log.debug("local load {} limit {} servers {}", localLoad, limit, serverLoads);
+        List<String> heaviest = webhookLoads.keySet().stream()
+                .sorted(Comparator.comparingDouble(webhookLoads::get).reversed())
+                .collect(toList());
+        int moves = 0;
+        for (String name : heaviest) {
+            if (moves >= maxMoves || localLoad <= limit) {
+                break;
+            }
+            String target = getLeastLoaded(serverLoads);
+            double targetLoad = serverLoads.get(target);
+            double load = webhookLoads.get(name);
+            if (localLoad - load < targetLoad + load) {
+                continue;
+            }
+            if (move(name, target)) {
+                moves++;
+                localLoad -= load;
+                serverLoads.put(localServer, localLoad);
+                serverLoads.put(target, targetLoad + load);
+            }
+        }
+        if (moves > 0) {
+            log.info("moved {} webhooks, local load is now {}", moves, localLoad);
+        }
+        return moves;
+    }
+
+    private String getLeastLoaded(Map<String, Double> serverLoads) {
+        return serverLoads.entrySet().stream()
+                .filter(entry -> !entry.getKey().equals(localServer))
+                .min(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(localServer);
+    }
+
+    private boolean move(String name, String target) {
+        log.info("moving webhook {} to {}", name, target);
+        localWebhookRunner.stop(name);
+        if (webhookClient.runOnOneServer(name, Collections.singletonList(target)).isPresent()) {
+            return true;
+        }
+        log.warn("unable to move webhook {} to {}", name, target);
+        if (!localWebhookRunner.ensureRunning(name)) {
+            webhookClient.runOnServerWithFewestWebhooks(name);
+        }
+        return false;
+    }
+}
@@ -121,6 +121,7 @@ public class WebhookResource {
             root.put("callbackTimeoutSeconds", webhook.getCallbackTimeoutSeconds());
             root.put("maxAttempts", webhook.getMaxAttempts());
             root.put("errorChannelUrl", webhook.getErrorChannelUrl());
+            root.put("inlinePayload", webhook.isInlinePayload());
             root.put("secondaryMetricsReporting", webhook.isSecondaryMetricsReporting());
             if (webhook.isTagPrototype()) {
                 root.put("tagUrl", webhook.getTagUrl());
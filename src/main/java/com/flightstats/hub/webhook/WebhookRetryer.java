@@ -3,9 +3,12 @@ package com.flightstats.hub.webhook;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.flightstats.hub.config.properties.LocalHostProperties;
 import com.flightstats.hub.config.properties.WebhookProperties;
+import com.flightstats.hub.dao.aws.ContentRetriever;
 import com.flightstats.hub.metrics.ActiveTraces;
 import com.flightstats.hub.metrics.StatsdReporter;
 import com.flightstats.hub.metrics.Traces;
+import com.flightstats.hub.model.Content;
+import com.flightstats.hub.model.ContentKey;
 import com.flightstats.hub.model.ContentPath;
 import com.flightstats.hub.model.RecurringTrace;
 import com.flightstats.hub.rest.RestClient;
@@ -14,6 +17,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.sun.jersey.api.client.Client;
 import com.sun.jersey.api.client.ClientHandlerException;
 import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.WebResource;
 import lombok.Builder;
 import lombok.Singular;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +26,7 @@ import org.joda.time.DateTime;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
@@ -36,9 +41,13 @@ class WebhookRetryer {
     private final List<Predicate<DeliveryAttempt>> tryLaterIfs;
 
     private final WebhookErrorService webhookErrorService;
+    private final WebhookProperties webhookProperties;
     private final LocalHostProperties localHostProperties;
+    private final ContentRetriever contentRetriever;
     private final StatsdReporter statsdReporter;
     private final Client httpClient;
+    private final WebhookConcurrencyLimiter concurrencyLimiter;
+    private final CallbackCircuitBreakers circuitBreakers;
 
     @Builder
     WebhookRetryer(@Singular List<Predicate<DeliveryAttempt>> giveUpIfs,
@@ -48,12 +57,19 @@ class WebhookRetryer {
                    WebhookErrorService webhookErrorService,
                    WebhookProperties webhookProperties,
                    LocalHostProperties localHostProperties,
-                   StatsdReporter statsdReporter) {
+                   StatsdReporter statsdReporter,
+                   ContentRetriever contentRetriever,
+                   WebhookConcurrencyLimiter concurrencyLimiter,
+                   CallbackCircuitBreakers circuitBreakers) {
 
         this.giveUpIfs = giveUpIfs;
         this.tryLaterIfs = tryLaterIfs;
         this.webhookErrorService = webhookErrorService;
         this.statsdReporter = statsdReporter;
+        this.webhookProperties = webhookProperties;
+        this.contentRetriever = contentRetriever;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.circuitBreakers = circuitBreakers;
 
         if (connectTimeoutSeconds == null)
             connectTimeoutSeconds = webhookProperties.getConnectTimeoutSeconds();
@@ -61,7 +77,7 @@ class WebhookRetryer {
             readTimeoutSeconds = webhookProperties.getReadTimeoutSeconds();
 
         this.localHostProperties = localHostProperties;
-        this.httpClient = RestClient.createClient(connectTimeoutSeconds, readTimeoutSeconds, true, false);
+        this.httpClient = RestClient.webhookClient(connectTimeoutSeconds, readTimeoutSeconds);
     }
 
     boolean send(Webhook webhook, ContentPath contentPath, ObjectNode body) {
@@ -70,6 +86,7 @@ class WebhookRetryer {
         RecurringTrace recurringTrace = new RecurringTrace("WebhookRetryer.send start");
         traces.add(recurringTrace);
 
+        Optional<Content> inlineContent = getInlineContent(webhook, contentPath);
         int attemptNumber = 0;
         boolean isDoneWithItem = false;
         boolean isRetrying = true;
@@ -95,20 +112,35 @@ class WebhookRetryer {
                 continue;
             }
 
+            long circuitToken = circuitBreakers == null ? 0 : circuitBreakers.allowAttempt(webhook.getCallbackUrl());
+            if (circuitToken == CallbackCircuitBreakers.SHORT_CIRCUITED) {
+                // short circuited attempts don't count towards maxAttempts, and don't write errors
+                attemptNumber--;
+                if (!sleep(attempt, circuitBreakers.getRetryDelayMillis(webhook.getCallbackUrl()))) {
+                    isRetrying = false;
+                }
+                continue;
+            }
+
             String payload = body.toString();
             log.debug("{} {} delivery attempt #{} {} {}", attempt.getWebhook().getName(), attempt.getContentPath().toUrl(), attempt.getNumber(), webhook.getCallbackUrl(), payload);
             ClientResponse response = null;
+            long attemptStart = System.currentTimeMillis();
             try {
-                response = httpClient.resource(attempt.getWebhook().getCallbackUrl())
-                        .type(MediaType.APPLICATION_JSON_TYPE)
-                        .header("Hub-Node", localHostProperties.getNameWithPort())
-                        .post(ClientResponse.class, payload);
+                response = post(attempt, payload, inlineContent);
                 attempt.setStatusCode(response.getStatus());
             } catch (ClientHandlerException e) {
                 attempt.setException(e);
             } finally {
                 HubUtils.close(response);
             }
+            boolean handled = isHandled(attempt);
+            if (concurrencyLimiter != null) {
+                concurrencyLimiter.onAttempt(attemptStart, handled);
+            }
+            if (circuitBreakers != null) {
+                circuitBreakers.onResult(webhook.getCallbackUrl(), circuitToken, handled);
+            }
 
             String requestResult = determineResult(attempt);
             log.debug("{} {} to {} response {}", attempt.getWebhook().getName(), attempt.getContentPath().toUrl(), attempt.getWebhook().getCallbackUrl(), requestResult);
@@ -123,17 +155,11 @@ class WebhookRetryer {
                 statsdReporter.incrementCounter("webhook.errors", "name:" + attempt.getWebhook().getName(), "status:" + attempt.getStatusCode());
             }
 
-            try {
-                long exponentialMultiplier = 1000;
-                long maximumSleepTimeMS = TimeUnit.MINUTES.toMillis(attempt.getWebhook().getMaxWaitMinutes());
-                long sleepTimeMS = calculateSleepTimeMS(attempt, exponentialMultiplier, maximumSleepTimeMS);
-                log.debug("{} {} waiting {} seconds until retrying", attempt.getWebhook().getName(), attempt.getContentPath().toUrl(), TimeUnit.MILLISECONDS.toSeconds(sleepTimeMS));
-                Thread.sleep(sleepTimeMS);
-            } catch (InterruptedException e) {
-                String message = String.format("%s %s to %s interrupted", attempt.getWebhook().getName(), attempt.getContentPath().toUrl(), attempt.getWebhook().getCallbackUrl());
-                log.debug(message, e);
-                statsdReporter.incrementCounter("webhook.errors", "name:" + webhook.getName(), "status:500");
-                Thread.currentThread().interrupt();
+            long exponentialMultiplier = 1000;
+            long maximumSleepTimeMS = TimeUnit.MINUTES.toMillis(attempt.getWebhook().getMaxWaitMinutes());
+            long sleepTimeMS = calculateSleepTimeMS(attempt, exponentialMultiplier, maximumSleepTimeMS);
+            log.debug("{} {} waiting {} seconds until retrying", attempt.getWebhook().getName(), attempt.getContentPath().toUrl(), TimeUnit.MILLISECONDS.toSeconds(sleepTimeMS));
+            if (!sleep(attempt, sleepTimeMS)) {
                 isRetrying = false;
             }
         }
@@ -142,6 +168,72 @@ class WebhookRetryer {
         return isDoneWithItem;
     }
 
+    /**
+     * @return false if interrupted
+     */
+    private boolean sleep(DeliveryAttempt attempt, long sleepTimeMS) {
+        try {
+            Thread.sleep(sleepTimeMS);
+            return true;
+        } catch (InterruptedException e) {
+            String message = String.format("%s %s to %s interrupted", attempt.getWebhook().getName(), attempt.getContentPath().toUrl(), attempt.getWebhook().getCallbackUrl());
+            log.debug(message, e);
+            statsdReporter.incrementCounter("webhook.errors", "name:" + attempt.getWebhook().getName(), "status:500");
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private ClientResponse post(DeliveryAttempt attempt, String payload, Optional<Content> inlineContent) {
+        Webhook webhook = attempt.getWebhook();
+        WebResource.Builder request = httpClient.resource(webhook.getCallbackUrl())
+                .header("Hub-Node", localHostProperties.getNameWithPort());
+        if (inlineContent.isPresent()) {
+            Content content = inlineContent.get();
+            return request.type(content.getContentType().orElse(MediaType.APPLICATION_OCTET_STREAM))
+                    .header("Hub-Webhook-Name", webhook.getName())
+                    .header("Hub-Item-Uri", webhook.getChannelUrl() + "/" + attempt.getContentPath().toUrl())
+                    .post(ClientResponse.class, content.getData());
+        }
+        return request.type(MediaType.APPLICATION_JSON_TYPE)
+                .post(ClientResponse.class, payload);
+    }
+
+    /**
+     * Fetches the item once so the same bytes can be reused for every attempt.
+     * Anything which can't be inlined falls back to the uri callback.
+     */
+    private Optional<Content> getInlineContent(Webhook webhook, ContentPath contentPath) {
+        if (!webhook.isInlinePayload() || !(contentPath instanceof ContentKey)) {
+            return Optional.empty();
+        }
+        Optional<Content> content = Optional.empty();
+        try {
+            content = contentRetriever.getContent(webhook.getChannelName(), (ContentKey) contentPath);
+            if (content.isPresent() && isInlineable(content.get())) {
+                return content;
+            }
+            log.debug("{} {} not inlining payload", webhook.getName(), contentPath.toUrl());
+        } catch (Exception e) {
+            log.warn("{} {} unable to fetch inline payload", webhook.getName(), contentPath.toUrl(), e);
+        }
+        content.ifPresent(Content::close);
+        return Optional.empty();
+    }
+
+    /**
+     * Large items and items with a known length over the limit are rejected before their stream is read.
+     */
+    @VisibleForTesting
+    boolean isInlineable(Content content) {
+        int maxBytes = webhookProperties.getInlinePayloadMaxBytes();
+        if (content.isLarge() || content.getContentLength() > maxBytes) {
+            return false;
+        }
+        byte[] data = content.getData();
+        return data != null && data.length <= maxBytes;
+    }
+
     @VisibleForTesting
     boolean shouldGiveUp(DeliveryAttempt attempt) {
         long reasonsToGiveUp = giveUpIfs.stream().filter(predicate -> predicate.test(attempt)).count();
@@ -163,6 +255,15 @@ class WebhookRetryer {
         }
     }
 
+    /**
+     * Client errors are the subscriber's problem, not a sign that the endpoint is overloaded.
+     */
+    @VisibleForTesting
+    boolean isHandled(DeliveryAttempt attempt) {
+        Integer statusCode = attempt.getStatusCode();
+        return statusCode != null && statusCode < 500 && statusCode != 429;
+    }
+
     @VisibleForTesting
     long calculateSleepTimeMS(DeliveryAttempt attempt, long multiplier, long maximumSleepTimeMS) {
         double result = Math.pow(2, attempt.getNumber());
@@ -68,6 +68,9 @@ public class WebhookValidator {
         if (webhook.isHeartbeat() && SINGLE.name().equals(webhook.getBatch())) {
             throw new InvalidRequestException("{\"error\": \"SINGLE webhooks can not have a heartbeat'\"}");
         }
+        if (webhook.isInlinePayload() && !SINGLE.name().equals(webhook.getBatch())) {
+            throw new InvalidRequestException("{\"error\": \"inlinePayload is only allowed for SINGLE webhooks\"}");
+        }
         isValidCallbackTimeoutSeconds(webhook.getCallbackTimeoutSeconds());
         if (appProperties.getHubType().equals(aws.name())) {
             if (webhook.getCallbackUrl().toLowerCase().contains("localhost")) {
@@ -0,0 +1,282 @@
+package com.flightstats.hub.webhook.error;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.flightstats.hub.app.HubServices;
+import com.flightstats.hub.config.properties.WebhookProperties;
+import com.flightstats.hub.util.SafeZooKeeperUtils;
+import com.flightstats.hub.util.TimeUtil;
+import com.google.common.util.concurrent.AbstractScheduledService;
+import com.google.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import javax.inject.Inject;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.flightstats.hub.app.HubServices.register;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Keeps the recent errors for each webhook in a bounded ring on the node which is adding them,
+ * and writes the whole ring to a single ZooKeeper node when it has changed, at most once per flush interval.
+ * A callback outage costs one ZooKeeper write per webhook per interval, rather than a node per error.
+ * <p>
+ * Other nodes read the replicated ring.  A ring which hasn't changed for a while is dropped locally,
+ * so a node which lost leadership of a webhook goes back to reading what the new leader wrote.
+ * <p>
+ * Errors left under /GroupError by {@link WebhookErrorRepository} are moved into the ring when it is read,
+ * and any which remain are moved once the node has started.
+ */
+@Singleton
+@Slf4j
+public class ReplicatedWebhookErrorStore implements WebhookErrorStore {
+    private static final String BASE_PATH = "/WebhookErrors";
+
+    private final ConcurrentMap<String, Ring> rings = new ConcurrentHashMap<>();
+    private final SafeZooKeeperUtils zooKeeperUtils;
+    private final ObjectMapper objectMapper;
+    private final WebhookErrorRepository.ErrorNodeNameGenerator errorNameGenerator;
+    private final WebhookErrorRepository legacyStore;
+    private final long localMillis;
+    private volatile boolean legacyMigrated;
+
+    @Inject
+    public ReplicatedWebhookErrorStore(SafeZooKeeperUtils zooKeeperUtils,
+                                       ObjectMapper objectMapper,
+                                       WebhookErrorRepository.ErrorNodeNameGenerator errorNameGenerator,
+                                       WebhookErrorRepository legacyStore,
+                                       WebhookProperties webhookProperties) {
+        this.zooKeeperUtils = zooKeeperUtils;
+        this.objectMapper = objectMapper;
+        this.errorNameGenerator = errorNameGenerator;
+        this.legacyStore = legacyStore;
+        this.localMillis = TimeUnit.SECONDS.toMillis(webhookProperties.getErrorsLocalSeconds());
+        register(new ErrorFlushService(webhookProperties.getErrorsFlushSeconds()), HubServices.TYPE.AFTER_HEALTHY_START);
+    }
+
+    @Override
+    public void add(String webhook, String error) {
+        Ring ring = rings.get(webhook);
+        if (ring == null) {
+            List<WebhookError> initial = read(webhook);
+            ring = rings.computeIfAbsent(webhook, name -> new Ring(initial));
+        }
+        ring.add(WebhookError.builder()
+                        .name(errorNameGenerator.generateName())
+                        .creationTime(TimeUtil.now())
+                        .data(error)
+                        .build());
+    }
+
+    @Override
+    public List<WebhookError> getErrors(String webhook) {
+        Ring ring = rings.get(webhook);
+        if (ring != null) {
+            if (!ring.isExpired()) {
+                return ring.getErrors();
+            }
+            rings.remove(webhook, ring);
+        }
+        return read(webhook);
+    }
+
+    @Override
+    public void delete(String webhook, String errorId) {
+        Ring ring = rings.remove(webhook);
+        List<WebhookError> errors = ring != null ? ring.discard() : read(webhook);
+        if (errors.removeIf(error -> error.getName().equals(errorId)) || ring != null) {
+            write(webhook, errors);
+        }
+    }
+
+    @Override
+    public void deleteWebhook(String webhook) {
+        log.debug("deleting webhook errors for {}", webhook);
+        Ring ring = rings.remove(webhook);
+        if (ring != null) {
+            ring.discard();
+        }
+        zooKeeperUtils.deletePathAndChildren(BASE_PATH, webhook);
+        legacyStore.deleteWebhook(webhook);
+    }
+
+    void flush() {
+        rings.forEach((webhook, ring) -> {
+            if (!ring.flush(webhook)) {
+                rings.remove(webhook, ring);
+            }
+        });
+    }
+
+    void migrateLegacyErrors() {
+        for (String webhook : legacyStore.getWebhooks()) {
+            if (!zooKeeperUtils.getData(BASE_PATH, webhook).isPresent()) {
+                migrate(webhook);
+            }
+            legacyStore.deleteWebhook(webhook);
+        }
+        legacyMigrated = true;
+    }
+
+    private List<WebhookError> read(String webhook) {
+        Optional<String> json = zooKeeperUtils.getData(BASE_PATH, webhook);
+        if (json.isPresent()) {
+            return parse(json.get());
+        }
+        return legacyMigrated ? new ArrayList<>() : migrate(webhook);
+    }
+
+    private List<WebhookError> migrate(String webhook) {
+        List<WebhookError> errors = legacyStore.getErrors(webhook).stream()
+                .sorted(Comparator.comparing(WebhookError::getCreationTime))
+                .collect(toList());
+        if (errors.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<WebhookError> newest = new ArrayList<>(errors.subList(Math.max(0, errors.size() - WebhookErrorPruner.MAX_SIZE), errors.size()));
+        log.info("migrating {} errors for webhook {}", newest.size(), webhook);
+        write(webhook, newest);
+        legacyStore.deleteWebhook(webhook);
+        return newest;
+    }
+
+    private List<WebhookError> parse(String json) {
+        List<WebhookError> errors = new ArrayList<>();
+        try {
+            for (JsonNode node : objectMapper.readTree(json)) {
+                errors.add(WebhookError.builder()
+                        .name(node.get("name").asText())
+                        .creationTime(new DateTime(node.get("creationTime").asLong(), DateTimeZone.UTC))
+                        .data(node.get("data").asText())
+                        .build());
+            }
+        } catch (Exception e) {
+            log.warn("unable to parse webhook errors {}", json, e);
+        }
+        return errors;
+    }
+
+    private void write(String webhook, List<WebhookError> errors) {
+        ArrayNode array = objectMapper.createArrayNode();
+        for (WebhookError error : errors) {
+            array.addObject()
+                    .put("name", error.getName())
+                    .put("creationTime", error.getCreationTime().getMillis())
+                    .put("data", error.getData());
+        }
+        zooKeeperUtils.setData(array.toString().getBytes(StandardCharsets.UTF_8), BASE_PATH, webhook);
+    }
+
+    private class Ring {
+        private final Deque<WebhookError> errors;
+        private boolean dirty;
+        private boolean discarded;
+        private long touched = System.currentTimeMillis();
+
+        Ring(List<WebhookError> initial) {
+            errors = new ArrayDeque<>(initial);
+            trim();
+        }
+
+        synchronized void add(WebhookError error) {
+            if (discarded) {
+                return;
+            }
+            errors.addLast(error);
+            trim();
+            dirty = true;
+            touched = System.currentTimeMillis();
+        }
+
+        synchronized List<WebhookError> getErrors() {
+            return new ArrayList<>(errors);
+        }
+
+        /**
+         * Writes the errors if they have changed.  This holds the lock while writing, so a discarded ring
+         * can't be written after the node has been deleted.
+         *
+         * @return false if the ring should be dropped
+         */
+        synchronized boolean flush(String webhook) {
+            if (discarded) {
+                return false;
+            }
+            if (dirty) {
+                dirty = false;
+                write(webhook, new ArrayList<>(errors));
+                return true;
+            }
+            return !isExpired();
+        }
+
+        /**
+         * Stops the ring from being changed or written again.
+         *
+         * @return the errors it held
+         */
+        synchronized List<WebhookError> discard() {
+            discarded = true;
+            dirty = false;
+            return new ArrayList<>(errors);
+        }
+
+        synchronized boolean isExpired() {
+            return !dirty && System.currentTimeMillis() - touched > localMillis;
+        }
+
+        private void trim() {
+            while (errors.size() > WebhookErrorPruner.MAX_SIZE) {
+                errors.removeFirst();
+            }
+        }
+    }
+
+    private class ErrorFlushService extends AbstractScheduledService {
+        private final int flushSeconds;
+
+        ErrorFlushService(int flushSeconds) {
+            this.flushSeconds = flushSeconds;
+        }
+
+        @Override
+        protected void startUp() {
+            try {
+                migrateLegacyErrors();
+            } catch (Exception e) {
+                log.warn("unable to migrate webhook errors", e);
+            }
+        }
+
+        @Override
+        protected void runOneIteration() {
+            try {
+                flush();
+            } catch (Exception e) {
+                log.warn("unable to flush webhook errors", e);
+            }
+        }
+
+        @Override
+        protected void shutDown() {
+            flush();
+        }
+
+        @Override
+        protected Scheduler scheduler() {
+            return Scheduler.newFixedDelaySchedule(flushSeconds, flushSeconds, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -12,14 +12,14 @@ import java.util.stream.IntStream;
 import static java.util.stream.Collectors.toList;
 
 public class WebhookErrorPruner {
-    private static final int MAX_SIZE = 10;
+    static final int MAX_SIZE = 10;
     private static final Duration MAX_AGE = Duration.ofDays(1);
 
-    private final WebhookErrorRepository webhookErrorRepository;
+    private final WebhookErrorStore webhookErrorStore;
 
     @Inject
-    public WebhookErrorPruner(WebhookErrorRepository webhookErrorRepository) {
-        this.webhookErrorRepository = webhookErrorRepository;
+    public WebhookErrorPruner(WebhookErrorStore webhookErrorStore) {
+        this.webhookErrorStore = webhookErrorStore;
     }
 
     public List<WebhookError> pruneErrors(String webhook, List<WebhookError> errors) {
@@ -28,7 +28,7 @@ public class WebhookErrorPruner {
                 .collect(toList());
         List<WebhookError> errorsToRemove = getErrorsToRemove(errorsOrderByCreation);
 
-        errorsToRemove.forEach(error -> webhookErrorRepository.delete(webhook, error.getName()));
+        errorsToRemove.forEach(error -> webhookErrorStore.delete(webhook, error.getName()));
 
         return errorsToRemove;
     }
@@ -15,8 +15,11 @@ import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
 
+/**
+ * Stores each error as its own ZooKeeper node.
+ */
 @Slf4j
-public class WebhookErrorRepository {
+public class WebhookErrorRepository implements WebhookErrorStore {
     private static final String BASE_PATH = "/GroupError";
 
     private final SafeZooKeeperUtils zooKeeperUtils;
@@ -28,15 +31,18 @@ public class WebhookErrorRepository {
         this.errorNameGenerator = errorNameGenerator;
     }
 
+    @Override
     public void add(String webhook, String error) {
         zooKeeperUtils.createData(error.getBytes(), BASE_PATH, webhook, errorNameGenerator.generateName());
     }
 
+    @Override
     public void deleteWebhook(String webhook) {
         log.debug("deleting webhook errors for {}", webhook);
         zooKeeperUtils.deletePathAndChildren(BASE_PATH, webhook);
     }
 
+    @Override
     public void delete(String webhook, String errorId) {
         zooKeeperUtils.deletePathInBackground(BASE_PATH, webhook, errorId);
     }
@@ -45,6 +51,7 @@ public class WebhookErrorRepository {
         return new HashSet<>(zooKeeperUtils.getChildren(BASE_PATH));
     }
 
+    @Override
     public List<WebhookError> getErrors(String webhook) {
         return zooKeeperUtils.getChildren(BASE_PATH, webhook).stream()
                 .map(child -> zooKeeperUtils.getDataWithStat(BASE_PATH, webhook, child)
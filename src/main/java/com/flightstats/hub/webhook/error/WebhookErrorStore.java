@@ -0,0 +1,14 @@
+package com.flightstats.hub.webhook.error;
+
+import java.util.List;
+
+public interface WebhookErrorStore {
+
+    void add(String webhook, String error);
+
+    List<WebhookError> getErrors(String webhook);
+
+    void delete(String webhook, String errorId);
+
+    void deleteWebhook(String webhook);
+}
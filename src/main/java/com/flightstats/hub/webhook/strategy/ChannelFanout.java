@@ -0,0 +1,218 @@
+package com.flightstats.hub.webhook.strategy;
+
+import com.flightstats.hub.dao.aws.ContentRetriever;
+import com.flightstats.hub.exception.NoSuchChannelException;
+import com.flightstats.hub.model.ContentKey;
+import com.flightstats.hub.model.MinutePath;
+import com.flightstats.hub.model.TimeQuery;
+import com.flightstats.hub.util.RuntimeInterruptedException;
+import com.flightstats.hub.util.TimeUtil;
+import com.flightstats.hub.webhook.strategy.ChannelSubscriber.Reason;
+import com.google.common.base.Suppliers;
+import lombok.extern.slf4j.Slf4j;
+import org.joda.time.DateTime;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Follows one channel for all of the local subscribers on it.
+ * Live subscribers share a single cursor, so each stable bucket is read once, and each payload is loaded
+ * at most once, for every subscriber.
+ * Subscribers which start in the past follow their own cursor until they reach the shared one.
+ * A live subscriber which can't keep up with the channel is closed rather than buffered without limit.
+ */
+@Slf4j
+class ChannelFanout<T> implements Runnable {
+
+    private final String channel;
+    private final ContentRetriever contentRetriever;
+    private final ChannelKeyFeed channelKeyFeed;
+    private final Function<ContentKey, T> loader;
+    private final Predicate<ChannelFanout<T>> release;
+    private final QueryGenerator queryGenerator;
+
+    private final Queue<ChannelSubscriber<T>> pending = new ConcurrentLinkedQueue<>();
+    private final Map<ChannelSubscriber<T>, Cursor> catchingUp = new ConcurrentHashMap<>();
+    private final Map<ChannelSubscriber<T>, Cursor> live = new ConcurrentHashMap<>();
+
+    ChannelFanout(String channel,
+                  ContentRetriever contentRetriever,
+                  ChannelKeyFeed channelKeyFeed,
+                  Function<ContentKey, T> loader,
+                  Predicate<ChannelFanout<T>> release) {
+        this.channel = channel;
+        this.contentRetriever = contentRetriever;
+        this.channelKeyFeed = channelKeyFeed;
+        this.loader = loader;
+        this.release = release;
+        this.queryGenerator = new QueryGenerator(TimeUtil.stable(), channel);
+    }
+
+    String getChannel() {
+        return channel;
+    }
+
+    void add(ChannelSubscriber<T> subscriber) {
+        pending.add(subscriber);
+    }
+
+    void remove(ChannelSubscriber<T> subscriber) {
+        pending.remove(subscriber);
+        catchingUp.remove(subscriber);
+        live.remove(subscriber);
+    }
+
+    boolean isEmpty() {
+        return pending.isEmpty() && catchingUp.isEmpty() && live.isEmpty();
+    }
+
+    @Override
+    public void run() {
+        log.debug("starting fanout for {}", channel);
+        while (!(isEmpty() && release.test(this))) {
+            try {
+                if (!doWork()) {
+                    long untilStable = TimeUtil.stableMillis(queryGenerator.getLastQueryTime()) - System.currentTimeMillis();
+                    Thread.sleep(Math.max(10, Math.min(1000, untilStable)));
+                }
+            } catch (NoSuchChannelException e) {
+                log.info("closing subscribers for missing channel {}", channel);
+                closeAll(Reason.NO_SUCH_CHANNEL);
+            } catch (InterruptedException | RuntimeInterruptedException e) {
+                log.info("interrupted fanout for {}", channel);
+                closeAll(Reason.SHUTDOWN);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("unexpected issue with fanout for {}", channel, e);
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException ie) {
+                    closeAll(Reason.SHUTDOWN);
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        log.debug("stopped fanout for {}", channel);
+    }
+
+    private boolean doWork() {
+        addPending();
+        boolean worked = catchUp();
+        DateTime latestStableInChannel = TimeUtil.stable();
+        if (!contentRetriever.isLiveChannel(channel)) {
+            latestStableInChannel = contentRetriever.getLastUpdated(channel, MinutePath.NONE).getTime();
+        }
+        TimeQuery timeQuery = queryGenerator.getQuery(latestStableInChannel);
+        if (timeQuery == null) {
+            return worked;
+        }
+        Collection<ContentKey> keys = channelKeyFeed.queryByTime(timeQuery);
+        removeClosed();
+        for (ContentKey key : keys) {
+            Supplier<T> payload = Suppliers.memoize(() -> loader.apply(key));
+            live.forEach((subscriber, cursor) -> {
+                if (!cursor.offer(subscriber, key, payload)) {
+                    log.info("closing slow subscriber on {}", channel);
+                    live.remove(subscriber);
+                    subscriber.close(Reason.SLOW_CONSUMER);
+                }
+            });
+        }
+        if (queryGenerator.getLastQueryTime().getSecondOfMinute() == 0) {
+            live.keySet().forEach(ChannelSubscriber::heartbeat);
+        }
+        return true;
+    }
+
+    private void addPending() {
+        ChannelSubscriber<T> subscriber;
+        while ((subscriber = pending.poll()) != null) {
+            Cursor cursor = new Cursor(subscriber.getStartingKey());
+            DateTime startTime = cursor.lastQueued.getTime();
+            if (startTime.isBefore(queryGenerator.getLastQueryTime())) {
+                cursor.catchUp = new QueryGenerator(startTime, channel);
+                catchingUp.put(subscriber, cursor);
+            } else {
+                live.put(subscriber, cursor);
+            }
+        }
+    }
+
+    /**
+     * Moves each catching up subscriber forward by at most one query, until it reaches the shared cursor.
+     * If the buffer fills, the subscriber resumes from the last key it queued.
+     */
+    private boolean catchUp() {
+        boolean worked = false;
+        DateTime sharedTime = queryGenerator.getLastQueryTime();
+        for (Map.Entry<ChannelSubscriber<T>, Cursor> entry : catchingUp.entrySet()) {
+            ChannelSubscriber<T> subscriber = entry.getKey();
+            Cursor cursor = entry.getValue();
+            if (!subscriber.isOpen()) {
+                remove(subscriber);
+            } else if (!cursor.catchUp.getLastQueryTime().isBefore(sharedTime)) {
+                cursor.catchUp = null;
+                catchingUp.remove(subscriber);
+                live.put(subscriber, cursor);
+            } else if (subscriber.hasCapacityForCatchUp()) {
+                TimeQuery timeQuery = cursor.catchUp.getQuery(sharedTime);
+                if (timeQuery != null) {
+                    for (ContentKey key : channelKeyFeed.queryByTime(timeQuery)) {
+                        if (!cursor.offer(subscriber, key, Suppliers.memoize(() -> loader.apply(key)))) {
+                            cursor.catchUp = new QueryGenerator(cursor.lastQueued.getTime(), channel);
+                            break;
+                        }
+                    }
+                }
+                worked = true;
+            }
+        }
+        return worked;
+    }
+
+    private void removeClosed() {
+        live.keySet().removeIf(subscriber -> !subscriber.isOpen());
+    }
+
+    private void closeAll(Reason reason) {
+        addPending();
+        for (ChannelSubscriber<T> subscriber : catchingUp.keySet()) {
+            remove(subscriber);
+            subscriber.close(reason);
+        }
+        for (ChannelSubscriber<T> subscriber : live.keySet()) {
+            remove(subscriber);
+            subscriber.close(reason);
+        }
+    }
+
+    private class Cursor {
+
+        private ContentKey lastQueued;
+        private QueryGenerator catchUp;
+
+        Cursor(ContentKey startingKey) {
+            this.lastQueued = startingKey;
+        }
+
+        boolean offer(ChannelSubscriber<T> subscriber, ContentKey key, Supplier<T> payload) {
+            if (key.compareTo(lastQueued) <= 0) {
+                return true;
+            }
+            if (!subscriber.offer(key, payload)) {
+                return false;
+            }
+            lastQueued = key;
+            return true;
+        }
+    }
+}
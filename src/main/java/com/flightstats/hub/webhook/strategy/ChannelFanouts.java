@@ -0,0 +1,68 @@
+package com.flightstats.hub.webhook.strategy;
+
+import com.flightstats.hub.dao.aws.ContentRetriever;
+import com.flightstats.hub.model.ContentKey;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+
+/**
+ * Serves local subscribers from one {@link ChannelFanout} thread per channel,
+ * which is started by the first subscriber and stops after the last one leaves.
+ */
+@Slf4j
+public class ChannelFanouts<T> {
+
+    private final ConcurrentMap<String, ChannelFanout<T>> channels = new ConcurrentHashMap<>();
+    private final ExecutorService executorService;
+    private final ContentRetriever contentRetriever;
+    private final ChannelKeyFeed channelKeyFeed;
+    private final BiFunction<String, ContentKey, T> loader;
+
+    /**
+     * @param loader loads the payload for a channel and key, it is called at most once per key for live subscribers
+     */
+    public ChannelFanouts(String name,
+                          ContentRetriever contentRetriever,
+                          ChannelKeyFeed channelKeyFeed,
+                          BiFunction<String, ContentKey, T> loader) {
+        this.contentRetriever = contentRetriever;
+        this.channelKeyFeed = channelKeyFeed;
+        this.loader = loader;
+        this.executorService = Executors.newCachedThreadPool(
+                new ThreadFactoryBuilder().setNameFormat(name + "-fanout-%d").setDaemon(true).build());
+    }
+
+    public void subscribe(String channel, ChannelSubscriber<T> subscriber) {
+        channels.compute(channel.toLowerCase(), (key, fanout) -> {
+            if (fanout == null) {
+                fanout = new ChannelFanout<>(channel, contentRetriever, channelKeyFeed,
+                        contentKey -> loader.apply(channel, contentKey), this::release);
+                executorService.submit(fanout);
+            }
+            fanout.add(subscriber);
+            return fanout;
+        });
+    }
+
+    public void unsubscribe(String channel, ChannelSubscriber<T> subscriber) {
+        ChannelFanout<T> fanout = channels.get(channel.toLowerCase());
+        if (fanout != null) {
+            fanout.remove(subscriber);
+        }
+    }
+
+    /**
+     * @return true if the fanout was removed and should stop
+     */
+    private boolean release(ChannelFanout<T> fanout) {
+        String key = fanout.getChannel().toLowerCase();
+        channels.computeIfPresent(key, (name, current) -> current == fanout && fanout.isEmpty() ? null : current);
+        return channels.get(key) != fanout;
+    }
+}
@@ -0,0 +1,162 @@
+package com.flightstats.hub.webhook.strategy;
+
+import com.flightstats.hub.config.properties.WebhookProperties;
+import com.flightstats.hub.dao.SortedKeySet;
+import com.flightstats.hub.dao.aws.ContentRetriever;
+import com.flightstats.hub.model.ContentKey;
+import com.flightstats.hub.model.TimeQuery;
+import com.flightstats.hub.util.TimeUtil;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import org.joda.time.DateTime;
+
+import javax.inject.Inject;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shares the time bucket queries of every webhook on a channel which is led by this node.
+ * Webhooks only query buckets which are before the stable time, so the keys for a bucket don't change.
+ * The first webhook to reach a bucket performs the query, concurrent webhooks wait for that result,
+ * and later webhooks reuse it while it is cached.  Each webhook keeps its own cursor and queue,
+ * so a slow webhook only holds back itself.
+ * <p>
+ * Inserts to a channel are pushed in through {@link #inserted(String, long)}, which lets an idle webhook
+ * wake at the moment the bucket holding the new item becomes stable, rather than polling for it.
+ * <p>
+ * A webhook which is behind can {@link #prefetch(Collection)} the buckets ahead of it, so catching up
+ * is limited by how fast the callbacks take items rather than by the latency of each query.
+ */
+@Singleton
+@Slf4j
+public class ChannelKeyFeed {
+
+    private final ContentRetriever contentRetriever;
+    private final Cache<TimeQuery, SortedSet<ContentKey>> buckets;
+    private final ConcurrentMap<String, AtomicLong> newestInserts = new ConcurrentHashMap<>();
+    private final boolean insertNotifyEnabled;
+    private final long backstopMillis;
+    private final int lookahead;
+    private final ExecutorService prefetchExecutor;
+
+    @Inject
+    public ChannelKeyFeed(ContentRetriever contentRetriever, WebhookProperties webhookProperties) {
+        this.contentRetriever = contentRetriever;
+        this.buckets = CacheBuilder.newBuilder()
+                .maximumSize(webhookProperties.getChannelFeedMaxBuckets())
+                .expireAfterWrite(webhookProperties.getChannelFeedTtlSeconds(), TimeUnit.SECONDS)
+                .build();
+        this.insertNotifyEnabled = webhookProperties.isInsertNotifyEnabled();
+        this.backstopMillis = webhookProperties.getInsertNotifyBackstopMillis();
+        this.lookahead = webhookProperties.getChannelFeedLookahead();
+        this.prefetchExecutor = Executors.newFixedThreadPool(Math.max(1, webhookProperties.getChannelFeedLookaheadThreads()),
+                new ThreadFactoryBuilder().setNameFormat("channel-feed-%d").setDaemon(true).build());
+    }
+
+    public SortedSet<ContentKey> queryByTime(TimeQuery query) {
+        if (query == null) {
+            return Collections.emptySortedSet();
+        }
+        TimeQuery bucket = query.withChannelName(query.getChannelName().toLowerCase());
+        try {
+            return buckets.get(bucket, () -> {
+                log.trace("querying {}", bucket);
+                return Collections.unmodifiableSortedSet(contentRetriever.queryByTime(query));
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * @return how many buckets ahead of its current one a webhook should prefetch, zero disables prefetching
+     */
+    int getLookahead() {
+        return lookahead;
+    }
+
+    /**
+     * Loads the buckets in the background.  A later {@link #queryByTime(TimeQuery)} for one of these buckets
+     * uses the cached result, or waits for the load which is already in flight.
+     */
+    void prefetch(Collection<TimeQuery> queries) {
+        for (TimeQuery query : queries) {
+            prefetchExecutor.submit(() -> {
+                try {
+                    queryByTime(query);
+                } catch (Exception e) {
+                    log.debug("unable to prefetch {} {}", query, e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Loads a catch up bucket in the background without caching it, since an hour of keys is too large to share.
+     */
+    CompletableFuture<SortedKeySet> loadHour(TimeQuery query) {
+        return CompletableFuture.supplyAsync(() -> SortedKeySet.of(contentRetriever.queryByTime(query)), prefetchExecutor);
+    }
+
+    public void inserted(String channel, long millis) {
+        AtomicLong newest = getNewest(channel);
+        if (newest.accumulateAndGet(millis, Math::max) == millis) {
+            synchronized (newest) {
+                newest.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits for an insert at or after nextQueryTime, then until the bucket at nextQueryTime is stable.
+     * Without an insert, this returns after the backstop interval so the caller can still poll.
+     *
+     * @return the newest insert time seen, to be passed back in as lastNotified
+     */
+    long awaitInsert(String channel, DateTime nextQueryTime, long lastNotified) throws InterruptedException {
+        if (!insertNotifyEnabled) {
+            Thread.sleep(backstopMillis);
+            return lastNotified;
+        }
+        AtomicLong newest = getNewest(channel);
+        long threshold = Math.max(lastNotified, nextQueryTime.getMillis() - 1);
+        long deadline = System.currentTimeMillis() + backstopMillis;
+        synchronized (newest) {
+            long remaining = backstopMillis;
+            while (newest.get() <= threshold && remaining > 0) {
+                newest.wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+        }
+        long notified = newest.get();
+        if (notified <= threshold) {
+            return lastNotified;
+        }
+        long untilStable = TimeUtil.stableMillis(nextQueryTime) - System.currentTimeMillis();
+        if (untilStable > 0) {
+            log.trace("waiting {} ms for {} to be stable", untilStable, channel);
+            Thread.sleep(untilStable);
+        }
+        return notified;
+    }
+
+    private AtomicLong getNewest(String channel) {
+        return newestInserts.computeIfAbsent(channel.toLowerCase(), name -> new AtomicLong());
+    }
+
+}
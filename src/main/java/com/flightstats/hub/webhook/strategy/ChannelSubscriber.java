@@ -0,0 +1,39 @@
+package com.flightstats.hub.webhook.strategy;
+
+import com.flightstats.hub.model.ContentKey;
+
+import java.util.function.Supplier;
+
+/**
+ * A local client following a channel through {@link ChannelFanouts}.
+ * All of the calls from the fanout are made on the single thread following the channel,
+ * so implementations should buffer rather than block.
+ */
+public interface ChannelSubscriber<T> {
+
+    enum Reason {
+        SLOW_CONSUMER,
+        NO_SUCH_CHANNEL,
+        SHUTDOWN
+    }
+
+    ContentKey getStartingKey();
+
+    boolean isOpen();
+
+    /**
+     * @param payload is shared with the other subscribers for this key, and is only loaded if it is called
+     * @return false if the subscriber's buffer is full
+     */
+    boolean offer(ContentKey key, Supplier<T> payload);
+
+    /**
+     * Subscribers which are catching up only query while this is true, so they can't overrun their buffer.
+     */
+    boolean hasCapacityForCatchUp();
+
+    default void heartbeat() {
+    }
+
+    void close(Reason reason);
+}
@@ -17,28 +17,39 @@ public class QueryGenerator {
         this.channel = channel;
     }
 
-    TimeQuery getQuery(DateTime latestStableInChannel) {
+    public TimeQuery getQuery(DateTime latestStableInChannel) {
         log.trace("iterating last {} stable {} ", lastQueryTime, latestStableInChannel);
-        if (lastQueryTime.isBefore(latestStableInChannel)) {
-            TimeUtil.Unit unit = getStepUnit(latestStableInChannel);
-            Location location = Location.ALL;
-            if (unit.equals(TimeUtil.Unit.SECONDS)) {
-                location = Location.CACHE_WRITE;
-            } else if (unit.equals(TimeUtil.Unit.DAYS)) {
-                log.info("long term query unit={} lastQueryTime={}", unit, lastQueryTime);
-            }
-            TimeQuery query = TimeQuery.builder()
-                    .channelName(channel)
-                    .startTime(lastQueryTime)
-                    .unit(unit)
-                    .location(location)
-                    .epoch(Epoch.IMMUTABLE)
-                    .build();
-            lastQueryTime = unit.round(lastQueryTime.plus(unit.getDuration()));
-            return query;
-        } else {
+        TimeQuery query = peekQuery(latestStableInChannel);
+        if (query == null) {
             return null;
         }
+        TimeUtil.Unit unit = query.getUnit();
+        if (unit.equals(TimeUtil.Unit.DAYS)) {
+            log.info("long term query unit={} lastQueryTime={}", unit, lastQueryTime);
+        }
+        lastQueryTime = unit.round(lastQueryTime.plus(unit.getDuration()));
+        return query;
+    }
+
+    /**
+     * @return the query which the next call to getQuery will return, without moving forward
+     */
+    public TimeQuery peekQuery(DateTime latestStableInChannel) {
+        if (!lastQueryTime.isBefore(latestStableInChannel)) {
+            return null;
+        }
+        TimeUtil.Unit unit = getStepUnit(latestStableInChannel);
+        Location location = Location.ALL;
+        if (unit.equals(TimeUtil.Unit.SECONDS)) {
+            location = Location.CACHE_WRITE;
+        }
+        return TimeQuery.builder()
+                .channelName(channel)
+                .startTime(lastQueryTime)
+                .unit(unit)
+                .location(location)
+                .epoch(Epoch.IMMUTABLE)
+                .build();
     }
 
     private TimeUtil.Unit getStepUnit(DateTime latestStableInChannel) {
@@ -50,7 +61,7 @@ public class QueryGenerator {
         return TimeUtil.Unit.SECONDS;
     }
 
-    DateTime getLastQueryTime() {
+    public DateTime getLastQueryTime() {
         return lastQueryTime;
     }
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.flightstats.hub.cluster.ClusterCacheDao;
+import com.flightstats.hub.dao.SortedKeySet;
 import com.flightstats.hub.dao.aws.ContentRetriever;
 import com.flightstats.hub.exception.NoSuchChannelException;
 import com.flightstats.hub.metrics.ActiveTraces;
@@ -12,9 +13,9 @@ import com.flightstats.hub.model.ContentPath;
 import com.flightstats.hub.model.MinutePath;
 import com.flightstats.hub.model.TimeQuery;
 import com.flightstats.hub.util.RuntimeInterruptedException;
-import com.flightstats.hub.util.Sleeper;
 import com.flightstats.hub.util.TimeUtil;
 import com.flightstats.hub.webhook.Webhook;
+import com.google.common.base.Throwables;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.joda.time.DateTime;
@@ -24,6 +25,8 @@ import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
@@ -40,6 +43,7 @@ class SingleWebhookStrategy implements WebhookStrategy {
 
     private final ClusterCacheDao clusterCacheDao;
     private final ContentRetriever contentRetriever;
+    private final ChannelKeyFeed channelKeyFeed;
     private final ObjectMapper objectMapper;
     private final Webhook webhook;
 
@@ -47,13 +51,16 @@ class SingleWebhookStrategy implements WebhookStrategy {
     private QueryGenerator queryGenerator;
     private ExecutorService executorService;
     private String channel;
+    private volatile CompletableFuture<SortedKeySet> prefetchedHour;
 
     @Inject
     SingleWebhookStrategy(ContentRetriever contentRetriever,
+                          ChannelKeyFeed channelKeyFeed,
                           ClusterCacheDao clusterCacheDao,
                           ObjectMapper objectMapper,
                           Webhook webhook) {
         this.contentRetriever = contentRetriever;
+        this.channelKeyFeed = channelKeyFeed;
         this.clusterCacheDao = clusterCacheDao;
         this.objectMapper = objectMapper;
         this.webhook = webhook;
@@ -113,13 +120,15 @@ class SingleWebhookStrategy implements WebhookStrategy {
         executorService.submit(new Runnable() {
 
             ContentPath lastAdded = startingPath;
+            long lastNotified;
+            TimeQuery prefetchedQuery;
 
             @Override
             public void run() {
                 try {
                     while (!shouldExit.get()) {
                         if (!doWork()) {
-                            Sleeper.sleep(1000);
+                            lastNotified = channelKeyFeed.awaitInsert(channel, queryGenerator.getLastQueryTime(), lastNotified);
                         }
                     }
                 } catch (InterruptedException | RuntimeInterruptedException e) {
@@ -132,6 +141,8 @@ class SingleWebhookStrategy implements WebhookStrategy {
                 } catch (Exception e) {
                     exceptionReference.set(e);
                     log.error("unexpected issue with " + webhook.getName(), e);
+                } finally {
+                    cancelPrefetch();
                 }
             }
 
@@ -144,7 +155,13 @@ class SingleWebhookStrategy implements WebhookStrategy {
                     }
                     final TimeQuery timeQuery = queryGenerator.getQuery(latestStableInChannel);
                     if (timeQuery != null) {
-                        addKeys(contentRetriever.queryByTime(timeQuery));
+                        if (timeQuery.getUnit().equals(TimeUtil.Unit.HOURS)) {
+                            SortedKeySet keys = getHour(timeQuery);
+                            prefetchHour(queryGenerator.peekQuery(latestStableInChannel));
+                            addHour(keys);
+                        } else {
+                            addKeys(channelKeyFeed.queryByTime(timeQuery));
+                        }
                         if (webhook.isHeartbeat() && queryGenerator.getLastQueryTime().getSecondOfMinute() == 0) {
                             MinutePath minutePath = new MinutePath(queryGenerator.getLastQueryTime().minusMinutes(1));
                             log.debug("sending heartbeat {}", minutePath);
@@ -158,6 +175,42 @@ class SingleWebhookStrategy implements WebhookStrategy {
                 }
             }
 
+            /**
+             * When far behind, the next hour is loaded while this one drains into the queue.
+             */
+            private SortedKeySet getHour(TimeQuery timeQuery) throws InterruptedException {
+                CompletableFuture<SortedKeySet> hour = prefetchedHour;
+                if (!timeQuery.equals(prefetchedQuery)) {
+                    if (hour != null) {
+                        hour.cancel(false);
+                    }
+                    hour = channelKeyFeed.loadHour(timeQuery);
+                }
+                prefetchedQuery = null;
+                prefetchedHour = null;
+                try {
+                    return hour.get();
+                } catch (ExecutionException e) {
+                    Throwables.throwIfUnchecked(e.getCause());
+                    throw new RuntimeException(e.getCause());
+                }
+            }
+
+            private void prefetchHour(TimeQuery nextQuery) {
+                if (nextQuery != null && nextQuery.getUnit().equals(TimeUtil.Unit.HOURS)) {
+                    log.debug("prefetching {} {}", channel, nextQuery.getStartTime());
+                    prefetchedQuery = nextQuery;
+                    prefetchedHour = channelKeyFeed.loadHour(nextQuery);
+                }
+            }
+
+            private void addHour(SortedKeySet keys) throws InterruptedException {
+                log.debug("channel {} catching up {} keys", channel, keys.size());
+                for (ContentKey key : keys) {
+                    addKey(key);
+                }
+            }
+
             private void addKeys(Collection<ContentKey> keys) throws InterruptedException {
                 log.debug("channel {} keys {}", channel, keys);
                 if (log.isTraceEnabled()) {
@@ -180,5 +233,13 @@ class SingleWebhookStrategy implements WebhookStrategy {
     @Override
     public void close() {
         WebhookStrategy.close(shouldExit, executorService, queue);
+        cancelPrefetch();
+    }
+
+    private void cancelPrefetch() {
+        CompletableFuture<SortedKeySet> hour = prefetchedHour;
+        if (hour != null) {
+            hour.cancel(false);
+        }
     }
 }
@@ -52,6 +52,7 @@ class TimedWebhookStrategy implements WebhookStrategy {
     private AtomicBoolean shouldExit = new AtomicBoolean(false);
 
     private final ContentRetriever contentRetriever;
+    private final ChannelKeyFeed channelKeyFeed;
     private final ClusterCacheDao clusterCacheDao;
     private final ObjectMapper objectMapper;
     private final Webhook webhook;
@@ -72,11 +73,13 @@ class TimedWebhookStrategy implements WebhookStrategy {
     private Duration duration;
 
     TimedWebhookStrategy(ContentRetriever contentRetriever,
+                         ChannelKeyFeed channelKeyFeed,
                          ClusterCacheDao clusterCacheDao,
                          ObjectMapper objectMapper,
                          Webhook webhook) {
         this.webhook = webhook;
         this.contentRetriever = contentRetriever;
+        this.channelKeyFeed = channelKeyFeed;
         this.clusterCacheDao = clusterCacheDao;
         this.objectMapper = objectMapper;
 
@@ -190,6 +193,8 @@ class TimedWebhookStrategy implements WebhookStrategy {
                 }
             }
             ContentPath lastAdded = initialStartingPath;
+            DateTime prefetchedUntil;
+            TimeUtil.Unit prefetchedUnit;
 
             private void doWork() throws InterruptedException {
                 DateTime timeBeingWorkedOn = getNextTime();
@@ -201,6 +206,7 @@ class TimedWebhookStrategy implements WebhookStrategy {
                     log.debug("working on {} {}", channel, timeBeingWorkedOn);
                     try {
                         ActiveTraces.start("TimedWebhookStrategy.doWork", webhook);
+                        prefetch(timeBeingWorkedOn, stableTime);
                         Collection<ContentKey> keys = queryKeys(timeBeingWorkedOn)
                                 .stream()
                                 .filter(key -> key.compareTo(lastAdded) > 0)
@@ -219,6 +225,29 @@ class TimedWebhookStrategy implements WebhookStrategy {
                 }
             }
 
+            /**
+             * Starts loading the stable periods after the current one, so the queries overlap with the callbacks.
+             */
+            private void prefetch(DateTime timeBeingWorkedOn, DateTime stableTime) {
+                if (prefetchedUnit != unit) {
+                    prefetchedUnit = unit;
+                    prefetchedUntil = null;
+                }
+                List<TimeQuery> queries = new ArrayList<>();
+                DateTime next = unit.round(timeBeingWorkedOn);
+                for (int i = 0; i < channelKeyFeed.getLookahead(); i++) {
+                    next = getNextTime.apply(next);
+                    if (!next.isBefore(stableTime)) {
+                        break;
+                    }
+                    if (prefetchedUntil == null || next.isAfter(prefetchedUntil)) {
+                        queries.add(buildQuery(next));
+                        prefetchedUntil = next;
+                    }
+                }
+                channelKeyFeed.prefetch(queries);
+            }
+
             private DateTime getStableTime() {
                 DateTime defaultStableTime = TimeUtil.stable().minus(duration);
                 if (!contentRetriever.isLiveChannel(channel)) {
@@ -254,14 +283,17 @@ class TimedWebhookStrategy implements WebhookStrategy {
     }
 
     private Collection<ContentKey> queryKeys(DateTime time) {
-        TimeQuery timeQuery = TimeQuery.builder()
+        return channelKeyFeed.queryByTime(buildQuery(time));
+    }
+
+    private TimeQuery buildQuery(DateTime time) {
+        return TimeQuery.builder()
                 .channelName(channel)
                 .startTime(time)
                 .unit(unit)
                 .stable(true)
                 .epoch(Epoch.IMMUTABLE)
                 .build();
-        return contentRetriever.queryByTime(timeQuery);
     }
 
     @Override
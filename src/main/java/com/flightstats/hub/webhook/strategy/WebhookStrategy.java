@@ -29,13 +29,14 @@ public interface WebhookStrategy extends AutoCloseable {
     }
 
     static WebhookStrategy getStrategy(ContentRetriever contentRetriever,
+                                       ChannelKeyFeed channelKeyFeed,
                                        ClusterCacheDao clusterCacheDao,
                                        ObjectMapper objectMapper,
                                        Webhook webhook) {
         if (webhook.isMinute() || webhook.isSecond()) {
-            return new TimedWebhookStrategy(contentRetriever, clusterCacheDao, objectMapper, webhook);
+            return new TimedWebhookStrategy(contentRetriever, channelKeyFeed, clusterCacheDao, objectMapper, webhook);
         }
-        return new SingleWebhookStrategy(contentRetriever, clusterCacheDao, objectMapper, webhook);
+        return new SingleWebhookStrategy(contentRetriever, channelKeyFeed, clusterCacheDao, objectMapper, webhook);
     }
 
     static void close(AtomicBoolean shouldExit, ExecutorService executorService, BlockingQueue queue) {
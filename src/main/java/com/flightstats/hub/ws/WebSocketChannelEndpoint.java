@@ -26,7 +26,7 @@ public class WebSocketChannelEndpoint {
 
     @OnOpen
     public void onOpen(Session session, @PathParam("channel") String channel) {
-        webSocketService.createCallback(session, channel);
+        webSocketService.subscribe(session, channel);
     }
 
     @OnError
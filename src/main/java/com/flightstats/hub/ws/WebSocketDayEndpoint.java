@@ -32,7 +32,7 @@ public class WebSocketDayEndpoint {
                        @PathParam("M") int month,
                        @PathParam("D") int day) {
         ContentKey startingKey = new ContentKey(year, month, day, 0, 0, 0, 0);
-        webSocketService.createCallback(session, channel, startingKey);
+        webSocketService.subscribe(session, channel, startingKey);
     }
 
     @OnError
@@ -37,7 +37,7 @@ public class WebSocketHashEndpoint {
                        @PathParam("ms") int millis,
                        @PathParam("hash") String hash) {
         ContentKey startingKey = new ContentKey(year, month, day, hour, minute, second, millis, hash);
-        webSocketService.createCallback(session, channel, startingKey);
+        webSocketService.subscribe(session, channel, startingKey);
     }
 
     @OnError
@@ -33,7 +33,7 @@ public class WebSocketHourEndpoint {
                        @PathParam("D") int day,
                        @PathParam("h") int hour) {
         ContentKey startingKey = new ContentKey(year, month, day, hour, 0, 0, 0);
-        webSocketService.createCallback(session, channel, startingKey);
+        webSocketService.subscribe(session, channel, startingKey);
     }
 
     @OnError
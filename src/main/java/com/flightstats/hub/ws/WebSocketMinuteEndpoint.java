@@ -34,7 +34,7 @@ public class WebSocketMinuteEndpoint {
                        @PathParam("h") int hour,
                        @PathParam("m") int minute) {
         ContentKey startingKey = new ContentKey(year, month, day, hour, minute, 0, 0);
-        webSocketService.createCallback(session, channel, startingKey);
+        webSocketService.subscribe(session, channel, startingKey);
     }
 
     @OnError
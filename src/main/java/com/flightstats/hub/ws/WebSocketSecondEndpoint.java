@@ -35,7 +35,7 @@ public class WebSocketSecondEndpoint {
                        @PathParam("m") int minute,
                        @PathParam("s") int second) {
         ContentKey startingKey = new ContentKey(year, month, day, hour, minute, second, 0);
-        webSocketService.createCallback(session, channel, startingKey);
+        webSocketService.subscribe(session, channel, startingKey);
     }
 
     @OnError
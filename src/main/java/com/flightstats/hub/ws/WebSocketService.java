@@ -1,51 +1,67 @@
 package com.flightstats.hub.ws;
 
 import com.flightstats.hub.config.properties.LocalHostProperties;
+import com.flightstats.hub.config.properties.WebSocketProperties;
+import com.flightstats.hub.dao.aws.ContentRetriever;
 import com.flightstats.hub.model.ContentKey;
-import com.flightstats.hub.util.StringUtils;
-import com.flightstats.hub.webhook.Webhook;
-import com.flightstats.hub.webhook.WebhookService;
+import com.flightstats.hub.webhook.strategy.ChannelFanouts;
+import com.flightstats.hub.webhook.strategy.ChannelKeyFeed;
+import com.google.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.inject.Inject;
+import javax.websocket.CloseReason;
 import javax.websocket.Session;
 import javax.ws.rs.core.UriBuilder;
 import java.io.IOException;
 import java.net.URI;
-import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * WebSocket sessions are served from this node, with one fanout per channel
+ * writing to all of the sessions on that channel.
+ */
+@Singleton
 @Slf4j
 public class WebSocketService {
 
-    private final Map<String, Session> sessionMap = new HashMap<>();
+    private static final String SUBSCRIBER = "subscriber";
+    private static final String CHANNEL = "channel";
 
-    private final WebhookService webhookService;
-    private LocalHostProperties localHostProperties;
+    private final ChannelFanouts<ContentKey> fanouts;
+    private final ContentRetriever contentRetriever;
+    private final LocalHostProperties localHostProperties;
+    private final WebSocketProperties webSocketProperties;
 
     @Inject
-    public WebSocketService(WebhookService webhookService, LocalHostProperties localHostProperties) {
-        this.webhookService = webhookService;
+    public WebSocketService(ContentRetriever contentRetriever,
+                            ChannelKeyFeed channelKeyFeed,
+                            LocalHostProperties localHostProperties,
+                            WebSocketProperties webSocketProperties) {
+        this.contentRetriever = contentRetriever;
         this.localHostProperties = localHostProperties;
+        this.webSocketProperties = webSocketProperties;
+        this.fanouts = new ChannelFanouts<>("ws", contentRetriever, channelKeyFeed, (channel, key) -> key);
     }
 
-    void createCallback(Session session, String channel) {
-        createCallback(session, channel, new ContentKey());
+    void subscribe(Session session, String channel) {
+        subscribe(session, channel, new ContentKey());
     }
 
-    void createCallback(Session session, String channel, ContentKey startingKey) {
-        String id = setId(session, channel);
+    void subscribe(Session session, String channel, ContentKey startingKey) {
+        if (!contentRetriever.isExistingChannel(channel)) {
+            log.debug("closing session for missing channel {}", channel);
+            close(session, new CloseReason(CloseReason.CloseCodes.CANNOT_ACCEPT, "no such channel"));
+            return;
+        }
         URI uri = session.getRequestURI();
-        log.debug("creating callback {} {} {}", channel, id, uri);
-        sessionMap.put(id, session);
-        Webhook webhook = Webhook.builder()
-                .channelUrl(getChannelUrl(uri))
-                .callbackUrl(getCallbackUrl(id))
-                .parallelCalls(1)
-                .name(id)
-                .startingKey(startingKey)
-                .build();
-        webhookService.upsert(webhook);
+        log.debug("subscribing {} {} {}", channel, session.getId(), uri);
+        WebSocketSubscriber subscriber = new WebSocketSubscriber(session, getChannelUrl(uri), startingKey,
+                webSocketProperties.getSessionBufferSize());
+        Map<String, Object> userProperties = session.getUserProperties();
+        userProperties.put(SUBSCRIBER, subscriber);
+        userProperties.put(CHANNEL, channel);
+        fanouts.subscribe(channel, subscriber);
     }
 
     private String getChannelUrl(URI uri) {
@@ -57,51 +73,20 @@ public class WebSocketService {
         return channelUrl.toString();
     }
 
-    private String getCallbackUrl(String id) {
-        return localHostProperties.getUriWithHostIp() + "/internal/ws/" + id;
-    }
-
-    private String setId(Session session, String channel) {
-        Map<String, Object> userProperties = session.getUserProperties();
-        String id = "WS_" + channel + "_" + System.currentTimeMillis() + "_" + StringUtils.randomAlphaNumeric(6);
-        userProperties.put("id", id);
-        return id;
-    }
-
-    private String getId(Session session) {
+    public void close(Session session) {
         Map<String, Object> userProperties = session.getUserProperties();
-        return (String) userProperties.get("id");
-    }
-
-    public void call(String id, String uri) {
-        Session session = sessionMap.get(id);
-        if (session == null) {
-            log.debug("attempting to send to missing session {} {}", id, uri);
-            close(id);
-            return;
-        }
-        try {
-            session.getBasicRemote().sendText(uri);
-        } catch (IOException e) {
-            log.warn("unable to send to session {}; uri: {}", id, uri, e.getMessage());
-            close(id);
-        } catch (Exception e) {
-            log.warn("unable to send to session {}; uri: {}", id, uri, e);
-            close(id);
+        WebSocketSubscriber subscriber = (WebSocketSubscriber) userProperties.remove(SUBSCRIBER);
+        if (subscriber != null) {
+            log.debug("unsubscribing {}", session.getId());
+            fanouts.unsubscribe((String) userProperties.get(CHANNEL), subscriber);
         }
     }
 
-    public void close(Session session) {
-        close(getId(session));
-    }
-
-    private void close(String id) {
+    private void close(Session session, CloseReason closeReason) {
         try {
-            log.debug("deleting ws group {}", id);
-            webhookService.delete(id);
-            sessionMap.remove(id);
-        } catch (Exception e) {
-            log.error("unable to close ws group {}", id, e);
+            session.close(closeReason);
+        } catch (IOException e) {
+            log.debug("unable to close session {} {}", session.getId(), e.getMessage());
         }
     }
 }
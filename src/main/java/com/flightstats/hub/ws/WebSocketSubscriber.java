@@ -0,0 +1,114 @@
+package com.flightstats.hub.ws;
+
+import com.flightstats.hub.model.ContentKey;
+import com.flightstats.hub.webhook.strategy.ChannelSubscriber;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.websocket.CloseReason;
+import javax.websocket.Session;
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * One WebSocket session on a channel.
+ * Item uris are written asynchronously from a bounded buffer, with one send in flight at a time.
+ */
+@Slf4j
+class WebSocketSubscriber implements ChannelSubscriber<ContentKey> {
+
+    private final Session session;
+    private final String channelUrl;
+    private final ContentKey startingKey;
+    private final int bufferSize;
+    private final BlockingQueue<String> buffer;
+    private final AtomicBoolean sending = new AtomicBoolean(false);
+
+    WebSocketSubscriber(Session session, String channelUrl, ContentKey startingKey, int bufferSize) {
+        this.session = session;
+        this.channelUrl = channelUrl;
+        this.startingKey = startingKey;
+        this.bufferSize = bufferSize;
+        this.buffer = new LinkedBlockingQueue<>(bufferSize);
+    }
+
+    @Override
+    public ContentKey getStartingKey() {
+        return startingKey;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return session.isOpen();
+    }
+
+    @Override
+    public boolean offer(ContentKey key, Supplier<ContentKey> payload) {
+        if (!buffer.offer(channelUrl + "/" + key.toUrl())) {
+            return false;
+        }
+        send();
+        return true;
+    }
+
+    @Override
+    public boolean hasCapacityForCatchUp() {
+        return buffer.remainingCapacity() > bufferSize / 2;
+    }
+
+    private void send() {
+        if (!sending.compareAndSet(false, true)) {
+            return;
+        }
+        String uri = buffer.poll();
+        if (uri == null) {
+            sending.set(false);
+            if (!buffer.isEmpty()) {
+                send();
+            }
+            return;
+        }
+        try {
+            session.getAsyncRemote().sendText(uri, result -> {
+                sending.set(false);
+                if (result.isOK()) {
+                    send();
+                } else {
+                    log.debug("unable to send to session {} {}", session.getId(), result.getException().getMessage());
+                    close(CloseReason.CloseCodes.UNEXPECTED_CONDITION, "send failed");
+                }
+            });
+        } catch (Exception e) {
+            sending.set(false);
+            log.debug("unable to send to session {} {}", session.getId(), e.getMessage());
+            close(CloseReason.CloseCodes.UNEXPECTED_CONDITION, "send failed");
+        }
+    }
+
+    @Override
+    public void close(Reason reason) {
+        switch (reason) {
+            case SLOW_CONSUMER:
+                close(CloseReason.CloseCodes.TRY_AGAIN_LATER, "slow consumer");
+                break;
+            case NO_SUCH_CHANNEL:
+                close(CloseReason.CloseCodes.CANNOT_ACCEPT, "no such channel");
+                break;
+            default:
+                close(CloseReason.CloseCodes.GOING_AWAY, "shutting down");
+        }
+    }
+
+    private void close(CloseReason.CloseCode code, String reason) {
+        buffer.clear();
+        try {
+            if (session.isOpen()) {
+                session.close(new CloseReason(code, reason));
+            }
+        } catch (IOException e) {
+            log.debug("unable to close session {} {}", session.getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.flightstats.hub.channel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightstats.hub.config.properties.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RenderedResponseCacheTest {
+
+    @Mock
+    private AppProperties appProperties;
+    @Mock
+    private Request request;
+
+    private RenderedResponseCache cache;
+    private final AtomicInteger renders = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        when(appProperties.getResponseCacheSize()).thenReturn(10);
+        cache = new RenderedResponseCache(new ObjectMapper(), appProperties);
+    }
+
+    @Test
+    void testCachedUntilVersionChanges() {
+        Response first = cache.get("key", 1L, request, () -> render("one"));
+        Response second = cache.get("key", 1L, request, () -> render("two"));
+        assertEquals(1, renders.get());
+        assertArrayEquals((byte[]) first.getEntity(), (byte[]) second.getEntity());
+        assertEquals(first.getEntityTag(), second.getEntityTag());
+
+        Response third = cache.get("key", 2L, request, () -> render("two"));
+        assertEquals(2, renders.get());
+        assertNotEquals(first.getEntityTag(), third.getEntityTag());
+    }
+
+    @Test
+    void testUncached() {
+        cache.get("key", null, request, () -> render("one"));
+        cache.get("key", null, request, () -> render("one"));
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void testNotModified() {
+        EntityTag entityTag = cache.get("key", 1L, request, () -> render("one")).getEntityTag();
+        when(request.evaluatePreconditions(eq(entityTag))).thenReturn(Response.notModified(entityTag));
+        Response response = cache.get("key", 1L, request, () -> render("one"));
+        assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), response.getStatus());
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void testSameTagAcrossCaches() {
+        EntityTag entityTag = cache.get("key", 1L, request, () -> render("one")).getEntityTag();
+        RenderedResponseCache other = new RenderedResponseCache(new ObjectMapper(), appProperties);
+        assertEquals(entityTag, other.get("key", 5L, request, () -> render("one")).getEntityTag());
+    }
+
+    private Object render(String value) {
+        renders.incrementAndGet();
+        return Collections.singletonMap("name", value);
+    }
+}
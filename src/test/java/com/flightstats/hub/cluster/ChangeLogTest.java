@@ -0,0 +1,54 @@
+package com.flightstats.hub.cluster;
+
+import com.google.common.primitives.Longs;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ChangeLogTest {
+
+    @Test
+    void testSince() {
+        ChangeLog changeLog = new ChangeLog(0, Collections.emptyList())
+                .add("one")
+                .add("two")
+                .add("three");
+        assertEquals(3, changeLog.getSequence());
+        assertEquals(Optional.of(Arrays.asList("one", "two", "three")), changeLog.since(0));
+        assertEquals(Optional.of(Arrays.asList("two", "three")), changeLog.since(1));
+        assertEquals(Optional.of(Collections.emptyList()), changeLog.since(3));
+        assertFalse(changeLog.since(4).isPresent());
+    }
+
+    @Test
+    void testTrimmed() {
+        ChangeLog changeLog = new ChangeLog(0, Collections.emptyList());
+        for (int i = 1; i <= ChangeLog.MAX_NAMES + 10; i++) {
+            changeLog = changeLog.add("name" + i);
+        }
+        assertFalse(changeLog.since(9).isPresent());
+        assertEquals(Optional.of(Collections.singletonList("name" + (ChangeLog.MAX_NAMES + 10))),
+                changeLog.since(ChangeLog.MAX_NAMES + 9));
+        assertEquals(ChangeLog.MAX_NAMES, changeLog.since(10).get().size());
+    }
+
+    @Test
+    void testBytes() {
+        ChangeLog changeLog = new ChangeLog(7, Collections.emptyList()).add("a").add("b");
+        ChangeLog parsed = ChangeLog.fromBytes(changeLog.toBytes()).get();
+        assertEquals(9, parsed.getSequence());
+        assertEquals(Optional.of(Arrays.asList("a", "b")), parsed.since(7));
+        assertEquals(Optional.of(Collections.emptyList()), ChangeLog.fromBytes(new ChangeLog(3, Collections.emptyList()).toBytes()).get().since(3));
+    }
+
+    @Test
+    void testTimestamp() {
+        assertFalse(ChangeLog.fromBytes(Longs.toByteArray(System.currentTimeMillis())).isPresent());
+        assertFalse(ChangeLog.fromBytes(null).isPresent());
+    }
+}
@@ -1,6 +1,8 @@
 package com.flightstats.hub.cluster;
 
 import com.flightstats.hub.config.properties.AppProperties;
+import com.flightstats.hub.config.properties.PropertiesLoader;
+import com.flightstats.hub.config.properties.ZooKeeperProperties;
 import com.flightstats.hub.model.ContentKey;
 import com.flightstats.hub.model.ContentPath;
 import com.flightstats.hub.model.MinutePath;
@@ -31,7 +33,7 @@ class ClusterCacheDaoTest {
     @BeforeAll
     void setUpClass() {
         curator = IntegrationTestSetup.run().getZookeeperClient();
-        clusterCacheDao = new ClusterCacheDao(curator, appProperties);
+        clusterCacheDao = new ClusterCacheDao(curator, appProperties, new ZooKeeperProperties(PropertiesLoader.getInstance()));
     }
 
     @Test
@@ -133,4 +135,26 @@ class ClusterCacheDaoTest {
         assertEquals(key2, clusterCacheDao.get(name, new ContentKey(), BASE_PATH));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testSetIfNewerFromAnotherServer() throws Exception {
+        String name = "testAnotherServer";
+        DateTime start = new DateTime(2014, 12, 3, 20, 45, DateTimeZone.UTC);
+        ClusterCacheDao otherServer = new ClusterCacheDao(curator, appProperties, new ZooKeeperProperties(PropertiesLoader.getInstance()));
+
+        ContentKey key1 = new ContentKey(start, "B");
+        clusterCacheDao.initialize(name, key1, BASE_PATH);
+        assertEquals(key1, clusterCacheDao.get(name, new ContentKey(), BASE_PATH));
+
+        ContentKey key2 = new ContentKey(start.plusMillis(2), "B");
+        otherServer.setIfNewer(key2, name, BASE_PATH);
+        ContentKey key3 = new ContentKey(start.plusMillis(1), "B");
+        clusterCacheDao.setIfNewer(key3, name, BASE_PATH);
+        assertEquals(key2, otherServer.get(name, new ContentKey(), BASE_PATH));
+
+        for (int i = 0; i < 50 && !key2.equals(clusterCacheDao.get(name, new ContentKey(), BASE_PATH)); i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(key2, clusterCacheDao.get(name, new ContentKey(), BASE_PATH));
+    }
+
+}
@@ -12,9 +12,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Arrays;
+import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
@@ -86,4 +89,29 @@ class WatchManagerTest {
         assertFalse(countDownLatch.await(1, TimeUnit.SECONDS));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testChangeLog() throws Exception {
+        final CountDownLatch countDownLatch = new CountDownLatch(2);
+
+        Watcher watcher = new Watcher() {
+            @Override
+            public void callback(CuratorEvent event) {
+                countDownLatch.countDown();
+            }
+
+            @Override
+            public String getPath() {
+                return "/testChangeLog";
+            }
+        };
+        watchManager.register(watcher);
+        watchManager.notifyWatcher(watcher.getPath(), "first");
+        long sequence = watchManager.getChangeLog(watcher.getPath()).get().getSequence();
+        watchManager.notifyWatcher(watcher.getPath(), "second");
+        watchManager.notifyWatcher(watcher.getPath(), "third");
+
+        assertEquals(Optional.of(Arrays.asList("second", "third")),
+                watchManager.getChangeLog(watcher.getPath()).get().since(sequence));
+        assertTrue(countDownLatch.await(1, TimeUnit.SECONDS));
+    }
+}
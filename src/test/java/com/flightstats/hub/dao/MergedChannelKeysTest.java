@@ -0,0 +1,67 @@
+package com.flightstats.hub.dao;
+
+import com.flightstats.hub.model.ChannelContentKey;
+import com.flightstats.hub.model.ContentKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MergedChannelKeysTest {
+
+    @Test
+    void testMatchesTreeSet() {
+        Random random = new Random(11);
+        MergedChannelKeys mergedKeys = new MergedChannelKeys();
+        TreeSet<ChannelContentKey> expected = new TreeSet<>();
+        for (int channel = 0; channel < 10; channel++) {
+            List<ContentKey> keys = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                ContentKey key = new ContentKey(1_500_000_000_000L + random.nextInt(500), "h" + random.nextInt(5));
+                keys.add(key);
+                expected.add(new ChannelContentKey("channel" + channel, key));
+            }
+            mergedKeys.add("channel" + channel, new TreeSet<>(keys));
+        }
+        assertEquals(expected.size(), mergedKeys.size());
+        List<ChannelContentKey> ascending = new ArrayList<>();
+        mergedKeys.forEach(ascending::add);
+        assertEquals(new ArrayList<>(expected), ascending);
+
+        List<ChannelContentKey> descending = new ArrayList<>();
+        mergedKeys.descending().forEach(descending::add);
+        List<ChannelContentKey> reversed = new ArrayList<>(expected);
+        Collections.reverse(reversed);
+        assertEquals(reversed, descending);
+    }
+
+    @Test
+    void testEmpty() {
+        MergedChannelKeys mergedKeys = new MergedChannelKeys();
+        mergedKeys.add("empty", Collections.emptyList());
+        assertTrue(mergedKeys.isEmpty());
+        assertEquals(Collections.emptyList(), toList(mergedKeys));
+    }
+
+    @Test
+    void testSameKeyInTwoChannels() {
+        ContentKey key = new ContentKey(1L, "A");
+        MergedChannelKeys mergedKeys = new MergedChannelKeys();
+        mergedKeys.add("b", Collections.singletonList(key));
+        mergedKeys.add("a", Collections.singletonList(key));
+        assertEquals(Arrays.asList(new ChannelContentKey("a", key), new ChannelContentKey("b", key)), toList(mergedKeys));
+    }
+
+    private List<ChannelContentKey> toList(Iterable<ChannelContentKey> keys) {
+        List<ChannelContentKey> list = new ArrayList<>();
+        keys.forEach(list::add);
+        return list;
+    }
+}
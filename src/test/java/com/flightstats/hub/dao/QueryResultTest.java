@@ -0,0 +1,29 @@
+package com.flightstats.hub.dao;
+
+import com.flightstats.hub.model.ContentKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.SortedSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryResultTest {
+
+    @Test
+    void testContentKeysAreACopy() {
+        ContentKey first = new ContentKey(1_500_000_000_000L, "a");
+        ContentKey second = new ContentKey(1_500_000_000_001L, "b");
+        QueryResult queryResult = new QueryResult(2);
+        queryResult.addKeys(Arrays.asList(second, first));
+
+        SortedSet<ContentKey> keys = queryResult.getContentKeys();
+        keys.clear();
+
+        queryResult.addKeys(Collections.singletonList(second));
+        assertEquals(Arrays.asList(first, second), Arrays.asList(queryResult.getContentKeys().toArray()));
+        assertTrue(queryResult.hadSuccess());
+    }
+}
@@ -0,0 +1,91 @@
+package com.flightstats.hub.dao;
+
+import com.flightstats.hub.model.ContentKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SortedKeySetTest {
+
+    @Test
+    void testMatchesTreeSet() {
+        Random random = new Random(7);
+        List<ContentKey> keys = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            keys.add(new ContentKey(1_500_000_000_000L + random.nextInt(1000), "h" + random.nextInt(20)));
+        }
+        SortedKeySet keySet = new SortedKeySet();
+        keySet.addAll(keys);
+        TreeSet<ContentKey> treeSet = new TreeSet<>(keys);
+        assertEquals(treeSet.size(), keySet.size());
+        assertEquals(new ArrayList<>(treeSet), new ArrayList<>(keySet));
+        assertEquals(treeSet.first(), keySet.first());
+        assertEquals(treeSet.last(), keySet.last());
+        assertEquals(treeSet, keySet);
+        ContentKey middle = keys.get(10);
+        assertEquals(treeSet.headSet(middle), keySet.headSet(middle));
+        assertEquals(treeSet.tailSet(middle), keySet.tailSet(middle));
+        assertTrue(keySet.contains(middle));
+    }
+
+    @Test
+    void testSortedAddRejectsRepeatedKey() {
+        SortedKeySet keySet = new SortedKeySet();
+        ContentKey key = new ContentKey(1000L, "A");
+        assertTrue(keySet.add(key));
+        assertFalse(keySet.add(new ContentKey(1000L, "A")));
+        assertTrue(keySet.add(new ContentKey(1000L, "B")));
+        assertEquals(2, keySet.size());
+    }
+
+    @Test
+    void testBoundedKeepsNewest() {
+        ContentKey limitKey = new ContentKey(900L, "0");
+        SortedKeySet keySet = new SortedKeySet(10, limitKey);
+        List<ContentKey> keys = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            keys.add(new ContentKey(i, "A"));
+        }
+        Collections.shuffle(keys, new Random(3));
+        keySet.addAll(keys);
+        assertEquals(10, keySet.size());
+        assertEquals(new ContentKey(890L, "A"), keySet.first());
+        assertEquals(new ContentKey(899L, "A"), keySet.last());
+    }
+
+    @Test
+    void testMerge() {
+        SortedKeySet first = SortedKeySet.of(Arrays.asList(new ContentKey(1L, "A"), new ContentKey(3L, "A")));
+        SortedKeySet second = SortedKeySet.of(Arrays.asList(new ContentKey(3L, "A"), new ContentKey(2L, "A")));
+        SortedKeySet merged = SortedKeySet.merge(Arrays.asList(first, second, new SortedKeySet()));
+        assertEquals(Arrays.asList(new ContentKey(1L, "A"), new ContentKey(2L, "A"), new ContentKey(3L, "A")),
+                new ArrayList<>(merged));
+    }
+
+    @Test
+    void testIteratorRemove() {
+        SortedKeySet keySet = SortedKeySet.of(Arrays.asList(new ContentKey(2L, "A"), new ContentKey(1L, "A")));
+        Iterator<ContentKey> iterator = keySet.iterator();
+        assertEquals(new ContentKey(1L, "A"), iterator.next());
+        iterator.remove();
+        assertEquals(Collections.singletonList(new ContentKey(2L, "A")), new ArrayList<>(keySet));
+    }
+
+    @Test
+    void testDescendingIterator() {
+        SortedKeySet keySet = SortedKeySet.of(Arrays.asList(new ContentKey(2L, "A"), new ContentKey(3L, "A"), new ContentKey(1L, "A")));
+        List<ContentKey> descending = new ArrayList<>();
+        keySet.descendingIterator().forEachRemaining(descending::add);
+        assertEquals(Arrays.asList(new ContentKey(3L, "A"), new ContentKey(2L, "A"), new ContentKey(1L, "A")), descending);
+    }
+}
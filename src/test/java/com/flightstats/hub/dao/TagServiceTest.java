@@ -0,0 +1,125 @@
+package com.flightstats.hub.dao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightstats.hub.channel.BulkBuilder;
+import com.flightstats.hub.channel.LinkBuilder;
+import com.flightstats.hub.config.properties.ContentProperties;
+import com.flightstats.hub.dao.aws.ContentRetriever;
+import com.flightstats.hub.model.ChannelConfig;
+import com.flightstats.hub.model.ChannelContentKey;
+import com.flightstats.hub.model.ContentKey;
+import com.flightstats.hub.model.DirectionQuery;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TagServiceTest {
+
+    private static final DateTime START = new DateTime(2019, 6, 1, 12, 0, DateTimeZone.UTC);
+    private static final String TAG = "tagged";
+
+    @Mock
+    private ChannelService channelService;
+    @Mock
+    private ContentRetriever contentRetriever;
+    @Mock
+    private LinkBuilder linkBuilder;
+    @Mock
+    private BulkBuilder bulkBuilder;
+    @Mock
+    private ContentProperties contentProperties;
+
+    private TagService tagService;
+
+    @BeforeEach
+    void setUp() {
+        when(contentProperties.getTagQueryThreads()).thenReturn(2);
+        tagService = new TagService(channelService, contentRetriever, linkBuilder, bulkBuilder, new ObjectMapper(), contentProperties);
+        List<ChannelConfig> channels = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            channels.add(ChannelConfig.builder().name("channel" + i).build());
+        }
+        when(channelService.getChannels(TAG, true)).thenReturn(channels);
+    }
+
+    @Test
+    void testGetKeysNext() {
+        when(contentRetriever.query(any(DirectionQuery.class))).thenAnswer(invocation -> {
+            DirectionQuery query = invocation.getArgument(0);
+            int channel = Integer.parseInt(query.getChannelName().substring("channel".length()));
+            return new TreeSet<>(Arrays.asList(key(channel), key(channel + 5), key(channel + 10)));
+        });
+        SortedSet<ChannelContentKey> keys = tagService.getKeys(query(true, 4));
+        assertEquals(4, keys.size());
+        assertEquals(new ChannelContentKey("channel0", key(0)), keys.first());
+        assertEquals(new ChannelContentKey("channel3", key(3)), keys.last());
+    }
+
+    @Test
+    void testGetKeysPrevious() {
+        when(contentRetriever.query(any(DirectionQuery.class))).thenAnswer(invocation -> {
+            DirectionQuery query = invocation.getArgument(0);
+            int channel = Integer.parseInt(query.getChannelName().substring("channel".length()));
+            return new TreeSet<>(Arrays.asList(key(channel), key(channel + 5), key(channel + 10)));
+        });
+        SortedSet<ChannelContentKey> keys = tagService.getKeys(query(false, 3));
+        assertEquals(3, keys.size());
+        assertEquals(new ChannelContentKey("channel2", key(12)), keys.first());
+        assertEquals(new ChannelContentKey("channel4", key(14)), keys.last());
+    }
+
+    @Test
+    void testGetLatest() {
+        when(contentRetriever.getLatest(any(DirectionQuery.class))).thenAnswer(invocation -> {
+            DirectionQuery query = invocation.getArgument(0);
+            if (query.getChannelName().equals("channel4")) {
+                return Optional.empty();
+            }
+            int channel = Integer.parseInt(query.getChannelName().substring("channel".length()));
+            return Optional.of(key(channel));
+        });
+        assertEquals(Optional.of(new ChannelContentKey("channel3", key(3))), tagService.getLatest(query(false, 1)));
+    }
+
+    @Test
+    void testQueryFailure() {
+        when(contentRetriever.getLatest(any(DirectionQuery.class))).thenAnswer(invocation -> {
+            DirectionQuery query = invocation.getArgument(0);
+            if (query.getChannelName().equals("channel2")) {
+                throw new IllegalStateException("failed");
+            }
+            return Optional.empty();
+        });
+        assertThrows(IllegalStateException.class, () -> tagService.getLatest(query(false, 1)));
+    }
+
+    private DirectionQuery query(boolean next, int count) {
+        return DirectionQuery.builder()
+                .tagName(TAG)
+                .startKey(key(0))
+                .next(next)
+                .count(count)
+                .build();
+    }
+
+    private ContentKey key(int seconds) {
+        return new ContentKey(START.plusSeconds(seconds), "A");
+    }
+}
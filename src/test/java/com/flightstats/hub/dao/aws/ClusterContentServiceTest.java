@@ -64,6 +64,8 @@ class ClusterContentServiceTest {
     @Mock
     private LatestContentCache latestContentCache;
     @Mock
+    private LatestKeyCache latestKeyCache;
+    @Mock
     private S3WriteQueue s3WriteQueue;
     @Mock
     private ChannelConfig channelConfig;
@@ -94,6 +96,7 @@ class ClusterContentServiceTest {
                 mockS3LargeDao,
                 mockS3BatchDao,
                 latestContentCache,
+                latestKeyCache,
                 s3WriteQueue,
                 contentRetriever,
                 clusterCacheDao,
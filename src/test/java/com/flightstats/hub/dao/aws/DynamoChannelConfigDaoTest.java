@@ -7,6 +7,7 @@ import com.amazonaws.services.dynamodbv2.model.GetItemResult;
 import com.amazonaws.services.dynamodbv2.model.ScanRequest;
 import com.amazonaws.services.dynamodbv2.model.ScanResult;
 import com.flightstats.hub.config.properties.DynamoProperties;
+import com.flightstats.hub.metrics.StatsdReporter;
 import com.flightstats.hub.model.ChannelConfig;
 import com.flightstats.hub.test.IntegrationTestSetup;
 import lombok.extern.slf4j.Slf4j;
@@ -43,6 +44,8 @@ class DynamoChannelConfigDaoTest {
     private AmazonDynamoDB dbClient;
     @Mock
     private DynamoProperties dynamoProperties;
+    @Mock
+    private StatsdReporter statsdReporter;
     private DynamoChannelConfigDao mockedDao;
 
     @BeforeAll
@@ -53,7 +56,7 @@ class DynamoChannelConfigDaoTest {
 
     @BeforeEach
     void setup() {
-        mockedDao = new DynamoChannelConfigDao(dbClient, dynamoProperties);
+        mockedDao = new DynamoChannelConfigDao(dbClient, dynamoProperties, new DynamoItemReader(dbClient, dynamoProperties, statsdReporter));
     }
 
     @Test
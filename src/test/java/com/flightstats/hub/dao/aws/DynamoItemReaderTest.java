@@ -0,0 +1,134 @@
+package com.flightstats.hub.dao.aws;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.flightstats.hub.config.properties.DynamoProperties;
+import com.flightstats.hub.metrics.StatsdReporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DynamoItemReaderTest {
+
+    private static final String TABLE = "webhooks";
+
+    @Mock
+    private AmazonDynamoDB dbClient;
+    @Mock
+    private DynamoProperties dynamoProperties;
+    @Mock
+    private StatsdReporter statsdReporter;
+
+    private DynamoItemReader itemReader;
+
+    @BeforeEach
+    void setUp() {
+        itemReader = new DynamoItemReader(dbClient, dynamoProperties, statsdReporter);
+    }
+
+    @Test
+    void testSegmentedScan() {
+        when(dynamoProperties.getScanSegments()).thenReturn(3);
+        when(dbClient.scan(any(ScanRequest.class))).thenAnswer(invocation -> {
+            ScanRequest request = invocation.getArgument(0);
+            int segment = request.getSegment();
+            assertEquals(3, (int) request.getTotalSegments());
+            assertTrue(request.getConsistentRead());
+            if (request.getExclusiveStartKey() == null) {
+                return new ScanResult()
+                        .withItems(Collections.singletonList(item("first" + segment)))
+                        .withLastEvaluatedKey(item("first" + segment));
+            }
+            return new ScanResult().withItems(Collections.singletonList(item("second" + segment)));
+        });
+
+        List<Map<String, AttributeValue>> items = itemReader.scan(TABLE);
+
+        assertEquals(6, items.size());
+        assertEquals(names("first0", "first1", "first2", "second0", "second1", "second2"), names(items));
+        verify(dbClient, times(6)).scan(any(ScanRequest.class));
+    }
+
+    @Test
+    void testBatchGet() {
+        when(dbClient.batchGetItem(any(BatchGetItemRequest.class))).thenAnswer(invocation -> {
+            BatchGetItemRequest request = invocation.getArgument(0);
+            KeysAndAttributes keysAndAttributes = request.getRequestItems().get(TABLE);
+            assertTrue(keysAndAttributes.getConsistentRead());
+            List<Map<String, AttributeValue>> keys = keysAndAttributes.getKeys();
+            assertTrue(keys.size() <= DynamoItemReader.MAX_BATCH_KEYS);
+            int processed = keys.size() > 1 ? keys.size() - 1 : keys.size();
+            List<Map<String, AttributeValue>> found = new ArrayList<>();
+            for (Map<String, AttributeValue> key : keys.subList(0, processed)) {
+                if (!key.get("name").getS().equals("missing")) {
+                    found.add(key);
+                }
+            }
+            Map<String, List<Map<String, AttributeValue>>> responses = new HashMap<>();
+            responses.put(TABLE, found);
+            Map<String, KeysAndAttributes> unprocessed = new HashMap<>();
+            if (processed < keys.size()) {
+                unprocessed.put(TABLE, new KeysAndAttributes().withKeys(keys.subList(processed, keys.size())).withConsistentRead(true));
+            }
+            return new BatchGetItemResult().withResponses(responses).withUnprocessedKeys(unprocessed);
+        });
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < DynamoItemReader.MAX_BATCH_KEYS + 2; i++) {
+            keys.add("key" + i);
+        }
+        keys.add("key0");
+        keys.add("missing");
+
+        List<Map<String, AttributeValue>> items = itemReader.batchGet(TABLE, "name", keys);
+
+        assertEquals(DynamoItemReader.MAX_BATCH_KEYS + 2, items.size());
+        ArgumentCaptor<BatchGetItemRequest> captor = ArgumentCaptor.forClass(BatchGetItemRequest.class);
+        verify(dbClient, times(4)).batchGetItem(captor.capture());
+        assertEquals(DynamoItemReader.MAX_BATCH_KEYS, captor.getAllValues().get(0).getRequestItems().get(TABLE).getKeys().size());
+    }
+
+    @Test
+    void testBatchGetEmpty() {
+        assertTrue(itemReader.batchGet(TABLE, "name", Collections.emptyList()).isEmpty());
+    }
+
+    private Map<String, AttributeValue> item(String name) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("name", new AttributeValue(name));
+        return item;
+    }
+
+    private Set<String> names(String... names) {
+        return new TreeSet<>(Arrays.asList(names));
+    }
+
+    private Set<String> names(List<Map<String, AttributeValue>> items) {
+        return items.stream().map(item -> item.get("name").getS()).collect(Collectors.toCollection(TreeSet::new));
+    }
+}
@@ -7,6 +7,7 @@ import com.amazonaws.services.dynamodbv2.model.ScanRequest;
 import com.amazonaws.services.dynamodbv2.model.ScanResult;
 import com.flightstats.hub.config.properties.DynamoProperties;
 import com.flightstats.hub.config.properties.WebhookProperties;
+import com.flightstats.hub.metrics.StatsdReporter;
 import com.flightstats.hub.test.IntegrationTestSetup;
 import com.flightstats.hub.webhook.Webhook;
 import lombok.extern.slf4j.Slf4j;
@@ -44,6 +45,8 @@ class DynamoWebhookDaoTest {
     private DynamoProperties dynamoProperties;
     @Mock
     private WebhookProperties webhookProperties;
+    @Mock
+    private StatsdReporter statsdReporter;
 
     @Test
     void testSimple() {
@@ -66,7 +69,7 @@ class DynamoWebhookDaoTest {
         when(dbClient.getItem("webhooks", nameMap, true)).thenReturn(result);
         when(result.getItem()).thenReturn(createBogusEntry());
 
-        DynamoWebhookDao mockedDao = new DynamoWebhookDao(dbClient, dynamoProperties, webhookProperties);
+        DynamoWebhookDao mockedDao = new DynamoWebhookDao(dbClient, dynamoProperties, webhookProperties, new DynamoItemReader(dbClient, dynamoProperties, statsdReporter));
         assertNull(mockedDao.get("bob"));
     }
 
@@ -83,7 +86,7 @@ class DynamoWebhookDaoTest {
                 .withItems(Arrays.asList(webhook1Record, bogusRecord, webhook2Record));
         when(dbClient.scan(any(ScanRequest.class))).thenReturn(result);
 
-        DynamoWebhookDao mockedDao = new DynamoWebhookDao(dbClient, dynamoProperties, webhookProperties);
+        DynamoWebhookDao mockedDao = new DynamoWebhookDao(dbClient, dynamoProperties, webhookProperties, new DynamoItemReader(dbClient, dynamoProperties, statsdReporter));
         Collection<Webhook> webhookConfigs = mockedDao.getAll(false);
 
         assertNotNull(webhookConfigs);
@@ -108,7 +111,7 @@ class DynamoWebhookDaoTest {
                 .withItems(Collections.singletonList(webhook2Record));
         when(dbClient.scan(any(ScanRequest.class))).thenReturn(result, secondResult);
 
-        DynamoWebhookDao webhookDao = new DynamoWebhookDao(dbClient, dynamoProperties, webhookProperties);
+        DynamoWebhookDao webhookDao = new DynamoWebhookDao(dbClient, dynamoProperties, webhookProperties, new DynamoItemReader(dbClient, dynamoProperties, statsdReporter));
         Collection<Webhook> webhookConfigs = webhookDao.getAll(false);
 
         assertNotNull(webhookConfigs);
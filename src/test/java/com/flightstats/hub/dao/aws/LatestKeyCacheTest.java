@@ -0,0 +1,93 @@
+package com.flightstats.hub.dao.aws;
+
+import com.flightstats.hub.model.ContentKey;
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class LatestKeyCacheTest {
+
+    private static final long STALE = 10_000;
+    private static final long RETAIN = 10_000;
+    private static final long NOW = 1_000_000_000L;
+
+    private final LatestKeyCache.ChannelLatest channel = new LatestKeyCache.ChannelLatest(STALE, RETAIN);
+
+    @Test
+    void testUnconfirmed() {
+        add(NOW - 2000);
+        assertFalse(channel.get(limit(NOW), NOW).isPresent());
+    }
+
+    @Test
+    void testConfirmedEmpty() {
+        channel.confirm(ContentKey.NONE, limit(NOW), NOW);
+        assertEquals(Optional.of(ContentKey.NONE), channel.get(limit(NOW), NOW));
+    }
+
+    @Test
+    void testInsertsAfterConfirm() {
+        ContentKey confirmed = key(NOW - 6000);
+        channel.confirm(confirmed, limit(NOW - 5000), NOW);
+        assertEquals(Optional.of(confirmed), channel.get(limit(NOW - 5000), NOW));
+
+        ContentKey inserted = add(NOW - 4500);
+        add(NOW - 500);
+        assertEquals(Optional.of(confirmed), channel.get(limit(NOW - 5000), NOW));
+        assertEquals(Optional.of(inserted), channel.get(limit(NOW - 4000), NOW + 1000));
+    }
+
+    @Test
+    void testLimitInsideSecond() {
+        channel.confirm(ContentKey.NONE, limit(NOW - 5000), NOW);
+        add(NOW - 3600);
+        add(NOW - 3200);
+        assertFalse(channel.get(new ContentKey(NOW - 3500, "A"), NOW).isPresent());
+        assertEquals(Optional.of(key(NOW - 3200)), channel.get(limit(NOW - 3000), NOW));
+    }
+
+    @Test
+    void testOlderLimit() {
+        channel.confirm(key(NOW - 6000), limit(NOW - 5000), NOW);
+        assertFalse(channel.get(limit(NOW - 6000), NOW).isPresent());
+    }
+
+    @Test
+    void testStale() {
+        channel.confirm(key(NOW - 6000), limit(NOW - 5000), NOW);
+        assertFalse(channel.get(limit(NOW - 5000), NOW + STALE + 1).isPresent());
+    }
+
+    @Test
+    void testTrimmed() {
+        channel.confirm(ContentKey.NONE, limit(NOW - 5000), NOW);
+        ContentKey old = add(NOW - 4000);
+        assertEquals(Optional.of(old), channel.get(limit(NOW), NOW + RETAIN));
+        assertFalse(channel.get(limit(NOW - 4001), NOW + RETAIN).isPresent());
+    }
+
+    @Test
+    void testKeyAtLimitIsNotConfirmed() {
+        channel.confirm(limit(NOW), limit(NOW), NOW);
+        assertFalse(channel.get(limit(NOW), NOW).isPresent());
+    }
+
+    private ContentKey add(long millis) {
+        ContentKey key = key(millis);
+        channel.add(Collections.singletonList(key), NOW);
+        return key;
+    }
+
+    private ContentKey key(long millis) {
+        return new ContentKey(millis, "abc");
+    }
+
+    private ContentKey limit(long millis) {
+        return ContentKey.lastKey(new DateTime(millis));
+    }
+}
@@ -0,0 +1,107 @@
+package com.flightstats.hub.events;
+
+import com.flightstats.hub.model.Content;
+import com.flightstats.hub.model.ContentKey;
+import com.google.common.base.Suppliers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EventSubscriberTest {
+
+    @Mock
+    private ContentOutput contentOutput;
+
+    @Test
+    void testWritesContentAndHeartbeat() throws Exception {
+        EventSubscriber subscriber = new EventSubscriber(contentOutput, Runnable::run, 10);
+        Content content = Content.builder().withData("data".getBytes()).build();
+
+        assertTrue(subscriber.offer(new ContentKey(), () -> Optional.of(content)));
+        assertTrue(subscriber.offer(new ContentKey(), Optional::empty));
+        subscriber.heartbeat();
+
+        verify(contentOutput).write(content);
+        verify(contentOutput).writeHeartbeat();
+    }
+
+    @Test
+    void testPayloadIsOnlyLoadedWhenWritten() throws Exception {
+        EventSubscriber subscriber = new EventSubscriber(contentOutput, runnable -> {
+        }, 2);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertTrue(subscriber.offer(new ContentKey(), () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        }));
+        assertEquals(0, loads.get());
+        verify(contentOutput, never()).write(any(Content.class));
+    }
+
+    @Test
+    void testWriteFailureCloses() throws Exception {
+        doThrow(new IOException("closed")).when(contentOutput).writeHeartbeat();
+        EventSubscriber subscriber = new EventSubscriber(contentOutput, Runnable::run, 10);
+
+        subscriber.heartbeat();
+
+        assertFalse(subscriber.isOpen());
+        verify(contentOutput).close();
+    }
+
+    @Test
+    void testSharedPayloadWrittenByConcurrentSubscribers() throws Exception {
+        int subscribers = 4;
+        ExecutorService writers = Executors.newFixedThreadPool(subscribers);
+        AtomicInteger loads = new AtomicInteger();
+        byte[] data = "shared".getBytes();
+        Supplier<Optional<Content>> payload = Suppliers.memoize(() -> {
+            loads.incrementAndGet();
+            return Optional.of(Content.builder().withData(data).build());
+        });
+        CountDownLatch written = new CountDownLatch(subscribers);
+        List<Content> contents = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < subscribers; i++) {
+            ContentOutput output = mock(ContentOutput.class);
+            doAnswer(invocation -> {
+                contents.add(invocation.getArgument(0));
+                written.countDown();
+                return null;
+            }).when(output).write(any(Content.class));
+            assertTrue(new EventSubscriber(output, writers, 10).offer(new ContentKey(), payload));
+        }
+
+        assertTrue(written.await(10, TimeUnit.SECONDS));
+        writers.shutdown();
+        assertEquals(1, loads.get());
+        assertEquals(subscribers, contents.size());
+        for (Content content : contents) {
+            assertArrayEquals(data, content.getData());
+        }
+    }
+}
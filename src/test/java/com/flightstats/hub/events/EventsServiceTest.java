@@ -0,0 +1,96 @@
+package com.flightstats.hub.events;
+
+import com.flightstats.hub.config.properties.EventsProperties;
+import com.flightstats.hub.dao.ChannelService;
+import com.flightstats.hub.dao.ItemRequest;
+import com.flightstats.hub.dao.aws.ContentRetriever;
+import com.flightstats.hub.model.Content;
+import com.flightstats.hub.model.ContentKey;
+import com.flightstats.hub.model.TimeQuery;
+import com.flightstats.hub.util.TimeUtil;
+import com.flightstats.hub.webhook.strategy.ChannelKeyFeed;
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class EventsServiceTest {
+
+    private static final String CHANNEL = "events";
+    private static final int SUBSCRIBERS = 5;
+
+    @Mock
+    private ChannelService channelService;
+    @Mock
+    private ContentRetriever contentRetriever;
+    @Mock
+    private ChannelKeyFeed channelKeyFeed;
+    @Mock
+    private EventsProperties eventsProperties;
+
+    @Test
+    void testOneItemToSeveralSubscribers() throws Exception {
+        DateTime start = TimeUtil.stable();
+        ContentKey startKey = new ContentKey(start, "0");
+        ContentKey itemKey = new ContentKey(start.plusMillis(500), "A");
+        byte[] data = new byte[256 * 1024];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        when(eventsProperties.getWriterThreads()).thenReturn(SUBSCRIBERS);
+        when(eventsProperties.getClientBufferSize()).thenReturn(10);
+        when(contentRetriever.isLiveChannel(CHANNEL)).thenReturn(true);
+        when(channelKeyFeed.queryByTime(any(TimeQuery.class))).thenReturn(Collections.singletonList(itemKey));
+        when(channelService.get(any(ItemRequest.class))).thenAnswer(invocation -> Optional.of(Content.builder()
+                .withContentKey(itemKey)
+                .withStream(new ByteArrayInputStream(data))
+                .build()));
+
+        EventsService eventsService = new EventsService(channelService, contentRetriever, channelKeyFeed, eventsProperties);
+        CountDownLatch written = new CountDownLatch(SUBSCRIBERS);
+        List<byte[]> payloads = new CopyOnWriteArrayList<>();
+        List<ContentOutput> outputs = new ArrayList<>();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            ContentOutput contentOutput = mock(ContentOutput.class);
+            when(contentOutput.getChannel()).thenReturn(CHANNEL);
+            when(contentOutput.getContentKey()).thenReturn(startKey);
+            doAnswer(invocation -> {
+                Content content = invocation.getArgument(0);
+                payloads.add(content.getData());
+                written.countDown();
+                return null;
+            }).when(contentOutput).write(any(Content.class));
+            outputs.add(contentOutput);
+        }
+        outputs.forEach(eventsService::register);
+
+        assertTrue(written.await(10, TimeUnit.SECONDS));
+        assertEquals(SUBSCRIBERS, payloads.size());
+        for (byte[] payload : payloads) {
+            assertArrayEquals(data, payload);
+        }
+    }
+}
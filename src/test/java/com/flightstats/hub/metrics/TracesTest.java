@@ -5,9 +5,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(MockitoExtension.class)
 class TracesTest {
@@ -23,4 +28,48 @@ class TracesTest {
         assertEquals(102, output.size());
     }
 
-}
\ No newline at end of file
+    @Test
+    void testConcurrentAdds() throws InterruptedException {
+        Traces traces = new Traces("start");
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            executorService.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    traces.add("item", i);
+                }
+            });
+        }
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(1, TimeUnit.MINUTES));
+        List<String> output = new ArrayList<>();
+        traces.outputTraces(output::add);
+        assertEquals(102, output.size());
+        assertEquals("   ...cut " + (4001 - 51 - 50) + " lines...", output.get(51));
+    }
+
+    @Test
+    void testFormatting() {
+        Traces traces = new Traces("start");
+        traces.add("one");
+        traces.add("two", 2);
+        traces.add("three", 3, null);
+        traces.add("four", 4, 4L, "4");
+        traces.add(new Object[]{"array", 1});
+        List<String> output = new ArrayList<>();
+        traces.outputTraces(trace -> output.add(trace.substring(trace.indexOf(' ') + 1)));
+        assertEquals(Arrays.asList("[start]", "[one]", "[two, 2]", "[three, 3, null]", "[four, 4, 4, 4]", "[array, 1]"), output);
+    }
+
+    @Test
+    void testStopRecording() {
+        Traces traces = new Traces("start");
+        traces.stopRecording();
+        traces.add("skipped");
+        traces.end(200);
+        List<String> output = new ArrayList<>();
+        traces.outputTraces(output::add);
+        assertEquals(2, output.size());
+        assertTrue(output.get(1).endsWith("[response, 200]"));
+    }
+
+}
@@ -2,8 +2,10 @@ package com.flightstats.hub.model;
 
 import com.flightstats.hub.util.TimeUtil;
 import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
 import java.util.TreeSet;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -74,5 +76,39 @@ class ContentKeyTest {
         ContentKey nextMinute = new ContentKey(minutePath.getTime().plusMinutes(1), "0");
         assertTrue(nextMinute.compareTo(minutePath) > 0);
     }
-}
 
+    @Test
+    void testUrlMatchesJoda() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            long millis = (long) (random.nextDouble() * 8_000_000_000_000L);
+            DateTime time = new DateTime(millis, DateTimeZone.UTC);
+            ContentKey key = new ContentKey(millis, "hash");
+            String expected = TimeUtil.millis(time) + "hash";
+            assertEquals(expected, key.toUrl());
+            assertEquals(expected, key.appendUrl(new StringBuilder()).toString());
+            assertEquals(key, ContentKey.fromUrl(expected).get());
+            assertEquals(time, ContentKey.fromUrl(expected).get().getTime());
+        }
+    }
+
+    @Test
+    void testUrlEdges() {
+        assertEquals("1970/01/01/00/00/00/001/none", ContentKey.NONE.toUrl());
+        assertEquals(new ContentKey(2016, 2, 29, 23, 59, 59, 999, "A"), ContentKey.fromUrl("2016/02/29/23/59/59/999/A").get());
+        assertEquals(new ContentKey(2000, 1, 1, 0, 0, 0, 0, ""), ContentKey.fromUrl("2000/01/01/00/00/00/000/").get());
+        assertFalse(ContentKey.fromUrl("2015/02/29/00/00/00/000/A").isPresent());
+        assertFalse(ContentKey.fromUrl("2015/13/01/00/00/00/000/A").isPresent());
+        assertFalse(ContentKey.fromUrl("2015/01/01/24/00/00/000/A").isPresent());
+        assertFalse(ContentKey.fromUrl("2015/01/01/00/0a/00/000/A").isPresent());
+        assertFalse(ContentKey.fromUrl("2015/01/01/00/00/00/000").isPresent());
+    }
+
+    @Test
+    void testBulkKey() {
+        ContentKey master = new ContentKey(2015, 1, 23, 21, 11, 19, 407, "L7QtaY");
+        assertEquals("2015/01/23/21/11/19/407/L7QtaY000000", ContentKey.bulkKey(master, 0).toUrl());
+        assertEquals("2015/01/23/21/11/19/407/L7QtaY000123", ContentKey.bulkKey(master, 123).toUrl());
+        assertEquals("2015/01/23/21/11/19/407/L7QtaY1234567", ContentKey.bulkKey(master, 1234567).toUrl());
+    }
+}
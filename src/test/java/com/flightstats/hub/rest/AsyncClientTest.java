@@ -0,0 +1,75 @@
+package com.flightstats.hub.rest;
+
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.WebResource;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AsyncClientTest {
+    private static final String URL = "http://server:8080/internal/spoke/latest/channel";
+
+    private final Client client = mock(Client.class);
+    private final WebResource webResource = mock(WebResource.class);
+    private final ClientResponse response = mock(ClientResponse.class);
+
+    @Test
+    void testHandlerGetsResponseWhichIsThenClosed() throws Exception {
+        when(client.resource(URL)).thenReturn(webResource);
+        when(webResource.get(ClientResponse.class)).thenReturn(response);
+        when(response.getStatus()).thenReturn(200);
+
+        AsyncClient asyncClient = new AsyncClient("test", client, 2);
+        CompletableFuture<Integer> status = asyncClient.get(URL, ClientResponse::getStatus);
+
+        assertEquals(200, (int) status.get(5, TimeUnit.SECONDS));
+        verify(response).close();
+    }
+
+    @Test
+    void testFailureCompletesExceptionally() {
+        when(client.resource(URL)).thenReturn(webResource);
+        when(webResource.delete(ClientResponse.class)).thenThrow(new ClientHandlerException("refused"));
+
+        AsyncClient asyncClient = new AsyncClient("test", client, 2);
+        CompletableFuture<Integer> status = asyncClient.delete(URL, ClientResponse::getStatus);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> status.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof ClientHandlerException);
+    }
+
+    @Test
+    void testCallsBeyondMaxThreadsWaitTheirTurn() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(client.resource(URL)).thenReturn(webResource);
+        when(webResource.get(ClientResponse.class)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return response;
+        });
+        when(response.getStatus()).thenReturn(200);
+
+        AsyncClient asyncClient = new AsyncClient("test", client, 1);
+        CompletableFuture<Integer> first = asyncClient.get(URL, ClientResponse::getStatus);
+        CompletableFuture<Integer> second = asyncClient.get(URL, ClientResponse::getStatus);
+
+        assertThrows(TimeoutException.class, () -> second.get(200, TimeUnit.MILLISECONDS));
+        assertFalse(first.isDone());
+        release.countDown();
+        assertEquals(200, (int) first.get(5, TimeUnit.SECONDS));
+        assertEquals(200, (int) second.get(5, TimeUnit.SECONDS));
+    }
+}
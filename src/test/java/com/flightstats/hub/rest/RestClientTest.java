@@ -0,0 +1,37 @@
+package com.flightstats.hub.rest;
+
+import com.sun.jersey.api.client.Client;
+import org.apache.http.pool.PoolStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RestClientTest {
+
+    @Test
+    void testSharedClientIsReused() {
+        Client client = RestClient.sharedClient(5, 15, true, false);
+        assertSame(client, RestClient.sharedClient(5, 15, true, false));
+        assertNotSame(client, RestClient.sharedClient(5, 15, true, true));
+    }
+
+    @Test
+    void testWebhookClientIsReused() {
+        Client client = RestClient.webhookClient(5, 15);
+        assertSame(client, RestClient.webhookClient(5, 15));
+        assertNotSame(client, RestClient.sharedClient(5, 15, true, false));
+    }
+
+    @Test
+    void testClientsSharePools() {
+        Map<String, PoolStats> stats = RestClient.getPoolStats();
+        assertEquals(2, stats.size());
+        assertTrue(stats.get("default").getMax() > 0);
+        assertTrue(stats.get("webhook").getMax() > 0);
+    }
+}
@@ -0,0 +1,54 @@
+package com.flightstats.hub.rest;
+
+import com.flightstats.hub.config.properties.PropertiesLoader;
+import com.flightstats.hub.config.properties.SystemProperties;
+import com.flightstats.hub.util.IntegrationServer;
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RetryClientFilterTest {
+
+    @Test
+    void testRetriedResponsesReleaseTheirConnections() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = IntegrationServer.builder()
+                .bindAddress("localhost")
+                .bindPort(0)
+                .path("/")
+                .testHandler(exchange -> {
+                    requests.incrementAndGet();
+                    exchange.sendResponseHeaders(500, -1);
+                    exchange.close();
+                })
+                .build()
+                .httpServer();
+        server.start();
+        try {
+            SystemProperties systemProperties = mock(SystemProperties.class);
+            when(systemProperties.getHttpMaxRetries()).thenReturn(2);
+            when(systemProperties.getHttpSleep()).thenReturn(0);
+            Client client = RestClient.createClient(1, 5, true, false);
+            client.addFilter(new RetryClientFilter(systemProperties));
+
+            String url = "http://localhost:" + server.getAddress().getPort() + "/";
+            int calls = new SystemProperties(PropertiesLoader.getInstance()).getHttpClientMaxConnectionsPerRoute() + 10;
+            for (int i = 0; i < calls; i++) {
+                ClientResponse response = client.resource(url).get(ClientResponse.class);
+                assertEquals(500, response.getStatus());
+                response.close();
+            }
+            assertEquals(2 * calls, requests.get());
+            assertEquals(0, RestClient.getPoolStats().get("default").getLeased());
+        } finally {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.flightstats.hub.spoke;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HedgeDelayTest {
+
+    @Test
+    void testMaxUntilEnoughSamples() {
+        HedgeDelay hedgeDelay = new HedgeDelay(0.9, 5, 500);
+        for (int i = 0; i < 99; i++) {
+            hedgeDelay.record(1);
+        }
+        assertEquals(500, hedgeDelay.getMillis());
+    }
+
+    @Test
+    void testPercentile() {
+        HedgeDelay hedgeDelay = new HedgeDelay(0.9, 5, 500);
+        for (int i = 1; i <= 100; i++) {
+            hedgeDelay.record(i);
+        }
+        assertEquals(91, hedgeDelay.getMillis());
+    }
+
+    @Test
+    void testBounds() {
+        HedgeDelay fast = new HedgeDelay(0.9, 5, 500);
+        HedgeDelay slow = new HedgeDelay(0.9, 5, 500);
+        for (int i = 0; i < 100; i++) {
+            fast.record(1);
+            slow.record(10_000);
+        }
+        assertEquals(5, fast.getMillis());
+        assertEquals(500, slow.getMillis());
+    }
+}
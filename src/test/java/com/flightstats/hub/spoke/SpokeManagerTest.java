@@ -1,11 +1,82 @@
 package com.flightstats.hub.spoke;
 
+import com.flightstats.hub.cluster.CuratorCluster;
+import com.flightstats.hub.config.properties.ContentProperties;
+import com.flightstats.hub.config.properties.LocalHostProperties;
+import com.flightstats.hub.config.properties.SpokeProperties;
+import com.flightstats.hub.metrics.StatsdReporter;
+import com.flightstats.hub.metrics.Traces;
+import com.flightstats.hub.model.Content;
+import com.flightstats.hub.model.ContentKey;
+import com.flightstats.hub.rest.AsyncClient;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientResponse;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static java.util.Arrays.asList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+@ExtendWith(MockitoExtension.class)
 public class SpokeManagerTest {
 
+    private static final String CHANNEL = "spokeManager";
+    private static final String PATH = CHANNEL + "/2019/01/01/00/00/00/000/abc";
+    private static final byte[] PAYLOAD = "payload".getBytes();
+
+    @Mock
+    private CuratorCluster cluster;
+    @Mock
+    private StatsdReporter statsdReporter;
+    @Mock
+    private ContentProperties contentProperties;
+    @Mock
+    private LocalHostProperties localHostProperties;
+    @Mock
+    private SpokeProperties spokeProperties;
+    @Mock
+    private AsyncClient writeClient;
+    @Mock
+    private AsyncClient queryClient;
+    @Mock
+    private AsyncClient readClient;
+
+    private SpokeManager spokeManager;
+
+    @BeforeEach
+    void setUp() {
+        when(localHostProperties.getUriScheme()).thenReturn("http://");
+        spokeManager = new SpokeManager(cluster, statsdReporter, contentProperties, localHostProperties,
+                spokeProperties, writeClient, queryClient, readClient);
+    }
+
     @Test
     public void testQuorum() {
 
@@ -18,4 +89,177 @@ public class SpokeManagerTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    void testWriteReturnsOnceQuorumIsReached() {
+        when(cluster.getWriteServers()).thenReturn(asList("one", "two", "three"));
+        when(contentProperties.getStableSeconds()).thenReturn(30);
+        respondToWrite("one", 201);
+        respondToWrite("two", 201);
+        when(writeClient.put(eq(writeUrl("three")), any(), any())).thenReturn(new CompletableFuture<>());
+
+        long start = System.currentTimeMillis();
+        assertTrue(spokeManager.insertToWriteCluster(PATH, PAYLOAD, "payload", CHANNEL));
+        assertTrue(System.currentTimeMillis() - start < 10_000);
+    }
+
+    @Test
+    void testWriteWithPartialFailureReturnsOnceEveryServerAnswers() {
+        when(cluster.getWriteServers()).thenReturn(asList("one", "two", "three"));
+        when(contentProperties.getStableSeconds()).thenReturn(30);
+        respondToWrite("one", 201);
+        respondToWrite("two", 500);
+        failWrite("three");
+
+        long start = System.currentTimeMillis();
+        assertTrue(spokeManager.insertToWriteCluster(PATH, PAYLOAD, "payload", CHANNEL));
+        assertTrue(System.currentTimeMillis() - start < 10_000);
+    }
+
+    @Test
+    void testWriteFailsWhenEveryServerFails() {
+        when(cluster.getWriteServers()).thenReturn(asList("one", "two"));
+        when(contentProperties.getStableSeconds()).thenReturn(30);
+        respondToWrite("one", 500);
+        failWrite("two");
+
+        assertFalse(spokeManager.insertToWriteCluster(PATH, PAYLOAD, "payload", CHANNEL));
+    }
+
+    @Test
+    void testWriteStopsWaitingAtTheTimeout() {
+        when(cluster.getWriteServers()).thenReturn(asList("one", "two", "three"));
+        when(contentProperties.getStableSeconds()).thenReturn(1);
+        when(writeClient.put(any(), any(), any())).thenReturn(new CompletableFuture<>());
+
+        long start = System.currentTimeMillis();
+        assertFalse(spokeManager.insertToWriteCluster(PATH, PAYLOAD, "payload", CHANNEL));
+        assertTrue(System.currentTimeMillis() - start >= 1000);
+    }
+
+    @Test
+    void testLatestIgnoresFailedServers() throws Exception {
+        ContentKey older = new ContentKey();
+        ContentKey newer = new ContentKey(older.getTime().plusMillis(1), "b");
+        when(cluster.getAllServers()).thenReturn(newHashSet("one", "two", "three"));
+        respondToLatest("one", older);
+        respondToLatest("two", newer);
+        when(queryClient.get(eq(latestUrl("three")), any())).thenReturn(refused());
+
+        Optional<ContentKey> latest = spokeManager.getLatestFromCluster(CHANNEL, CHANNEL, new Traces(CHANNEL));
+
+        assertEquals(Optional.of(newer), latest);
+    }
+
+    @Test
+    void testHedgeWinsWhenThePrimaryIsSlow() {
+        SpokeManager hedging = hedgingManager();
+        Content content = content();
+        when(readClient.get(eq(readUrl("one")), any())).thenReturn(new CompletableFuture<>());
+        when(readClient.<Content>get(eq(readUrl("two")), any())).thenReturn(CompletableFuture.completedFuture(content));
+
+        assertSame(content, hedging.getFromWriteCluster(PATH, content.getContentKey().get()));
+        verify(statsdReporter).incrementCounter("spoke.read.hedged");
+    }
+
+    @Test
+    void testPrimaryWinsAndTheHedgeIsCancelled() {
+        SpokeManager hedging = hedgingManager();
+        Content content = content();
+        when(readClient.<Content>get(eq(readUrl("one")), any())).thenReturn(CompletableFuture.completedFuture(content));
+
+        assertSame(content, hedging.getFromWriteCluster(PATH, content.getContentKey().get()));
+        verify(readClient, after(200).never()).get(eq(readUrl("two")), any());
+        verify(statsdReporter, never()).incrementCounter("spoke.read.hedged");
+    }
+
+    @Test
+    void testHedgedReadWhenBothFail() {
+        SpokeManager hedging = hedgingManager();
+        when(readClient.get(eq(readUrl("one")), any())).thenReturn(refused());
+        when(readClient.get(eq(readUrl("two")), any())).thenReturn(refused());
+
+        assertNull(hedging.getFromWriteCluster(PATH, new ContentKey()));
+    }
+
+    @Test
+    void testStalledReplicaOnlyHoldsItsShareOfReads() throws Exception {
+        SpokeManager hedging = hedgingManager();
+        Content content = content();
+        when(readClient.get(eq(readUrl("one")), any())).thenReturn(new CompletableFuture<>());
+        when(readClient.<Content>get(eq(readUrl("two")), any())).thenReturn(CompletableFuture.completedFuture(content));
+
+        ExecutorService readers = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Content>> reads = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                reads.add(readers.submit(() -> hedging.getFromWriteCluster(PATH, content.getContentKey().get())));
+            }
+            for (Future<Content> read : reads) {
+                assertSame(content, read.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+        verify(readClient, times(2)).get(eq(readUrl("one")), any());
+        verify(statsdReporter, atLeastOnce()).incrementCounter("spoke.read.saturated");
+    }
+
+    private SpokeManager hedgingManager() {
+        when(cluster.getRandomServers()).thenReturn(asList("one", "two"));
+        when(spokeProperties.isHedgedReadEnabled()).thenReturn(true);
+        when(spokeProperties.getHedgedReadPercentile()).thenReturn(0.95);
+        when(spokeProperties.getHedgedReadMinMillis()).thenReturn(10);
+        when(spokeProperties.getHedgedReadMaxMillis()).thenReturn(50);
+        when(spokeProperties.getReadMaxPerServer()).thenReturn(2);
+        return new SpokeManager(cluster, statsdReporter, contentProperties, localHostProperties,
+                spokeProperties, writeClient, queryClient, readClient);
+    }
+
+    private Content content() {
+        return Content.builder()
+                .withContentKey(new ContentKey())
+                .withData(PAYLOAD)
+                .build();
+    }
+
+    private void respondToWrite(String server, int status) {
+        ClientResponse response = mock(ClientResponse.class);
+        when(response.getStatus()).thenReturn(status);
+        when(writeClient.put(eq(writeUrl(server)), any(), any())).thenAnswer(invocation -> {
+            Function<ClientResponse, Boolean> handler = invocation.getArgument(2);
+            return CompletableFuture.supplyAsync(() -> handler.apply(response));
+        });
+    }
+
+    private void failWrite(String server) {
+        when(writeClient.put(eq(writeUrl(server)), any(), any())).thenReturn(refused());
+    }
+
+    private static <T> CompletableFuture<T> refused() {
+        CompletableFuture<T> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new ClientHandlerException("refused"));
+        return failed;
+    }
+
+    private void respondToLatest(String server, ContentKey key) {
+        ClientResponse response = mock(ClientResponse.class);
+        when(response.getStatus()).thenReturn(200);
+        when(response.getEntity(String.class)).thenReturn(CHANNEL + "/" + key.toUrl());
+        when(queryClient.get(eq(latestUrl(server)), any())).thenAnswer(invocation -> {
+            Function<ClientResponse, Void> handler = invocation.getArgument(1);
+            return CompletableFuture.supplyAsync(() -> handler.apply(response));
+        });
+    }
+
+    private String writeUrl(String server) {
+        return "http://" + server + "/internal/spoke/" + SpokeStore.WRITE + "/payload/" + PATH;
+    }
+
+    private String readUrl(String server) {
+        return "http://" + server + "/internal/spoke/" + SpokeStore.WRITE + "/payload/" + PATH;
+    }
+
+    private String latestUrl(String server) {
+        return "http://" + server + "/internal/spoke/latest/" + CHANNEL;
+    }
+}
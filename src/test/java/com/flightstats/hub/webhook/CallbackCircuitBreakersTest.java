@@ -0,0 +1,107 @@
+package com.flightstats.hub.webhook;
+
+import com.flightstats.hub.config.properties.WebhookProperties;
+import com.flightstats.hub.metrics.StatsdReporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static com.flightstats.hub.webhook.CallbackCircuitBreakers.SHORT_CIRCUITED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CallbackCircuitBreakersTest {
+
+    private static final String URL = "http://callback.example.com:8080/first";
+    private static final String SAME_HOST = "http://Callback.example.com:8080/second";
+
+    @Mock
+    private WebhookProperties webhookProperties;
+    @Mock
+    private StatsdReporter statsdReporter;
+
+    private CallbackCircuitBreakers circuitBreakers;
+
+    @BeforeEach
+    void setUp() {
+        when(webhookProperties.isCircuitBreakerEnabled()).thenReturn(true);
+        when(webhookProperties.getCircuitBreakerFailureThreshold()).thenReturn(2);
+        when(webhookProperties.getCircuitBreakerMaxOpenSeconds()).thenReturn(60);
+        circuitBreakers = new CallbackCircuitBreakers(webhookProperties, statsdReporter);
+    }
+
+    @Test
+    void testOpensAfterConsecutiveFailuresForTheWholeHost() {
+        fail(URL);
+        assertNotEquals(SHORT_CIRCUITED, circuitBreakers.allowAttempt(SAME_HOST));
+        fail(SAME_HOST);
+
+        assertEquals(SHORT_CIRCUITED, circuitBreakers.allowAttempt(URL));
+        assertEquals(SHORT_CIRCUITED, circuitBreakers.allowAttempt(SAME_HOST));
+        assertNotEquals(SHORT_CIRCUITED, circuitBreakers.allowAttempt("http://other.example.com/"));
+        assertTrue(circuitBreakers.getRetryDelayMillis(URL) > 0);
+    }
+
+    @Test
+    void testSuccessResetsFailures() {
+        fail(URL);
+        circuitBreakers.onResult(URL, circuitBreakers.allowAttempt(URL), true);
+        fail(URL);
+        assertNotEquals(SHORT_CIRCUITED, circuitBreakers.allowAttempt(URL));
+    }
+
+    @Test
+    void testOnlyOneProbeUntilItsResult() throws Exception {
+        fail(URL);
+        fail(URL);
+        assertEquals(SHORT_CIRCUITED, circuitBreakers.allowAttempt(URL));
+
+        Thread.sleep(1100);
+        long probe = circuitBreakers.allowAttempt(URL);
+        assertNotEquals(SHORT_CIRCUITED, probe);
+        assertEquals(SHORT_CIRCUITED, circuitBreakers.allowAttempt(SAME_HOST));
+        assertEquals(SHORT_CIRCUITED, circuitBreakers.allowAttempt(URL));
+
+        circuitBreakers.onResult(URL, probe, true);
+        assertNotEquals(SHORT_CIRCUITED, circuitBreakers.allowAttempt(URL));
+        assertNotEquals(SHORT_CIRCUITED, circuitBreakers.allowAttempt(SAME_HOST));
+    }
+
+    @Test
+    void testOldAttemptsDoNotChangeTheHalfOpenCircuit() throws Exception {
+        long oldSuccess = circuitBreakers.allowAttempt(URL);
+        long oldFailure = circuitBreakers.allowAttempt(URL);
+        fail(URL);
+        fail(URL);
+
+        Thread.sleep(1100);
+        long probe = circuitBreakers.allowAttempt(URL);
+        assertNotEquals(SHORT_CIRCUITED, probe);
+
+        circuitBreakers.onResult(URL, oldSuccess, true);
+        assertEquals(SHORT_CIRCUITED, circuitBreakers.allowAttempt(URL));
+        circuitBreakers.onResult(URL, oldFailure, false);
+        assertEquals(SHORT_CIRCUITED, circuitBreakers.allowAttempt(URL));
+        verify(statsdReporter, times(1)).incrementCounter("webhook.circuit.open", "host:callback.example.com:8080");
+
+        circuitBreakers.onResult(URL, probe, true);
+        assertNotEquals(SHORT_CIRCUITED, circuitBreakers.allowAttempt(URL));
+    }
+
+    private void fail(String url) {
+        circuitBreakers.onResult(url, circuitBreakers.allowAttempt(url), false);
+    }
+
+    @Test
+    void testHost() {
+        assertEquals("callback.example.com:8080", CallbackCircuitBreakers.getHost(SAME_HOST));
+        assertEquals("callback.example.com:443", CallbackCircuitBreakers.getHost("https://callback.example.com/path"));
+    }
+}
@@ -0,0 +1,170 @@
+package com.flightstats.hub.webhook;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightstats.hub.app.HubServices;
+import com.flightstats.hub.cluster.CuratorCluster;
+import com.flightstats.hub.config.properties.LocalHostProperties;
+import com.flightstats.hub.config.properties.WebhookProperties;
+import com.flightstats.hub.dao.Dao;
+import com.flightstats.hub.dao.aws.LatestKeyCache;
+import com.flightstats.hub.model.ContentKey;
+import com.flightstats.hub.webhook.strategy.ChannelKeyFeed;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InsertNotifierTest {
+
+    private static final String CHANNEL = "notified";
+    private static final String LOCAL = "10.0.0.1:8080";
+    private static final String LOCAL_NAME = "hub-01:8080";
+    private static final String REMOTE = "10.0.0.2:8080";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private ChannelKeyFeed channelKeyFeed;
+    @Mock
+    private Dao<Webhook> webhookDao;
+    @Mock
+    private WebhookLeaderState webhookLeaderState;
+    @Mock
+    private InternalWebhookClient webhookClient;
+    @Mock
+    private LatestKeyCache latestKeyCache;
+    @Mock
+    private CuratorCluster hubCluster;
+    @Mock
+    private LocalHostProperties localHostProperties;
+    @Mock
+    private WebhookProperties webhookProperties;
+
+    @BeforeEach
+    void setUp() {
+        HubServices.clear();
+        when(localHostProperties.getAddressWithPort()).thenReturn(LOCAL);
+        when(localHostProperties.getNameWithPort()).thenReturn(LOCAL_NAME);
+        when(webhookProperties.isInsertNotifyEnabled()).thenReturn(true);
+        when(webhookProperties.getInsertNotifyLeaderCacheSeconds()).thenReturn(30);
+        when(webhookProperties.getInsertNotifyFlushMillis()).thenReturn(100);
+        when(webhookProperties.getInsertNotifyThreads()).thenReturn(5);
+    }
+
+    @Test
+    void testOneBatchPerServerWithLatestKeys() throws Exception {
+        ContentKey key = new ContentKey();
+        when(latestKeyCache.isEnabled()).thenReturn(true);
+        when(latestKeyCache.drainPending()).thenReturn(Collections.singletonMap(CHANNEL, Collections.singletonList(key)));
+        when(hubCluster.getAllServers()).thenReturn(newHashSet(LOCAL_NAME, "hub-02:8080", "hub-03:8080"));
+
+        InsertNotifier insertNotifier = getInsertNotifier();
+        insertNotifier.inserted(CHANNEL, key);
+        insertNotifier.flush();
+
+        ArgumentCaptor<String> inserts = ArgumentCaptor.forClass(String.class);
+        verify(webhookClient, timeout(1000)).inserted(eq("hub-02:8080"), inserts.capture());
+        verify(webhookClient, timeout(1000)).inserted(eq("hub-03:8080"), anyString());
+        verify(webhookClient, never()).inserted(eq(LOCAL_NAME), anyString());
+        verify(webhookDao, never()).getAll(anyBoolean());
+        JsonNode channel = objectMapper.readTree(inserts.getValue()).get(CHANNEL);
+        assertEquals(key.getMillis(), channel.get("millis").asLong());
+        assertEquals(key.toUrl(), channel.get("keys").get(0).asText());
+    }
+
+    @Test
+    void testWebhookLeadersOnlyWithoutLatestCache() throws Exception {
+        ContentKey key = new ContentKey();
+        when(latestKeyCache.isEnabled()).thenReturn(false);
+        when(latestKeyCache.drainPending()).thenReturn(Collections.emptyMap());
+        Webhook webhook = Webhook.builder().name("leader").channelUrl("http://hub/channel/" + CHANNEL).build();
+        when(webhookDao.getAll(true)).thenReturn(Collections.singletonList(webhook));
+        when(webhookLeaderState.getState("leader")).thenReturn(WebhookLeaderState.RunningState.builder()
+                .leadershipAcquired(true)
+                .runningServers(newHashSet(LOCAL, REMOTE))
+                .build());
+
+        InsertNotifier insertNotifier = getInsertNotifier();
+        insertNotifier.inserted(CHANNEL, key);
+        insertNotifier.flush();
+
+        ArgumentCaptor<String> inserts = ArgumentCaptor.forClass(String.class);
+        verify(webhookClient, timeout(1000)).inserted(eq(REMOTE), inserts.capture());
+        verify(webhookClient, after(100).times(1)).inserted(anyString(), anyString());
+        JsonNode channel = objectMapper.readTree(inserts.getValue()).get(CHANNEL);
+        assertEquals(key.getMillis(), channel.get("millis").asLong());
+        assertFalse(channel.has("keys"));
+    }
+
+    @Test
+    void testNothingToSend() {
+        when(latestKeyCache.drainPending()).thenReturn(Collections.emptyMap());
+
+        getInsertNotifier().flush();
+
+        verify(webhookClient, after(100).never()).inserted(anyString(), anyString());
+    }
+
+    @Test
+    void testSlowServerGetsTheNextBatchesMergedOnceItAnswers() throws Exception {
+        ContentKey first = new ContentKey();
+        ContentKey second = new ContentKey(first.getTime().plusSeconds(1), "second");
+        ContentKey third = new ContentKey(first.getTime().plusSeconds(2), "third");
+        when(latestKeyCache.isEnabled()).thenReturn(true);
+        when(latestKeyCache.drainPending()).thenReturn(
+                Collections.singletonMap(CHANNEL, Collections.singletonList(first)),
+                Collections.singletonMap(CHANNEL, Collections.singletonList(second)),
+                Collections.singletonMap(CHANNEL, Collections.singletonList(third)));
+        when(hubCluster.getAllServers()).thenReturn(newHashSet("slow:8080", "fast:8080"));
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(webhookClient.inserted(eq("slow:8080"), anyString())).thenAnswer(invocation -> {
+            slowStarted.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        });
+
+        InsertNotifier insertNotifier = getInsertNotifier();
+        insertNotifier.flush();
+        assertTrue(slowStarted.await(1, TimeUnit.SECONDS));
+        insertNotifier.flush();
+        insertNotifier.flush();
+
+        verify(webhookClient, timeout(1000).times(3)).inserted(eq("fast:8080"), anyString());
+        verify(webhookClient, times(1)).inserted(eq("slow:8080"), anyString());
+        release.countDown();
+
+        ArgumentCaptor<String> inserts = ArgumentCaptor.forClass(String.class);
+        verify(webhookClient, timeout(1000).times(2)).inserted(eq("slow:8080"), inserts.capture());
+        JsonNode keys = objectMapper.readTree(inserts.getAllValues().get(1)).get(CHANNEL).get("keys");
+        assertEquals(2, keys.size());
+        assertEquals(second.toUrl(), keys.get(0).asText());
+        assertEquals(third.toUrl(), keys.get(1).asText());
+    }
+
+    private InsertNotifier getInsertNotifier() {
+        return new InsertNotifier(channelKeyFeed, webhookDao, webhookLeaderState, webhookClient, objectMapper,
+                latestKeyCache, hubCluster, localHostProperties, webhookProperties);
+    }
+}
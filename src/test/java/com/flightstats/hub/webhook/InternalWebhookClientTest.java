@@ -1,5 +1,6 @@
 package com.flightstats.hub.webhook;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flightstats.hub.cluster.CuratorCluster;
 import com.flightstats.hub.config.properties.LocalHostProperties;
 import com.sun.jersey.api.client.Client;
@@ -43,16 +44,16 @@ class InternalWebhookClientTest {
     @BeforeEach
     void setup() {
         when(localHostProperties.getUriScheme()).thenReturn("http://");
-        internalWebhookClient = new InternalWebhookClient(hubCluster, restClient, localHostProperties);
+        internalWebhookClient = new InternalWebhookClient(hubCluster, restClient, localHostProperties, new ObjectMapper());
         reset(restClient);
     }
 
     @Test
     void testRunOnServerWithFewestWebhooks() {
         when(hubCluster.getRandomServers()).thenReturn(newArrayList(SERVER1, SERVER3, SERVER2));
-        mockServerWebhookCountEndpoint(SERVER2, 6);
-        mockServerWebhookCountEndpoint(SERVER1, 1);
-        mockServerWebhookCountEndpoint(SERVER3, 2);
+        mockServerWebhookLoadEndpoint(SERVER2, 6);
+        mockServerWebhookLoadEndpoint(SERVER1, 1);
+        mockServerWebhookLoadEndpoint(SERVER3, 2);
 
         mockWebhookRunEndpoint(SERVER1, true);
 
@@ -68,9 +69,9 @@ class InternalWebhookClientTest {
     @Test
     void testRunOnServerWithFewestWebhooks_withFailureFromServerWithFewest() {
         when(hubCluster.getRandomServers()).thenReturn(newArrayList(SERVER1, SERVER3, SERVER2));
-        mockServerWebhookCountEndpoint(SERVER2, 6);
-        mockServerWebhookCountEndpoint(SERVER1, 1);
-        mockServerWebhookCountEndpoint(SERVER3, 2);
+        mockServerWebhookLoadEndpoint(SERVER2, 6);
+        mockServerWebhookLoadEndpoint(SERVER1, 1);
+        mockServerWebhookLoadEndpoint(SERVER3, 2);
 
         mockWebhookRunEndpoint(SERVER1, false);
         mockWebhookRunEndpoint(SERVER3, true);
@@ -87,9 +88,9 @@ class InternalWebhookClientTest {
     @Test
     void testRunOnServerWithFewestWebhooks_picksOneIfServersAreTied() {
         when(hubCluster.getRandomServers()).thenReturn(newArrayList(SERVER1, SERVER3, SERVER2));
-        mockServerWebhookCountEndpoint(SERVER2, 6);
-        mockServerWebhookCountEndpoint(SERVER1, 1);
-        mockServerWebhookCountEndpoint(SERVER3, 1);
+        mockServerWebhookLoadEndpoint(SERVER2, 6);
+        mockServerWebhookLoadEndpoint(SERVER1, 1);
+        mockServerWebhookLoadEndpoint(SERVER3, 1);
 
         mockWebhookRunEndpoint(SERVER1, true);
 
@@ -103,11 +104,11 @@ class InternalWebhookClientTest {
     }
 
     @Test
-    void testRunOnServerWithFewestWebhooks_picksOneEvenIfACountRequestFails() {
+    void testRunOnServerWithFewestWebhooks_picksOneEvenIfALoadRequestFails() {
         when(hubCluster.getRandomServers()).thenReturn(newArrayList(SERVER1, SERVER3, SERVER2));
-        mockFailedServerWebhookCountEndpoint(SERVER1);
-        mockServerWebhookCountEndpoint(SERVER2, 6);
-        mockServerWebhookCountEndpoint(SERVER3, 2);
+        mockFailedServerWebhookLoadEndpoint(SERVER1);
+        mockServerWebhookLoadEndpoint(SERVER2, 6);
+        mockServerWebhookLoadEndpoint(SERVER3, 2);
 
         mockWebhookRunEndpoint(SERVER3, true);
 
@@ -123,9 +124,9 @@ class InternalWebhookClientTest {
     @Test
     void testRunOnServerWithFewestWebhooks_returnsEmptyIfAllServersFailToRun() {
         when(hubCluster.getRandomServers()).thenReturn(newArrayList(SERVER1, SERVER3, SERVER2));
-        mockServerWebhookCountEndpoint(SERVER1, 1);
-        mockServerWebhookCountEndpoint(SERVER2, 6);
-        mockServerWebhookCountEndpoint(SERVER3, 2);
+        mockServerWebhookLoadEndpoint(SERVER1, 1);
+        mockServerWebhookLoadEndpoint(SERVER2, 6);
+        mockServerWebhookLoadEndpoint(SERVER3, 2);
 
         mockWebhookRunEndpoint(SERVER1, false);
         mockWebhookRunEndpoint(SERVER2, false);
@@ -210,10 +211,10 @@ class InternalWebhookClientTest {
     @Test
     void testRunOnOnlyOneServer_whenRunningServersFailToRun_attemptsToRunOnServerWithFewestWebhooksThatHasNotBeenTried() {
         when(hubCluster.getRandomServers()).thenReturn(newArrayList(SERVER1, SERVER4, SERVER2, SERVER3));
-        mockServerWebhookCountEndpoint(SERVER4, 6);
-        mockServerWebhookCountEndpoint(SERVER3, 1);
-        mockFailedServerWebhookCountEndpoint(SERVER2);
-        mockFailedServerWebhookCountEndpoint(SERVER1);
+        mockServerWebhookLoadEndpoint(SERVER4, 6);
+        mockServerWebhookLoadEndpoint(SERVER3, 1);
+        mockFailedServerWebhookLoadEndpoint(SERVER2);
+        mockFailedServerWebhookLoadEndpoint(SERVER1);
 
         mockWebhookRunEndpoint(SERVER2, false);
         mockWebhookRunEndpoint(SERVER1, false);
@@ -284,23 +285,23 @@ class InternalWebhookClientTest {
         verify(restClient).resource(stopUrl(SERVER3));
     }
 
-    private void mockServerWebhookCountEndpoint(String server, int count) {
+    private void mockServerWebhookLoadEndpoint(String server, double load) {
         ClientResponse clientResponse = mock(ClientResponse.class);
         WebResource webResource = mock(WebResource.class);
 
         when(clientResponse.getStatus()).thenReturn(200);
-        when(clientResponse.getEntity(String.class)).thenReturn(String.valueOf(count));
+        when(clientResponse.getEntity(String.class)).thenReturn(format("{\"load\": %s}", load));
         when(webResource.get(ClientResponse.class)).thenReturn(clientResponse);
-        when(restClient.resource(countUrl(server))).thenReturn(webResource);
+        when(restClient.resource(loadUrl(server))).thenReturn(webResource);
     }
 
-    private void mockFailedServerWebhookCountEndpoint(String server) {
+    private void mockFailedServerWebhookLoadEndpoint(String server) {
         ClientResponse clientResponse = mock(ClientResponse.class);
         WebResource webResource = mock(WebResource.class);
 
         when(clientResponse.getStatus()).thenReturn(500);
         when(webResource.get(ClientResponse.class)).thenReturn(clientResponse);
-        when(restClient.resource(countUrl(server))).thenReturn(webResource);
+        when(restClient.resource(loadUrl(server))).thenReturn(webResource);
     }
 
     private void mockWebhookRunEndpoint(String server, boolean success) {
@@ -325,8 +326,8 @@ class InternalWebhookClientTest {
         return format("http://%s/internal/webhook/run/%s", server, WEBHOOK_NAME);
     }
 
-    private String countUrl(String server) {
-        return format("http://%s/internal/webhook/count", server);
+    private String loadUrl(String server) {
+        return format("http://%s/internal/webhook/load", server);
     }
 
     private String stopUrl(String server) {
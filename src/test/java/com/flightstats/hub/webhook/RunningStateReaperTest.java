@@ -2,7 +2,9 @@ package com.flightstats.hub.webhook;
 
 import com.flightstats.hub.cluster.ClusterCacheDao;
 import com.flightstats.hub.config.properties.AppProperties;
+import com.flightstats.hub.config.properties.PropertiesLoader;
 import com.flightstats.hub.config.properties.WebhookProperties;
+import com.flightstats.hub.config.properties.ZooKeeperProperties;
 import com.flightstats.hub.dao.ChannelService;
 import com.flightstats.hub.model.ContentKey;
 import com.flightstats.hub.test.IntegrationTestSetup;
@@ -66,7 +68,7 @@ class RunningStateReaperTest {
 
         when(webhookProperties.isWebhookLeadershipEnabled()).thenReturn(true);
         webhookLeaderLocks = new WebhookLeaderLocks(zooKeeperUtils);
-        clusterCacheDao = new ClusterCacheDao(curator, appProperties);
+        clusterCacheDao = new ClusterCacheDao(curator, appProperties, new ZooKeeperProperties(PropertiesLoader.getInstance()));
         webhookErrorService = new WebhookErrorService(webhookErrorRepository, webhookErrorPruner, channelService);
         contentKeysInFlight = new WebhookContentInFlight(zooKeeperUtils);
     }
@@ -0,0 +1,48 @@
+package com.flightstats.hub.webhook;
+
+import com.flightstats.hub.metrics.StatsdReporter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class WebhookConcurrencyLimiterTest {
+
+    private final StatsdReporter statsdReporter = mock(StatsdReporter.class);
+
+    @Test
+    void testFailureBacksOffOncePerRoundTrip() {
+        WebhookConcurrencyLimiter limiter = new WebhookConcurrencyLimiter("name", 8, true, 2.0, 0.5, statsdReporter);
+        long start = System.currentTimeMillis() - 10;
+
+        limiter.onAttempt(start, false);
+        assertEquals(4, limiter.getLimit());
+        limiter.onAttempt(start, false);
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void testSuccessGrowsUpToParallelCalls() {
+        WebhookConcurrencyLimiter limiter = new WebhookConcurrencyLimiter("name", 4, true, 2.0, 0.5, statsdReporter);
+        limiter.onAttempt(System.currentTimeMillis() - 10, false);
+        assertEquals(2, limiter.getLimit());
+
+        for (int i = 0; i < 20; i++) {
+            limiter.onAttempt(System.currentTimeMillis(), true);
+        }
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void testNotAdaptiveKeepsParallelCalls() throws Exception {
+        WebhookConcurrencyLimiter limiter = new WebhookConcurrencyLimiter("name", 2, false, 2.0, 0.5, statsdReporter);
+        limiter.onAttempt(System.currentTimeMillis() - 10, false);
+        assertEquals(2, limiter.getLimit());
+
+        limiter.acquire();
+        limiter.acquire();
+        assertEquals(2, limiter.getInFlight());
+        limiter.release();
+        assertEquals(1, limiter.getInFlight());
+    }
+}
@@ -1,30 +1,44 @@
 package com.flightstats.hub.webhook;
 
 import com.flightstats.hub.app.HubServices;
+import com.flightstats.hub.cluster.ChangeLog;
 import com.flightstats.hub.cluster.ClusterCacheDao;
+import com.flightstats.hub.cluster.CuratorCluster;
 import com.flightstats.hub.cluster.WatchManager;
+import com.flightstats.hub.cluster.Watcher;
+import com.flightstats.hub.config.properties.LocalHostProperties;
 import com.flightstats.hub.config.properties.WebhookProperties;
 import com.flightstats.hub.dao.Dao;
+import com.flightstats.hub.metrics.StatsdReporter;
 import com.google.common.util.concurrent.Service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import static com.google.common.collect.Sets.newHashSet;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
 import static junit.framework.Assert.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -52,6 +66,14 @@ class WebhookCoordinatorTest {
     private Dao<Webhook> webhookDao;
     @Mock
     private WebhookProperties webhookProperties;
+    @Mock
+    private WebhookRebalancer webhookRebalancer;
+    @Mock
+    private CuratorCluster hubCluster;
+    @Mock
+    private LocalHostProperties localHostProperties;
+    @Mock
+    private StatsdReporter statsdReporter;
 
 
     private static final String SERVER1 = "123.1.1";
@@ -203,6 +225,94 @@ class WebhookCoordinatorTest {
         services.forEach((type, svcs) -> assertTrue(type + " has services registered", svcs.isEmpty()));
     }
 
+    @Test
+    void testIncrementalPass_onlyIncludesChangedOrDepartedWebhooks() {
+        when(webhookLeaderState.getState(WEBHOOK_NAME))
+                .thenReturn(getStateRunningOn(newHashSet(SERVER1)));
+
+        WebhookCoordinator webhookCoordinator = getWebhookCoordinator();
+        Webhook webhook = getUnpausedWebhook();
+        assertEquals(1, webhookCoordinator.getChanged(singletonList(webhook), emptySet()).size());
+
+        webhookCoordinator.reconcile(webhook);
+
+        assertTrue(webhookCoordinator.getChanged(singletonList(webhook), newHashSet(SERVER2)).isEmpty());
+        assertEquals(1, webhookCoordinator.getChanged(singletonList(webhook), newHashSet(SERVER1)).size());
+        assertEquals(1, webhookCoordinator.getChanged(singletonList(getPausedWebhook()), emptySet()).size());
+    }
+
+    @Test
+    void testAnnouncedDeparture_restartsWebhooksFromTheDepartedServer() {
+        Webhook webhook = getUnpausedWebhook();
+        when(webhookDao.getAll(anyBoolean())).thenReturn(singletonList(webhook));
+        when(webhookLeaderState.getState(WEBHOOK_NAME))
+                .thenReturn(getStateRunningOn(newHashSet(SERVER1)))
+                .thenReturn(getNotRunningState());
+
+        getWebhookCoordinator();
+        Service service = startCoordinatorService();
+        ArgumentCaptor<Watcher> watcher = ArgumentCaptor.forClass(Watcher.class);
+        verify(watchManager).register(watcher.capture());
+        ArgumentCaptor<Consumer<String>> removedListener = captureRemovedListener();
+
+        ChangeLog changeLog = mock(ChangeLog.class);
+        when(changeLog.getSequence()).thenReturn(2L);
+        when(changeLog.since(0L)).thenReturn(Optional.of(asList(SERVER1, "hub-01:8080")));
+        when(watchManager.getChangeLog(WebhookCoordinator.WATCHER_PATH)).thenReturn(Optional.of(changeLog));
+        watcher.getValue().callback(null);
+
+        verify(webhookClient, timeout(5000)).runOnServerWithFewestWebhooks(WEBHOOK_NAME);
+        verify(webhookDao).getAll(true);
+
+        removedListener.getValue().accept("hub-01:8080");
+        verify(webhookDao).getAll(false);
+        service.stopAsync().awaitTerminated();
+    }
+
+    @Test
+    void testUnannouncedDeparture_runsAFullPass() {
+        Webhook webhook = getUnpausedWebhook();
+        when(webhookDao.getAll(anyBoolean())).thenReturn(singletonList(webhook));
+        when(webhookLeaderState.getState(WEBHOOK_NAME))
+                .thenReturn(getStateRunningOn(newHashSet(SERVER1)))
+                .thenReturn(getNotRunningState());
+
+        getWebhookCoordinator();
+        Service service = startCoordinatorService();
+        captureRemovedListener().getValue().accept("hub-02:8080");
+
+        verify(webhookDao, timeout(5000).times(2)).getAll(false);
+        verify(webhookDao, never()).getAll(true);
+        verify(webhookClient, timeout(5000)).runOnServerWithFewestWebhooks(WEBHOOK_NAME);
+        service.stopAsync().awaitTerminated();
+    }
+
+    @Test
+    void testStopping_announcesBothServerIds() {
+        when(localHostProperties.getAddressWithPort()).thenReturn(SERVER1);
+        when(localHostProperties.getNameWithPort()).thenReturn("hub-01:8080");
+
+        getWebhookCoordinator();
+        startCoordinatorService().stopAsync().awaitTerminated();
+
+        verify(localWebhookRunner).stopAll();
+        verify(watchManager).notifyWatcher(WebhookCoordinator.WATCHER_PATH, SERVER1);
+        verify(watchManager).notifyWatcher(WebhookCoordinator.WATCHER_PATH, "hub-01:8080");
+    }
+
+    private Service startCoordinatorService() {
+        Service service = HubServices.getServices().get(HubServices.TYPE.PRE_STOP).get(0);
+        service.startAsync().awaitRunning();
+        return service;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<Consumer<String>> captureRemovedListener() {
+        ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(hubCluster).addRemovedListener(listener.capture());
+        return listener;
+    }
+
     private Webhook getUnpausedWebhook() {
         return Webhook.builder()
                 .name(WEBHOOK_NAME)
@@ -228,7 +338,11 @@ class WebhookCoordinatorTest {
                 webhookLeaderState,
                 webhookProperties,
                 watchManager,
-                webhookDao);
+                webhookDao,
+                webhookRebalancer,
+                hubCluster,
+                localHostProperties,
+                statsdReporter);
     }
 
     private WebhookLeaderState.RunningState getStateRunningOn(Set<String> servers) {
@@ -0,0 +1,115 @@
+package com.flightstats.hub.webhook;
+
+import com.flightstats.hub.config.properties.LocalHostProperties;
+import com.flightstats.hub.config.properties.WebhookProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookRebalancerTest {
+
+    private static final String LOCAL = "hub-01:8080";
+    private static final String REMOTE = "hub-02:8080";
+
+    @Mock
+    private LocalWebhookRunner localWebhookRunner;
+    @Mock
+    private InternalWebhookClient webhookClient;
+    @Mock
+    private LocalHostProperties localHostProperties;
+    @Mock
+    private WebhookProperties webhookProperties;
+
+    private WebhookRebalancer webhookRebalancer;
+
+    @BeforeEach
+    void setUp() {
+        when(localHostProperties.getNameWithPort()).thenReturn(LOCAL);
+        when(webhookProperties.getRebalanceThreshold()).thenReturn(0.25);
+        when(webhookProperties.getRebalanceMaxMoves()).thenReturn(3);
+        webhookRebalancer = new WebhookRebalancer(localWebhookRunner, webhookClient, localHostProperties, webhookProperties);
+    }
+
+    @Test
+    void testMovesLeaderWhichDoesNotOvershoot() {
+        when(webhookClient.getLoads()).thenReturn(loads(REMOTE, 2));
+        when(localWebhookRunner.getLoads()).thenReturn(webhookLoads("a", 5, "b", 3, "c", 1, "d", 1));
+        when(webhookClient.runOnOneServer("b", Collections.singletonList(REMOTE))).thenReturn(Optional.of(REMOTE));
+
+        assertEquals(1, webhookRebalancer.rebalance());
+
+        verify(localWebhookRunner).stop("b");
+        verify(localWebhookRunner, never()).stop("a");
+    }
+
+    @Test
+    void testLocalServerFromTheClusterIsCountedOnce() {
+        when(webhookClient.getLoads()).thenReturn(loads(LOCAL, 0, REMOTE, 2));
+        when(localWebhookRunner.getLoads()).thenReturn(webhookLoads("a", 5, "b", 3, "c", 1, "d", 1));
+        when(webhookClient.runOnOneServer("b", Collections.singletonList(REMOTE))).thenReturn(Optional.of(REMOTE));
+
+        assertEquals(1, webhookRebalancer.rebalance());
+
+        verify(localWebhookRunner).stop("b");
+        verify(webhookClient, never()).runOnOneServer(anyString(), eq(Collections.singletonList(LOCAL)));
+    }
+
+    @Test
+    void testBalancedClusterIsLeftAlone() {
+        when(webhookClient.getLoads()).thenReturn(loads(REMOTE, 4));
+        when(localWebhookRunner.getLoads()).thenReturn(webhookLoads("a", 2, "b", 3));
+
+        assertEquals(0, webhookRebalancer.rebalance());
+
+        verify(localWebhookRunner, never()).stop(anyString());
+        verify(webhookClient, never()).runOnOneServer(anyString(), any());
+    }
+
+    @Test
+    void testFailedMoveRestartsLocally() {
+        when(webhookClient.getLoads()).thenReturn(loads(REMOTE, 0));
+        when(localWebhookRunner.getLoads()).thenReturn(webhookLoads("a", 4, "b", 1));
+        when(webhookClient.runOnOneServer(anyString(), any())).thenReturn(Optional.empty());
+        when(localWebhookRunner.ensureRunning(anyString())).thenReturn(true);
+
+        assertEquals(0, webhookRebalancer.rebalance());
+
+        verify(localWebhookRunner).ensureRunning("b");
+        verify(webhookClient, never()).runOnServerWithFewestWebhooks(anyString());
+    }
+
+    private Map<String, Double> loads(Object... serversAndLoads) {
+        Map<String, Double> loads = new HashMap<>();
+        for (int i = 0; i < serversAndLoads.length; i += 2) {
+            loads.put((String) serversAndLoads[i], ((Integer) serversAndLoads[i + 1]).doubleValue());
+        }
+        return loads;
+    }
+
+    private Map<String, WebhookLoad> webhookLoads(Object... namesAndLoads) {
+        Map<String, WebhookLoad> loads = new HashMap<>();
+        for (int i = 0; i < namesAndLoads.length; i += 2) {
+            WebhookLoad load = mock(WebhookLoad.class);
+            when(load.getLoad()).thenReturn(((Integer) namesAndLoads[i + 1]).doubleValue());
+            loads.put((String) namesAndLoads[i], load);
+        }
+        return loads;
+    }
+}
@@ -1,19 +1,30 @@
 package com.flightstats.hub.webhook;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flightstats.hub.config.properties.LocalHostProperties;
 import com.flightstats.hub.config.properties.WebhookProperties;
+import com.flightstats.hub.dao.aws.ContentRetriever;
 import com.flightstats.hub.metrics.StatsdReporter;
+import com.flightstats.hub.model.Content;
+import com.flightstats.hub.model.ContentKey;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Predicate;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class WebhookRetryerTest {
@@ -31,6 +42,12 @@ class WebhookRetryerTest {
     private LocalHostProperties localHostProperties;
     @Mock
     private StatsdReporter statsdReporter;
+    @Mock
+    private ContentRetriever contentRetriever;
+    @Mock
+    private WebhookConcurrencyLimiter concurrencyLimiter;
+    @Mock
+    private CallbackCircuitBreakers circuitBreakers;
 
     private final WebhookRetryer retryer = new WebhookRetryer(
             giveUpIfs,
@@ -40,7 +57,10 @@ class WebhookRetryerTest {
             webhookErrorService,
             webhookProperties,
             localHostProperties,
-            statsdReporter);
+            statsdReporter,
+            contentRetriever,
+            concurrencyLimiter,
+            circuitBreakers);
 
     @Test
     void testShouldGiveUpIf() {
@@ -73,4 +93,56 @@ class WebhookRetryerTest {
         assertEquals(10000, retryer.calculateSleepTimeMS(DeliveryAttempt.builder().number(4).build(), 1000, 10000));
     }
 
+    @Test
+    void testIsInlineable() {
+        when(webhookProperties.getInlinePayloadMaxBytes()).thenReturn(4);
+        WebhookRetryer inlineRetryer = WebhookRetryer.builder()
+                .connectTimeoutSeconds(connectTimeoutSeconds)
+                .readTimeoutSeconds(readTimeoutSeconds)
+                .webhookProperties(webhookProperties)
+                .build();
+        assertTrue(inlineRetryer.isInlineable(Content.builder().withData(new byte[4]).build()));
+        assertFalse(inlineRetryer.isInlineable(Content.builder().withData(new byte[5]).build()));
+        assertFalse(inlineRetryer.isInlineable(Content.builder().withData(new byte[1]).withLarge(true).build()));
+    }
+
+    @Test
+    void testIsInlineableDoesNotReadOversizedStream() {
+        when(webhookProperties.getInlinePayloadMaxBytes()).thenReturn(4);
+        WebhookRetryer inlineRetryer = WebhookRetryer.builder()
+                .webhookProperties(webhookProperties)
+                .build();
+        ByteArrayInputStream stream = new ByteArrayInputStream(new byte[5]);
+        Content content = Content.builder().withStream(stream).withContentLength(5L).build();
+        assertFalse(inlineRetryer.isInlineable(content));
+        assertEquals(5, stream.available());
+    }
+
+    @Test
+    void testSendClosesContentWhichIsNotInlined() throws Exception {
+        when(webhookProperties.getInlinePayloadMaxBytes()).thenReturn(4);
+        InputStream stream = mock(InputStream.class);
+        ContentKey key = new ContentKey();
+        when(contentRetriever.getContent("channel", key)).thenReturn(Optional.of(Content.builder()
+                .withContentKey(key)
+                .withStream(stream)
+                .withContentLength(5L)
+                .build()));
+        WebhookRetryer inlineRetryer = WebhookRetryer.builder()
+                .giveUpIf(attempt -> true)
+                .webhookProperties(webhookProperties)
+                .webhookErrorService(webhookErrorService)
+                .contentRetriever(contentRetriever)
+                .build();
+        Webhook webhook = Webhook.builder()
+                .name("inline")
+                .channelUrl("http://hub/channel/channel")
+                .inlinePayload(true)
+                .build();
+
+        inlineRetryer.send(webhook, key, new ObjectMapper().createObjectNode());
+
+        verify(stream).close();
+    }
+
 }
\ No newline at end of file
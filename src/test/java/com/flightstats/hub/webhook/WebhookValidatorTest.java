@@ -105,6 +105,13 @@ class WebhookValidatorTest {
         assertThrows(InvalidRequestException.class, () -> webhookValidator.validate(webhook));
     }
 
+    @Test
+    void testInvalidMinuteInlinePayload() {
+        WebhookValidator webhookValidator = new WebhookValidator(getDefaultAppProperties(), getDefaultWebhookProperties());
+        Webhook webhook = getWebhook(builder -> builder.batch("MINUTE").inlinePayload(true));
+        assertThrows(InvalidRequestException.class, () -> webhookValidator.validate(webhook));
+    }
+
     @Test
     void testInvalidCallbackTimeout() {
         WebhookValidator webhookValidator = new WebhookValidator(getDefaultAppProperties(), getDefaultWebhookProperties());
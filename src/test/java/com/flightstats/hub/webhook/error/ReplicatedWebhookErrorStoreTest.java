@@ -0,0 +1,130 @@
+package com.flightstats.hub.webhook.error;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightstats.hub.config.properties.WebhookProperties;
+import com.flightstats.hub.util.SafeZooKeeperUtils;
+import org.apache.zookeeper.data.Stat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicatedWebhookErrorStoreTest {
+    private static final String BASE_PATH = "/WebhookErrors";
+    private static final String LEGACY_PATH = "/GroupError";
+    private static final String WEBHOOK_NAME = "webhookName";
+
+    private final SafeZooKeeperUtils zooKeeperUtils = mock(SafeZooKeeperUtils.class);
+    private final WebhookErrorRepository.ErrorNodeNameGenerator errorNameGenerator = mock(WebhookErrorRepository.ErrorNodeNameGenerator.class);
+    private final WebhookProperties webhookProperties = mock(WebhookProperties.class);
+    private ReplicatedWebhookErrorStore errorStore;
+
+    @BeforeEach
+    void setup() {
+        AtomicInteger count = new AtomicInteger();
+        when(errorNameGenerator.generateName()).thenAnswer(invocation -> "error" + count.incrementAndGet());
+        when(webhookProperties.getErrorsFlushSeconds()).thenReturn(5);
+        when(webhookProperties.getErrorsLocalSeconds()).thenReturn(60);
+        when(zooKeeperUtils.getData(BASE_PATH, WEBHOOK_NAME)).thenReturn(Optional.empty());
+        errorStore = new ReplicatedWebhookErrorStore(zooKeeperUtils, new ObjectMapper(), errorNameGenerator,
+                new WebhookErrorRepository(zooKeeperUtils, errorNameGenerator), webhookProperties);
+    }
+
+    @Test
+    void testRingIsBounded() {
+        for (int i = 0; i < WebhookErrorPruner.MAX_SIZE + 5; i++) {
+            errorStore.add(WEBHOOK_NAME, "error " + i);
+        }
+        List<WebhookError> errors = errorStore.getErrors(WEBHOOK_NAME);
+        assertEquals(WebhookErrorPruner.MAX_SIZE, errors.size());
+        assertEquals("error 5", errors.get(0).getData());
+        verify(zooKeeperUtils, times(1)).getData(BASE_PATH, WEBHOOK_NAME);
+    }
+
+    @Test
+    void testFlushWritesOnceAndReplicates() {
+        errorStore.add(WEBHOOK_NAME, "first");
+        errorStore.add(WEBHOOK_NAME, "second");
+        errorStore.flush();
+        errorStore.flush();
+
+        ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+        verify(zooKeeperUtils, times(1)).setData(captor.capture(), eq(BASE_PATH), eq(WEBHOOK_NAME));
+        String json = new String(captor.getValue(), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"first\""));
+        assertTrue(json.contains("\"second\""));
+
+        SafeZooKeeperUtils otherZooKeeper = mock(SafeZooKeeperUtils.class);
+        when(otherZooKeeper.getData(BASE_PATH, WEBHOOK_NAME)).thenReturn(Optional.of(json));
+        ReplicatedWebhookErrorStore otherStore = new ReplicatedWebhookErrorStore(otherZooKeeper, new ObjectMapper(), errorNameGenerator,
+                new WebhookErrorRepository(otherZooKeeper, errorNameGenerator), webhookProperties);
+        List<WebhookError> errors = otherStore.getErrors(WEBHOOK_NAME);
+        assertEquals(2, errors.size());
+        assertEquals("error1", errors.get(0).getName());
+        assertEquals("second", errors.get(1).getData());
+    }
+
+    @Test
+    void testDeleteLocalErrorWritesThrough() {
+        errorStore.add(WEBHOOK_NAME, "first");
+        errorStore.add(WEBHOOK_NAME, "second");
+        errorStore.delete(WEBHOOK_NAME, "error1");
+
+        ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+        verify(zooKeeperUtils).setData(captor.capture(), eq(BASE_PATH), eq(WEBHOOK_NAME));
+        String json = new String(captor.getValue(), StandardCharsets.UTF_8);
+        assertFalse(json.contains("\"first\""));
+
+        when(zooKeeperUtils.getData(BASE_PATH, WEBHOOK_NAME)).thenReturn(Optional.of(json));
+        List<WebhookError> errors = errorStore.getErrors(WEBHOOK_NAME);
+        assertEquals(1, errors.size());
+        assertEquals("second", errors.get(0).getData());
+
+        errorStore.flush();
+        verify(zooKeeperUtils, times(1)).setData(any(), eq(BASE_PATH), eq(WEBHOOK_NAME));
+    }
+
+    @Test
+    void testMigratesLegacyErrors() {
+        Stat stat = new Stat();
+        stat.setCtime(1_500_000_000_000L);
+        when(zooKeeperUtils.getChildren(LEGACY_PATH)).thenReturn(Collections.singletonList(WEBHOOK_NAME));
+        when(zooKeeperUtils.getChildren(LEGACY_PATH, WEBHOOK_NAME)).thenReturn(Collections.singletonList("legacy1"));
+        when(zooKeeperUtils.getDataWithStat(LEGACY_PATH, WEBHOOK_NAME, "legacy1"))
+                .thenReturn(Optional.of(SafeZooKeeperUtils.DataWithStat.builder().data("old error").stat(stat).build()));
+
+        errorStore.migrateLegacyErrors();
+
+        ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+        verify(zooKeeperUtils).setData(captor.capture(), eq(BASE_PATH), eq(WEBHOOK_NAME));
+        assertTrue(new String(captor.getValue(), StandardCharsets.UTF_8).contains("\"old error\""));
+        verify(zooKeeperUtils, atLeastOnce()).deletePathAndChildren(LEGACY_PATH, WEBHOOK_NAME);
+    }
+
+    @Test
+    void testDeleteWebhook() {
+        errorStore.add(WEBHOOK_NAME, "first");
+        errorStore.deleteWebhook(WEBHOOK_NAME);
+        errorStore.flush();
+        verify(zooKeeperUtils).deletePathAndChildren(BASE_PATH, WEBHOOK_NAME);
+        verify(zooKeeperUtils).deletePathAndChildren(LEGACY_PATH, WEBHOOK_NAME);
+        verify(zooKeeperUtils, never()).setData(any(), eq(BASE_PATH), eq(WEBHOOK_NAME));
+    }
+}
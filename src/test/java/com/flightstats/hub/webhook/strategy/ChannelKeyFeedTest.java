@@ -0,0 +1,116 @@
+package com.flightstats.hub.webhook.strategy;
+
+import com.flightstats.hub.config.properties.WebhookProperties;
+import com.flightstats.hub.dao.aws.ContentRetriever;
+import com.flightstats.hub.exception.NoSuchChannelException;
+import com.flightstats.hub.model.ContentKey;
+import com.flightstats.hub.model.Epoch;
+import com.flightstats.hub.model.TimeQuery;
+import com.flightstats.hub.util.TimeUtil;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChannelKeyFeedTest {
+
+    private static final DateTime START = new DateTime(2019, 5, 7, 11, 5, 1, 0, DateTimeZone.UTC);
+
+    @Mock
+    private ContentRetriever contentRetriever;
+    @Mock
+    private WebhookProperties webhookProperties;
+
+    private ChannelKeyFeed channelKeyFeed;
+
+    @BeforeEach
+    void setUp() {
+        when(webhookProperties.getChannelFeedMaxBuckets()).thenReturn(100);
+        when(webhookProperties.getChannelFeedTtlSeconds()).thenReturn(60);
+        channelKeyFeed = new ChannelKeyFeed(contentRetriever, webhookProperties);
+    }
+
+    @Test
+    void testSameBucketIsQueriedOnce() {
+        SortedSet<ContentKey> keys = new TreeSet<>();
+        keys.add(new ContentKey(START, "abc"));
+        when(contentRetriever.queryByTime(any(TimeQuery.class))).thenReturn(keys);
+
+        assertEquals(keys, channelKeyFeed.queryByTime(buildQuery("channel", START)));
+        assertEquals(keys, channelKeyFeed.queryByTime(buildQuery("Channel", START)));
+        verify(contentRetriever, times(1)).queryByTime(any(TimeQuery.class));
+
+        channelKeyFeed.queryByTime(buildQuery("channel", START.plusSeconds(1)));
+        verify(contentRetriever, times(2)).queryByTime(any(TimeQuery.class));
+    }
+
+    @Test
+    void testExceptionIsUnwrapped() {
+        when(contentRetriever.queryByTime(any(TimeQuery.class))).thenThrow(new NoSuchChannelException("channel"));
+        assertThrows(NoSuchChannelException.class, () -> channelKeyFeed.queryByTime(buildQuery("channel", START)));
+    }
+
+    @Test
+    void testPrefetchedBucketIsQueriedOnce() {
+        when(webhookProperties.getChannelFeedLookaheadThreads()).thenReturn(2);
+        ChannelKeyFeed prefetchingFeed = new ChannelKeyFeed(contentRetriever, webhookProperties);
+        SortedSet<ContentKey> keys = new TreeSet<>();
+        keys.add(new ContentKey(START, "abc"));
+        when(contentRetriever.queryByTime(any(TimeQuery.class))).thenReturn(keys);
+
+        prefetchingFeed.prefetch(Collections.singletonList(buildQuery("channel", START)));
+        assertEquals(keys, prefetchingFeed.queryByTime(buildQuery("channel", START)));
+        verify(contentRetriever, timeout(1000).times(1)).queryByTime(any(TimeQuery.class));
+    }
+
+    @Test
+    void testAwaitInsertWakesOnNewerInsert() throws Exception {
+        ChannelKeyFeed notifyingFeed = notifyingFeed(60_000);
+        notifyingFeed.inserted("Channel", START.plusSeconds(2).getMillis());
+
+        long start = System.currentTimeMillis();
+        long notified = notifyingFeed.awaitInsert("channel", START, 0);
+        assertEquals(START.plusSeconds(2).getMillis(), notified);
+        assertTrue(System.currentTimeMillis() - start < 60_000);
+    }
+
+    @Test
+    void testAwaitInsertIgnoresOlderInsert() throws Exception {
+        ChannelKeyFeed notifyingFeed = notifyingFeed(10);
+        notifyingFeed.inserted("channel", START.minusSeconds(1).getMillis());
+
+        assertEquals(7, notifyingFeed.awaitInsert("channel", START, 7));
+    }
+
+    private ChannelKeyFeed notifyingFeed(int backstopMillis) {
+        when(webhookProperties.isInsertNotifyEnabled()).thenReturn(true);
+        when(webhookProperties.getInsertNotifyBackstopMillis()).thenReturn(backstopMillis);
+        return new ChannelKeyFeed(contentRetriever, webhookProperties);
+    }
+
+    private TimeQuery buildQuery(String channel, DateTime startTime) {
+        return TimeQuery.builder()
+                .channelName(channel)
+                .startTime(startTime)
+                .unit(TimeUtil.Unit.SECONDS)
+                .epoch(Epoch.IMMUTABLE)
+                .build();
+    }
+}
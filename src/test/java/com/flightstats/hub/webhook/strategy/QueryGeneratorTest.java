@@ -83,4 +83,16 @@ class QueryGeneratorTest {
         assertEquals(TimeUtil.Unit.MINUTES, query.getUnit());
         assertEquals("2015/05/07/10/02/00/000/", TimeUtil.millis(query.getStartTime()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testPeekDoesNotMoveForward() {
+        DateTime startTime = new DateTime(2015, 5, 7, 8, 5, 1, 2, DateTimeZone.UTC);
+        DateTime latestStableInChannel = new DateTime(2015, 5, 7, 11, 6, 1, 2, DateTimeZone.UTC);
+        QueryGenerator generator = new QueryGenerator(startTime, "test");
+
+        TimeQuery peeked = generator.peekQuery(latestStableInChannel);
+        assertEquals(TimeUtil.Unit.HOURS, peeked.getUnit());
+        assertEquals(peeked, generator.getQuery(latestStableInChannel));
+        assertEquals("2015/05/07/09", TimeUtil.hours(generator.peekQuery(latestStableInChannel).getStartTime()));
+    }
+}
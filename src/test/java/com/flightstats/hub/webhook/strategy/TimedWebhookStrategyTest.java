@@ -2,6 +2,7 @@ package com.flightstats.hub.webhook.strategy;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flightstats.hub.cluster.ClusterCacheDao;
+import com.flightstats.hub.config.properties.WebhookProperties;
 import com.flightstats.hub.dao.aws.ContentRetriever;
 import com.flightstats.hub.model.ContentKey;
 import com.flightstats.hub.model.ContentPath;
@@ -94,7 +95,7 @@ class TimedWebhookStrategyTest {
         ContentPath mostRecentKey = ContentKey.fromUrl("2019/02/04/13/25/00/999/adbdsa").get();
         when(clusterCacheDao.get("webhook", startingPath, WEBHOOK_LAST_COMPLETED)).thenReturn(mostRecentKey);
 
-        TimedWebhookStrategy timedWebhookStrategy = new TimedWebhookStrategy(contentRetriever, clusterCacheDao, objectMapper, webhook);
+        TimedWebhookStrategy timedWebhookStrategy = new TimedWebhookStrategy(contentRetriever, channelKeyFeed(contentRetriever), clusterCacheDao, objectMapper, webhook);
 
         assertEquals(mostRecentKey, timedWebhookStrategy.getStartingPath());
 
@@ -117,7 +118,7 @@ class TimedWebhookStrategyTest {
         ContentPath channelLatest = ContentPath.fromUrl("2019/03/02/21/22/21/000/abcdef").get();
         when(clusterCacheDao.get("webhook", new MinutePath(), WEBHOOK_LAST_COMPLETED)).thenReturn(channelLatest);
 
-        TimedWebhookStrategy timedWebhookStrategy = new TimedWebhookStrategy(contentRetriever, clusterCacheDao, objectMapper, webhook);
+        TimedWebhookStrategy timedWebhookStrategy = new TimedWebhookStrategy(contentRetriever, channelKeyFeed(contentRetriever), clusterCacheDao, objectMapper, webhook);
 
         assertEquals(channelLatest, timedWebhookStrategy.getStartingPath());
     }
@@ -164,7 +165,7 @@ class TimedWebhookStrategyTest {
         when(contentRetriever.queryByTime(buildTimeQuery(fifthMinute.getTime())))
                 .thenReturn(new TreeSet<>(fifthMinute.getKeys()));
 
-        TimedWebhookStrategy timedWebhookStrategy = new TimedWebhookStrategy(contentRetriever, clusterCacheDao, objectMapper, webhook);
+        TimedWebhookStrategy timedWebhookStrategy = new TimedWebhookStrategy(contentRetriever, channelKeyFeed(contentRetriever), clusterCacheDao, objectMapper, webhook);
         Runnable contentKeyGenerator = timedWebhookStrategy.getContentKeyGenerator(webhook, lastCompletedPath);
         contentKeyGenerator.run();
 
@@ -175,6 +176,13 @@ class TimedWebhookStrategyTest {
         assertEquals(expectedPaths, queuedPaths);
     }
 
+    private ChannelKeyFeed channelKeyFeed(ContentRetriever contentRetriever) {
+        WebhookProperties webhookProperties = mock(WebhookProperties.class);
+        when(webhookProperties.getChannelFeedMaxBuckets()).thenReturn(100);
+        when(webhookProperties.getChannelFeedTtlSeconds()).thenReturn(60);
+        return new ChannelKeyFeed(contentRetriever, webhookProperties);
+    }
+
     private TimeQuery buildTimeQuery(DateTime startTime) {
         return TimeQuery.builder()
                 .channelName("channel")
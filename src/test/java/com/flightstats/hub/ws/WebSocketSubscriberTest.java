@@ -0,0 +1,63 @@
+package com.flightstats.hub.ws;
+
+import com.flightstats.hub.model.ContentKey;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.Session;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WebSocketSubscriberTest {
+
+    private static final DateTime START = new DateTime(2019, 5, 7, 11, 5, 1, 0, DateTimeZone.UTC);
+    private static final String CHANNEL_URL = "http://hub/channel/test";
+
+    @Mock
+    private Session session;
+    @Mock
+    private RemoteEndpoint.Async async;
+
+    @BeforeEach
+    void setUp() {
+        when(session.getAsyncRemote()).thenReturn(async);
+    }
+
+    @Test
+    void testOneSendInFlight() {
+        WebSocketSubscriber subscriber = new WebSocketSubscriber(session, CHANNEL_URL, new ContentKey(START, "a"), 10);
+        ContentKey first = new ContentKey(START.plusMillis(1), "a");
+
+        assertTrue(subscriber.offer(first, () -> first));
+        assertTrue(subscriber.offer(new ContentKey(START.plusMillis(2), "a"), () -> null));
+
+        verify(async, times(1)).sendText(anyString(), any(SendHandler.class));
+        verify(async).sendText(eq(CHANNEL_URL + "/" + first.toUrl()), any(SendHandler.class));
+    }
+
+    @Test
+    void testFullBufferIsRejected() {
+        WebSocketSubscriber subscriber = new WebSocketSubscriber(session, CHANNEL_URL, new ContentKey(START, "a"), 2);
+
+        assertTrue(subscriber.offer(new ContentKey(START.plusSeconds(1), "a"), () -> null));
+        assertTrue(subscriber.offer(new ContentKey(START.plusSeconds(2), "a"), () -> null));
+        assertTrue(subscriber.offer(new ContentKey(START.plusSeconds(3), "a"), () -> null));
+        assertFalse(subscriber.hasCapacityForCatchUp());
+        assertFalse(subscriber.offer(new ContentKey(START.plusSeconds(4), "a"), () -> null));
+    }
+}